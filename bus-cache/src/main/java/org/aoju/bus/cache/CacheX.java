@@ -24,8 +24,11 @@
  ********************************************************************************/
 package org.aoju.bus.cache;
 
+import org.aoju.bus.cache.support.CacheExecutor;
+
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 缓存接口
@@ -84,4 +87,57 @@ public interface CacheX {
      */
     void clear();
 
+    /**
+     * 异步获得对象, 默认在调用线程执行, 远程缓存应覆盖为非阻塞实现
+     *
+     * @param key 键
+     * @return 键对应的对象
+     */
+    default CompletableFuture<Object> readAsync(String key) {
+        return CacheExecutor.supply(() -> read(key));
+    }
+
+    /**
+     * 异步获得一组对象信息
+     *
+     * @param keys 多个键
+     * @return 值对象
+     */
+    default CompletableFuture<Map<String, Object>> readAsync(Collection<String> keys) {
+        return CacheExecutor.supply(() -> read(keys));
+    }
+
+    /**
+     * 异步将对象加入到缓存
+     *
+     * @param key    键
+     * @param value  缓存的对象
+     * @param expire 失效时长,单位毫秒
+     * @return 写入完成
+     */
+    default CompletableFuture<Void> writeAsync(String key, Object value, long expire) {
+        return CacheExecutor.run(() -> write(key, value, expire));
+    }
+
+    /**
+     * 异步将一组对象加入到缓存
+     *
+     * @param map    缓存的对象
+     * @param expire 失效时长,单位毫秒
+     * @return 写入完成
+     */
+    default CompletableFuture<Void> writeAsync(Map<String, Object> map, long expire) {
+        return CacheExecutor.run(() -> write(map, expire));
+    }
+
+    /**
+     * 异步移除对象
+     *
+     * @param keys 键
+     * @return 移除完成
+     */
+    default CompletableFuture<Void> removeAsync(String... keys) {
+        return CacheExecutor.run(() -> remove(keys));
+    }
+
 }
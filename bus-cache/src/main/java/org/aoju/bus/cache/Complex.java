@@ -24,12 +24,14 @@
  ********************************************************************************/
 package org.aoju.bus.cache;
 
+import com.google.common.base.Strings;
 import org.aoju.bus.cache.annotation.Cached;
 import org.aoju.bus.cache.annotation.CachedGet;
 import org.aoju.bus.cache.annotation.Invalid;
 import org.aoju.bus.cache.magic.*;
 import org.aoju.bus.cache.support.ArgNameGenerator;
 import org.aoju.bus.cache.support.CacheInfoContainer;
+import org.aoju.bus.cache.support.CompiledSpel;
 import org.aoju.bus.cache.support.KeyGenerator;
 import org.aoju.bus.cache.support.SpelCalculator;
 import org.aoju.bus.core.annotation.Inject;
@@ -93,6 +95,15 @@ public class Complex {
             return false;
         }
 
+        if (Strings.isNullOrEmpty(condition)) {
+            return true;
+        }
+
+        // 优先使用方法预编译的condition, 注解与缓存信息不一致时(同一方法标注了多个注解)再即时计算
+        CompiledSpel compiled = CacheInfoContainer.getCacheInfo(method).getLeft().getCondition();
+        if (condition.equals(compiled.getSpel())) {
+            return (boolean) compiled.getValue(args, true);
+        }
         return (boolean) SpelCalculator.calcSpelValueWithContext(condition, ArgNameGenerator.getArgNames(method), args, true);
     }
 
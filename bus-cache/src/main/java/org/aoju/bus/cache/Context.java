@@ -45,11 +45,19 @@ public class Context {
     // 是否开启缓存防击穿
     private Switch prevent;
 
+    // 是否合并同一key并发未命中的加载(single-flight)
+    private Switch coalesce;
+
+    // 合并加载时等待者的最长等待时间(毫秒), 超时后自行调用方法
+    private long coalesceTimeout;
+
     public static Context newConfig(Map<String, CacheX> caches) {
         Context config = new Context();
         config.caches = caches;
         config.cache = Switch.ON;
         config.prevent = Switch.OFF;
+        config.coalesce = Switch.OFF;
+        config.coalesceTimeout = 3000;
         config.hitting = null;
         return config;
     }
@@ -58,6 +66,10 @@ public class Context {
         return prevent != null && prevent == Switch.ON;
     }
 
+    public boolean isCoalesceOn() {
+        return coalesce != null && coalesce == Switch.ON;
+    }
+
     public Map<String, CacheX> getCaches() {
         return caches;
     }
@@ -90,6 +102,22 @@ public class Context {
         this.prevent = prevent;
     }
 
+    public Switch getCoalesce() {
+        return coalesce;
+    }
+
+    public void setCoalesce(Switch coalesce) {
+        this.coalesce = coalesce;
+    }
+
+    public long getCoalesceTimeout() {
+        return coalesceTimeout;
+    }
+
+    public void setCoalesceTimeout(long coalesceTimeout) {
+        this.coalesceTimeout = coalesceTimeout;
+    }
+
     public enum Switch {
         ON,
         OFF
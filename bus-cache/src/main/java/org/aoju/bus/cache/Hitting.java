@@ -41,6 +41,24 @@ public interface Hitting {
 
     Map<String, HittingDO> getHitting();
 
+    /**
+     * 当前进程内的命中率, 不访问存储; 持久化实现中尚未落盘的计数也包含在内
+     *
+     * @return 分组模板 -> 命中率
+     */
+    default Map<String, HittingDO> getSnapshot() {
+        return getHitting();
+    }
+
+    /**
+     * 记录一次软过期后台刷新的结果, 刷新计数只在进程内统计
+     *
+     * @param pattern 分组模板
+     * @param success 是否刷新成功
+     */
+    default void refreshIncr(String pattern, boolean success) {
+    }
+
     void reset(String pattern);
 
     void resetAll();
@@ -57,24 +75,36 @@ public interface Hitting {
 
         private String rate;
 
-        private HittingDO(long hit, long required, String rate) {
+        private long refreshed;
+
+        private long refreshFailed;
+
+        private HittingDO(long hit, long required, String rate, long refreshed, long refreshFailed) {
             this.hit = hit;
             this.required = required;
             this.rate = rate;
+            this.refreshed = refreshed;
+            this.refreshFailed = refreshFailed;
         }
 
         public static HittingDO newInstance(long hit, long required) {
+            return newInstance(hit, required, 0, 0);
+        }
+
+        public static HittingDO newInstance(long hit, long required, long refreshed, long refreshFailed) {
             double rate = (required == 0 ? 0.0 : hit * 100.0 / required);
             String rateStr = String.format("%.1f%s", rate, Symbol.PERCENT);
 
-            return new HittingDO(hit, required, rateStr);
+            return new HittingDO(hit, required, rateStr, refreshed, refreshFailed);
         }
 
         public static HittingDO mergeShootingDO(HittingDO do1, HittingDO do2) {
             long hit = do1.getHit() + do2.getHit();
             long required = do1.getRequired() + do2.getRequired();
+            long refreshed = do1.getRefreshed() + do2.getRefreshed();
+            long refreshFailed = do1.getRefreshFailed() + do2.getRefreshFailed();
 
-            return newInstance(hit, required);
+            return newInstance(hit, required, refreshed, refreshFailed);
         }
 
         public long getHit() {
@@ -88,6 +118,14 @@ public interface Hitting {
         public String getRate() {
             return rate;
         }
+
+        public long getRefreshed() {
+            return refreshed;
+        }
+
+        public long getRefreshFailed() {
+            return refreshFailed;
+        }
     }
 
 }
@@ -24,6 +24,7 @@
  ********************************************************************************/
 package org.aoju.bus.cache;
 
+import org.aoju.bus.cache.magic.CacheEntry;
 import org.aoju.bus.cache.magic.CacheKeys;
 import org.aoju.bus.cache.magic.CachePair;
 import org.aoju.bus.core.annotation.Inject;
@@ -33,6 +34,7 @@ import org.aoju.bus.core.toolkit.StringKit;
 import org.aoju.bus.logger.Logger;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -58,6 +60,13 @@ public class Manage {
     }
 
     public Object readSingle(String cache, String key) {
+        return CacheEntry.unwrap(readEntry(cache, key));
+    }
+
+    /**
+     * 读取缓存中原样存储的值, 开启软过期时为{@link CacheEntry}, 仅供缓存读取逻辑判断是否需要刷新
+     */
+    public Object readEntry(String cache, String key) {
         try {
             CachePair<String, CacheX> cacheImpl = getCacheImpl(cache);
 
@@ -105,20 +114,7 @@ public class Manage {
                         cacheImpl.getLeft(),
                         (System.currentTimeMillis() - start));
 
-                // collect not nit keys, keep order when full shooting
-                Map<String, Object> hitValueMap = new LinkedHashMap<>();
-                Set<String> notHitKeys = new LinkedHashSet<>();
-                for (String key : keys) {
-                    Object value = cacheMap.get(key);
-
-                    if (value == null) {
-                        notHitKeys.add(key);
-                    } else {
-                        hitValueMap.put(key, value);
-                    }
-                }
-
-                cacheKeys = new CacheKeys(hitValueMap, notHitKeys);
+                cacheKeys = toCacheKeys(keys, cacheMap);
             } catch (Throwable e) {
                 Logger.error("read multi cache failed, keys: {}", keys, e);
                 cacheKeys = new CacheKeys();
@@ -160,6 +156,145 @@ public class Manage {
         }
     }
 
+    public CompletableFuture<Object> readSingleAsync(String cache, String key) {
+        return readEntryAsync(cache, key).thenApply(CacheEntry::unwrap);
+    }
+
+    /**
+     * 异步读取缓存中原样存储的值, 见{@link #readEntry(String, String)}
+     */
+    public CompletableFuture<Object> readEntryAsync(String cache, String key) {
+        try {
+            CachePair<String, CacheX> cacheImpl = getCacheImpl(cache);
+
+            long start = System.currentTimeMillis();
+            return cacheImpl.getRight().readAsync(key).handle((result, e) -> {
+                if (e != null) {
+                    Logger.error("read single cache async failed, key: {} ", key, e);
+                    return null;
+                }
+                Logger.info("cache [{}] read single async cost: [{}] ms",
+                        cacheImpl.getLeft(),
+                        (System.currentTimeMillis() - start));
+                return result;
+            });
+        } catch (Throwable e) {
+            Logger.error("read single cache async failed, key: {} ", key, e);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    public CompletableFuture<Void> writeSingleAsync(String cache, String key, Object value, int expire) {
+        if (value == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            CachePair<String, CacheX> cacheImpl = getCacheImpl(cache);
+
+            long start = System.currentTimeMillis();
+            return cacheImpl.getRight().writeAsync(key, value, expire).handle((result, e) -> {
+                if (e != null) {
+                    Logger.error("write single cache async failed, key: {} ", key, e);
+                } else {
+                    Logger.info("cache [{}] write single async cost: [{}] ms",
+                            cacheImpl.getLeft(),
+                            (System.currentTimeMillis() - start));
+                }
+                return null;
+            });
+        } catch (Throwable e) {
+            Logger.error("write single cache async failed, key: {} ", key, e);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    public CompletableFuture<CacheKeys> readBatchAsync(String cache, Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return CompletableFuture.completedFuture(new CacheKeys());
+        }
+        try {
+            CachePair<String, CacheX> cacheImpl = getCacheImpl(cache);
+
+            long start = System.currentTimeMillis();
+            return cacheImpl.getRight().readAsync(keys).handle((cacheMap, e) -> {
+                if (e != null) {
+                    Logger.error("read multi cache async failed, keys: {}", keys, e);
+                    return new CacheKeys();
+                }
+                Logger.info("cache [{}] read batch async cost: [{}] ms",
+                        cacheImpl.getLeft(),
+                        (System.currentTimeMillis() - start));
+                return toCacheKeys(keys, cacheMap);
+            });
+        } catch (Throwable e) {
+            Logger.error("read multi cache async failed, keys: {}", keys, e);
+            return CompletableFuture.completedFuture(new CacheKeys());
+        }
+    }
+
+    public CompletableFuture<Void> writeBatchAsync(String cache, Map<String, Object> keyValueMap, int expire) {
+        try {
+            CachePair<String, CacheX> cacheImpl = getCacheImpl(cache);
+
+            long start = System.currentTimeMillis();
+            return cacheImpl.getRight().writeAsync(keyValueMap, expire).handle((result, e) -> {
+                if (e != null) {
+                    Logger.error("write map multi cache async failed, keys: {}", keyValueMap.keySet(), e);
+                } else {
+                    Logger.info("cache [{}] write batch async cost: [{}] ms",
+                            cacheImpl.getLeft(),
+                            (System.currentTimeMillis() - start));
+                }
+                return null;
+            });
+        } catch (Throwable e) {
+            Logger.error("write map multi cache async failed, keys: {}", keyValueMap.keySet(), e);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    public CompletableFuture<Void> removeAsync(String cache, String... keys) {
+        if (keys == null || keys.length == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            CachePair<String, CacheX> cacheImpl = getCacheImpl(cache);
+
+            long start = System.currentTimeMillis();
+            return cacheImpl.getRight().removeAsync(keys).handle((result, e) -> {
+                if (e != null) {
+                    Logger.error("remove cache async failed, keys: {}: ", keys, e);
+                } else {
+                    Logger.info("cache [{}] remove async cost: [{}] ms",
+                            cacheImpl.getLeft(),
+                            (System.currentTimeMillis() - start));
+                }
+                return null;
+            });
+        } catch (Throwable e) {
+            Logger.error("remove cache async failed, keys: {}: ", keys, e);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private CacheKeys toCacheKeys(Collection<String> keys, Map<String, Object> cacheMap) {
+        // collect not nit keys, keep order when full shooting
+        Map<String, Object> hitValueMap = new LinkedHashMap<>();
+        Set<String> notHitKeys = new LinkedHashSet<>();
+        for (String key : keys) {
+            // 批量读取不触发软过期刷新, 直接取出原值
+            Object value = CacheEntry.unwrap(cacheMap.get(key));
+
+            if (value == null) {
+                notHitKeys.add(key);
+            } else {
+                hitValueMap.put(key, value);
+            }
+        }
+
+        return new CacheKeys(hitValueMap, notHitKeys);
+    }
+
     private CachePair<String, CacheX> getCacheImpl(String cacheName) {
         if (StringKit.isEmpty(cacheName)) {
             return defaultCache;
@@ -63,4 +63,15 @@ public @interface Cached {
      */
     int expire() default CacheExpire.FOREVER;
 
+    /**
+     * @return soft expire time, time unit: <b>milliseconds</b>,
+     * a read after it returns the cached value at once and triggers one background refresh,
+     * {@code expire} is still the hard expire time; a value {@code <= 0} (default {@link CacheExpire#NO})
+     * disables soft refresh.
+     * The refresh invokes the method again on a background thread with the arguments of the
+     * triggering call, after that call has returned, so the method must not depend on the
+     * caller's thread-bound context (ThreadLocal, transaction, security context)
+     */
+    int softExpire() default CacheExpire.NO;
+
 }
@@ -25,6 +25,7 @@
 package org.aoju.bus.cache.magic;
 
 import org.aoju.bus.cache.annotation.CacheKey;
+import org.aoju.bus.cache.support.CompiledSpel;
 
 import java.lang.reflect.Method;
 import java.util.Map;
@@ -42,6 +43,7 @@ public class AnnoHolder {
     private String cache;
     private String prefix;
     private int expire;
+    private int softExpire;
 
     // @CacheKey
     private Map<Integer, CacheKey> cacheKeyMap;
@@ -50,16 +52,24 @@ public class AnnoHolder {
 
     private String id;
 
+    // 预编译的@CacheKey表达式与condition表达式
+    private Map<Integer, CompiledSpel> cacheKeySpelMap;
+    private CompiledSpel condition;
+
     private AnnoHolder(Method method,
-                       String cache, String prefix, int expire,
-                       Map<Integer, CacheKey> cacheKeyMap, int multiIndex, String id) {
+                       String cache, String prefix, int expire, int softExpire,
+                       Map<Integer, CacheKey> cacheKeyMap, int multiIndex, String id,
+                       Map<Integer, CompiledSpel> cacheKeySpelMap, CompiledSpel condition) {
         this.method = method;
         this.cache = cache;
         this.prefix = prefix;
         this.expire = expire;
+        this.softExpire = softExpire;
         this.cacheKeyMap = cacheKeyMap;
         this.multiIndex = multiIndex;
         this.id = id;
+        this.cacheKeySpelMap = cacheKeySpelMap;
+        this.condition = condition;
     }
 
     public Method getMethod() {
@@ -78,6 +88,14 @@ public class AnnoHolder {
         return expire;
     }
 
+    public int getSoftExpire() {
+        return softExpire;
+    }
+
+    public boolean isRefreshAhead() {
+        return softExpire > 0;
+    }
+
     public Map<Integer, CacheKey> getCacheKeyMap() {
         return cacheKeyMap;
     }
@@ -94,6 +112,14 @@ public class AnnoHolder {
         return id;
     }
 
+    public Map<Integer, CompiledSpel> getCacheKeySpelMap() {
+        return cacheKeySpelMap;
+    }
+
+    public CompiledSpel getCondition() {
+        return condition;
+    }
+
     public static class Builder {
 
         private Method method;
@@ -104,12 +130,18 @@ public class AnnoHolder {
 
         private int expire;
 
+        private int softExpire = CacheExpire.NO;
+
         private Map<Integer, CacheKey> cacheKeyMap;
 
         private int multiIndex = -1;
 
         private String id;
 
+        private Map<Integer, CompiledSpel> cacheKeySpelMap;
+
+        private CompiledSpel condition;
+
         private Builder(Method method) {
             this.method = method;
         }
@@ -133,6 +165,11 @@ public class AnnoHolder {
             return this;
         }
 
+        public Builder setSoftExpire(int softExpire) {
+            this.softExpire = softExpire;
+            return this;
+        }
+
         public Builder setMultiIndex(int multiIndex) {
             this.multiIndex = multiIndex;
             return this;
@@ -148,8 +185,26 @@ public class AnnoHolder {
             return this;
         }
 
+        public Builder setCacheKeySpelMap(Map<Integer, CompiledSpel> cacheKeySpelMap) {
+            this.cacheKeySpelMap = cacheKeySpelMap;
+            return this;
+        }
+
+        public Builder setCondition(CompiledSpel condition) {
+            this.condition = condition;
+            return this;
+        }
+
+        public int getMultiIndex() {
+            return multiIndex;
+        }
+
+        public Map<Integer, CacheKey> getCacheKeyMap() {
+            return cacheKeyMap;
+        }
+
         public AnnoHolder build() {
-            return new AnnoHolder(method, cache, prefix, expire, cacheKeyMap, multiIndex, id);
+            return new AnnoHolder(method, cache, prefix, expire, softExpire, cacheKeyMap, multiIndex, id, cacheKeySpelMap, condition);
         }
     }
 
@@ -0,0 +1,69 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.cache.magic;
+
+import java.io.Serializable;
+
+/**
+ * 开启软过期({@code softExpire})时写入缓存的值, 记录需要后台刷新的时间点
+ *
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public class CacheEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Object value;
+
+    private long refreshAt;
+
+    private CacheEntry() {
+
+    }
+
+    public CacheEntry(Object value, long refreshAt) {
+        this.value = value;
+        this.refreshAt = refreshAt;
+    }
+
+    public static Object unwrap(Object value) {
+        return value instanceof CacheEntry ? ((CacheEntry) value).value : value;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public long getRefreshAt() {
+        return refreshAt;
+    }
+
+    public boolean isStale() {
+        return System.currentTimeMillis() >= refreshAt;
+    }
+
+}
@@ -40,14 +40,30 @@ public class MethodHolder {
 
     private boolean collection;
 
+    private boolean future;
+
     public MethodHolder(boolean collection) {
+        this(collection, false);
+    }
+
+    public MethodHolder(boolean collection, boolean future) {
         this.collection = collection;
+        this.future = future;
     }
 
     public boolean isCollection() {
         return collection;
     }
 
+    /**
+     * 方法返回{@link java.util.concurrent.CompletableFuture}时, 缓存的是Future完成后的值
+     *
+     * @return 是否异步方法
+     */
+    public boolean isFuture() {
+        return future;
+    }
+
     public Class<?> getReturnType() {
         return returnType;
     }
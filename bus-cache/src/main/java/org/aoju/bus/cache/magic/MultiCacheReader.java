@@ -53,6 +53,8 @@ public class MultiCacheReader extends AbstractReader {
     @Inject(optional = true)
     private Hitting baseHitting;
 
+    private final SingleFlight singleFlight = new SingleFlight();
+
     private static Map mergeMap(Class<?> resultMapType,
                                 Map proceedEntryValueMap,
                                 Map<String, Object> key2MultiEntry,
@@ -131,7 +133,11 @@ public class MultiCacheReader extends AbstractReader {
         Object result;
         // have miss keys : part hit || all not hit
         if (!cacheKeys.getMissKeySet().isEmpty()) {
-            result = handlePartHit(baseInvoker, cacheKeys, annoHolder, methodHolder, pair, needWrite);
+            if (config.isCoalesceOn()) {
+                result = handleCoalescedHit(baseInvoker, cacheKeys, annoHolder, methodHolder, pair, needWrite);
+            } else {
+                result = handlePartHit(baseInvoker, cacheKeys, annoHolder, methodHolder, pair, needWrite);
+            }
         }
         // no miss keys : all hit || empty key
         else {
@@ -153,43 +159,144 @@ public class MultiCacheReader extends AbstractReader {
         Map<String, Object> hitKeyValueMap = cacheKeys.getHitKeyMap();
 
         // 用未命中的keys调用方法
-        Object[] missArgs = toMissArgs(missKeys, key2MultiEntry, baseInvoker.getArguments(), annoHolder.getMultiIndex());
-        Object proceed = doLogInvoke(() -> baseInvoker.proceed(missArgs));
+        Object proceed = proceedMissKeys(baseInvoker, missKeys, annoHolder, methodHolder, key2MultiEntry);
+        if (proceed == null) {
+            // read as full shooting
+            return handleFullHit(baseInvoker, hitKeyValueMap, methodHolder, key2MultiEntry);
+        }
 
-        Object result;
-        if (proceed != null) {
-            Class<?> returnType = proceed.getClass();
-            methodHolder.setReturnType(returnType);
-            if (Map.class.isAssignableFrom(returnType)) {
-                Map proceedEntryValueMap = (Map) proceed;
-
-                // 为了兼容@CachedGet注解, 客户端缓存
-                if (needWrite) {
-                    // 将方法调用返回的map转换成key_value_map写入Cache
-                    Map<String, Object> keyValueMap = KeyValue.mapToKeyValue(proceedEntryValueMap, missKeys, multiEntry2Key, config.getPrevent());
-                    cacheManager.writeBatch(annoHolder.getCache(), keyValueMap, annoHolder.getExpire());
-                }
-                // 将方法调用返回的map与从Cache中读取的key_value_map合并返回
-                result = mergeMap(returnType, proceedEntryValueMap, key2MultiEntry, hitKeyValueMap);
+        Class<?> returnType = proceed.getClass();
+        // 为了兼容@CachedGet注解, 客户端缓存
+        if (needWrite) {
+            // 将方法调用返回的内容转换成key_value_map写入Cache
+            Map<String, Object> keyValueMap = toKeyValue(proceed, missKeys, annoHolder, multiEntry2Key);
+            cacheManager.writeBatch(annoHolder.getCache(), keyValueMap, annoHolder.getExpire());
+        }
+
+        // 将方法调用返回的内容与从Cache中读取的key_value_map合并返回
+        if (Map.class.isAssignableFrom(returnType)) {
+            return mergeMap(returnType, (Map) proceed, key2MultiEntry, hitKeyValueMap);
+        }
+        Collection resultCollection = mergeCollection(returnType, asCollection(proceed, returnType), hitKeyValueMap);
+        return asType(resultCollection, returnType);
+    }
+
+    /**
+     * 合并模式: 未命中的key中, 已有其他调用者在加载的只等待其结果, 其余key由当前调用者加载,
+     * 等待超时的key再由当前调用者补充加载, 其他调用者加载失败时异常直接抛出, 最终与命中内容一起按key顺序组装返回值
+     */
+    private Object handleCoalescedHit(ProxyChain baseInvoker, CacheKeys cacheKeys,
+                                      AnnoHolder annoHolder, MethodHolder methodHolder,
+                                      Map[] pair, boolean needWrite) throws Throwable {
+
+        Map<String, Object> key2MultiEntry = pair[1];
+
+        List<SingleFlight.Flight> leaders = new ArrayList<>();
+        List<SingleFlight.Flight> followers = new ArrayList<>();
+        for (String missKey : cacheKeys.getMissKeySet()) {
+            SingleFlight.Flight flight = singleFlight.join(missKey);
+            if (flight.isLeader()) {
+                leaders.add(flight);
             } else {
-                Collection proceedCollection = asCollection(proceed, returnType);
-
-                // 为了兼容@CachedGet注解, 客户端缓存
-                if (needWrite) {
-                    // 将方法调用返回的collection转换成key_value_map写入Cache
-                    Map<String, Object> keyValueMap = KeyValue.collectionToKeyValue(proceedCollection, annoHolder.getId(), missKeys, multiEntry2Key, config.getPrevent());
-                    cacheManager.writeBatch(annoHolder.getCache(), keyValueMap, annoHolder.getExpire());
-                }
-                // 将方法调用返回的collection与从Cache中读取的key_value_map合并返回
-                Collection resultCollection = mergeCollection(returnType, proceedCollection, hitKeyValueMap);
-                result = asType(resultCollection, returnType);
+                followers.add(flight);
+            }
+        }
+
+        Map<String, Object> loadedKeyValueMap = new HashMap<>();
+        if (!leaders.isEmpty()) {
+            try {
+                Set<String> leaderKeys = leaders.stream().map(SingleFlight.Flight::getKey).collect(Collectors.toCollection(LinkedHashSet::new));
+                loadedKeyValueMap.putAll(loadMissKeys(baseInvoker, leaderKeys, annoHolder, methodHolder, pair, needWrite));
+                singleFlight.complete(leaders, loadedKeyValueMap);
+            } catch (Throwable e) {
+                singleFlight.fail(leaders, e);
+                throw e;
             }
+        }
+
+        if (!followers.isEmpty()) {
+            Map<String, Object> sharedKeyValueMap = singleFlight.await(followers, config.getCoalesceTimeout());
+            loadedKeyValueMap.putAll(sharedKeyValueMap);
+
+            Set<String> fallbackKeys = followers.stream()
+                    .map(SingleFlight.Flight::getKey)
+                    .filter(key -> !sharedKeyValueMap.containsKey(key))
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            if (!fallbackKeys.isEmpty()) {
+                loadedKeyValueMap.putAll(loadMissKeys(baseInvoker, fallbackKeys, annoHolder, methodHolder, pair, needWrite));
+            }
+        }
+
+        // 按请求key的顺序组装, 未加载到的key以防击穿对象占位, 组装时会被跳过
+        Map<String, Object> hitKeyValueMap = cacheKeys.getHitKeyMap();
+        Map<String, Object> keyValueMap = new LinkedHashMap<>(key2MultiEntry.size());
+        for (String key : key2MultiEntry.keySet()) {
+            Object value = hitKeyValueMap.get(key);
+            if (value == null) {
+                value = loadedKeyValueMap.get(key);
+            }
+            keyValueMap.put(key, value == null ? PreventObjects.getPreventObject() : value);
+        }
+
+        return handleFullHit(baseInvoker, keyValueMap, methodHolder, key2MultiEntry);
+    }
+
+    /**
+     * 用指定的未命中keys调用方法并写入缓存
+     *
+     * @return key_value_map, 方法未返回内容的key以防击穿对象占位
+     */
+    private Map<String, Object> loadMissKeys(ProxyChain baseInvoker, Set<String> missKeys,
+                                             AnnoHolder annoHolder, MethodHolder methodHolder,
+                                             Map[] pair, boolean needWrite) throws Throwable {
+
+        Map<Object, String> multiEntry2Key = pair[0];
+        Map<String, Object> key2MultiEntry = pair[1];
+
+        Object proceed = proceedMissKeys(baseInvoker, missKeys, annoHolder, methodHolder, key2MultiEntry);
+
+        Set<String> pendingKeys = new LinkedHashSet<>(missKeys);
+        Map<String, Object> keyValueMap;
+        if (proceed == null) {
+            keyValueMap = new HashMap<>();
         } else {
-            // read as full shooting
-            result = handleFullHit(baseInvoker, hitKeyValueMap, methodHolder, key2MultiEntry);
+            keyValueMap = toKeyValue(proceed, pendingKeys, annoHolder, multiEntry2Key);
+            if (needWrite) {
+                cacheManager.writeBatch(annoHolder.getCache(), keyValueMap, annoHolder.getExpire());
+            }
         }
 
-        return result;
+        pendingKeys.forEach(key -> keyValueMap.putIfAbsent(key, PreventObjects.getPreventObject()));
+        return keyValueMap;
+    }
+
+    /**
+     * 用未命中的keys调用方法, 并记录方法的实际返回类型
+     */
+    private Object proceedMissKeys(ProxyChain baseInvoker, Set<String> missKeys,
+                                   AnnoHolder annoHolder, MethodHolder methodHolder,
+                                   Map<String, Object> key2MultiEntry) throws Throwable {
+
+        Object[] missArgs = toMissArgs(missKeys, key2MultiEntry, baseInvoker.getArguments(), annoHolder.getMultiIndex());
+        Object proceed = doLogInvoke(() -> baseInvoker.proceed(missArgs));
+        if (proceed != null) {
+            methodHolder.setReturnType(proceed.getClass());
+        }
+        return proceed;
+    }
+
+    /**
+     * 将方法返回的map或collection转换成key_value_map, 已返回内容的key会从missKeys中移除
+     */
+    private Map<String, Object> toKeyValue(Object proceed, Set<String> missKeys,
+                                           AnnoHolder annoHolder, Map<Object, String> multiEntry2Key) {
+
+        Class<?> returnType = proceed.getClass();
+        if (Map.class.isAssignableFrom(returnType)) {
+            return KeyValue.mapToKeyValue((Map) proceed, missKeys, multiEntry2Key, config.getPrevent());
+        }
+        Collection proceedCollection = asCollection(proceed, returnType);
+        return KeyValue.collectionToKeyValue(proceedCollection, annoHolder.getId(), missKeys, multiEntry2Key, config.getPrevent());
     }
 
     private Object asType(Collection collection, Class<?> returnType) {
@@ -0,0 +1,96 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.cache.magic;
+
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 软过期后的后台刷新: 同一key同一时刻只有一个刷新任务, 任务在有界线程池中执行,
+ * 线程池已满时放弃本次刷新, 由之后的读请求再次触发或等待硬过期;
+ * 刷新任务在原调用返回后才执行, 只对显式设置了{@code softExpire}的方法生效
+ *
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public class Refresher {
+
+    private static final int THREADS = 4;
+
+    private static final int QUEUE_SIZE = 1024;
+
+    private static final ExecutorService executor;
+
+    static {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(THREADS, THREADS,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_SIZE),
+                r -> {
+                    Thread thread = new Thread(r);
+                    thread.setName("cache:refresher-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        executor = pool;
+    }
+
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 提交刷新任务
+     *
+     * @param key  缓存key
+     * @param task 刷新任务, 返回的Future完成时视为刷新结束
+     * @return 是否已提交, key正在刷新或线程池已满时返回false
+     */
+    public boolean refresh(String key, Supplier<CompletableFuture<?>> task) {
+        if (!refreshing.add(key)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                CompletableFuture<?> future;
+                try {
+                    future = task.get();
+                } catch (Throwable e) {
+                    refreshing.remove(key);
+                    return;
+                }
+                future.whenComplete((value, e) -> refreshing.remove(key));
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+            return false;
+        }
+    }
+
+}
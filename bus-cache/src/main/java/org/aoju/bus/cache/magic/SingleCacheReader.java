@@ -27,6 +27,7 @@ package org.aoju.bus.cache.magic;
 import org.aoju.bus.cache.Context;
 import org.aoju.bus.cache.Hitting;
 import org.aoju.bus.cache.Manage;
+import org.aoju.bus.cache.support.CacheExecutor;
 import org.aoju.bus.cache.support.KeyGenerator;
 import org.aoju.bus.cache.support.PatternGenerator;
 import org.aoju.bus.cache.support.PreventObjects;
@@ -35,6 +36,8 @@ import org.aoju.bus.core.annotation.Singleton;
 import org.aoju.bus.logger.Logger;
 import org.aoju.bus.proxy.invoker.ProxyChain;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * @author Kimi Liu
  * @version 5.9.6
@@ -52,14 +55,23 @@ public class SingleCacheReader extends AbstractReader {
     @Inject(optional = true)
     private Hitting baseHitting;
 
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    private final Refresher refresher = new Refresher();
+
     @Override
     public Object read(AnnoHolder annoHolder, MethodHolder methodHolder, ProxyChain baseInvoker, boolean needWrite) throws Throwable {
         String key = KeyGenerator.generateSingleKey(annoHolder, baseInvoker.getArguments());
-        Object readResult = cacheManager.readSingle(annoHolder.getCache(), key);
+        if (methodHolder.isFuture()) {
+            return readAsync(annoHolder, methodHolder, baseInvoker, key, needWrite);
+        }
+
+        Object readResult = cacheManager.readEntry(annoHolder.getCache(), key);
 
         doRecord(readResult, key, annoHolder);
         // 命中
         if (readResult != null) {
+            readResult = refreshIfStale(readResult, annoHolder, methodHolder, baseInvoker, key, needWrite);
             // 是放击穿对象
             if (PreventObjects.isPrevent(readResult)) {
                 return null;
@@ -70,6 +82,15 @@ public class SingleCacheReader extends AbstractReader {
 
 
         // not hit
+        if (config.isCoalesceOn()) {
+            ThrowableSupplier<Object> loader = () -> invokeAndWrite(annoHolder, methodHolder, baseInvoker, key, needWrite);
+            return singleFlight.execute(key, config.getCoalesceTimeout(), loader, loader);
+        }
+        return invokeAndWrite(annoHolder, methodHolder, baseInvoker, key, needWrite);
+    }
+
+    private Object invokeAndWrite(AnnoHolder annoHolder, MethodHolder methodHolder, ProxyChain baseInvoker,
+                                  String key, boolean needWrite) throws Throwable {
         // invoke method
         Object invokeResult = doLogInvoke(baseInvoker::proceed);
         if (invokeResult != null && methodHolder.getInnerReturnType() == null) {
@@ -81,18 +102,142 @@ public class SingleCacheReader extends AbstractReader {
         }
 
         if (invokeResult != null) {
-            cacheManager.writeSingle(annoHolder.getCache(), key, invokeResult, annoHolder.getExpire());
+            cacheManager.writeSingle(annoHolder.getCache(), key, wrap(annoHolder, invokeResult), annoHolder.getExpire());
             return invokeResult;
         }
 
         // invokeResult is null
         if (config.isPreventOn()) {
-            cacheManager.writeSingle(annoHolder.getCache(), key, PreventObjects.getPreventObject(), annoHolder.getExpire());
+            cacheManager.writeSingle(annoHolder.getCache(), key, wrap(annoHolder, PreventObjects.getPreventObject()), annoHolder.getExpire());
         }
 
         return null;
     }
 
+    /**
+     * 方法返回CompletableFuture: 缓存读写均不阻塞调用线程, 缓存的是Future完成后的值
+     * <p>
+     * 未命中时, 缓存已在调用线程读取完成(如内存缓存)则直接在调用线程调用方法;
+     * 否则在{@link CacheExecutor#loadAsync}的方法调用线程池中调用, 不占用缓存I/O线程,
+     * 此时调用线程的ThreadLocal、事务等上下文不会传递给方法
+     */
+    private CompletableFuture<Object> readAsync(AnnoHolder annoHolder, MethodHolder methodHolder, ProxyChain baseInvoker,
+                                                String key, boolean needWrite) {
+        Thread caller = Thread.currentThread();
+        return cacheManager.readEntryAsync(annoHolder.getCache(), key).thenCompose(readResult -> {
+            doRecord(readResult, key, annoHolder);
+            // 命中
+            if (readResult != null) {
+                Object value = refreshIfStale(readResult, annoHolder, methodHolder, baseInvoker, key, needWrite);
+                return CompletableFuture.completedFuture(PreventObjects.isPrevent(value) ? null : value);
+            }
+
+            // not hit
+            if (Thread.currentThread() == caller) {
+                return loadAsync(annoHolder, methodHolder, baseInvoker, key, needWrite);
+            }
+            return CacheExecutor.loadAsync(() -> loadAsync(annoHolder, methodHolder, baseInvoker, key, needWrite));
+        });
+    }
+
+    private CompletableFuture<Object> loadAsync(AnnoHolder annoHolder, MethodHolder methodHolder, ProxyChain baseInvoker,
+                                                String key, boolean needWrite) {
+        if (config.isCoalesceOn()) {
+            return singleFlight.executeAsync(key, () -> invokeAndWriteAsync(annoHolder, methodHolder, baseInvoker, key, needWrite));
+        }
+        try {
+            return invokeAndWriteAsync(annoHolder, methodHolder, baseInvoker, key, needWrite);
+        } catch (Throwable e) {
+            return CacheExecutor.failed(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<Object> invokeAndWriteAsync(AnnoHolder annoHolder, MethodHolder methodHolder, ProxyChain baseInvoker,
+                                                          String key, boolean needWrite) throws Throwable {
+        CompletableFuture<Object> invokeResult = (CompletableFuture<Object>) doLogInvoke(baseInvoker::proceed);
+        if (invokeResult == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return invokeResult.thenApply(value -> {
+            if (value != null && methodHolder.getInnerReturnType() == null) {
+                methodHolder.setInnerReturnType(value.getClass());
+            }
+
+            if (needWrite) {
+                if (value != null) {
+                    cacheManager.writeSingleAsync(annoHolder.getCache(), key, wrap(annoHolder, value), annoHolder.getExpire());
+                } else if (config.isPreventOn()) {
+                    cacheManager.writeSingleAsync(annoHolder.getCache(), key, wrap(annoHolder, PreventObjects.getPreventObject()), annoHolder.getExpire());
+                }
+            }
+            return value;
+        });
+    }
+
+    private Object wrap(AnnoHolder annoHolder, Object value) {
+        if (annoHolder.isRefreshAhead()) {
+            return new CacheEntry(value, System.currentTimeMillis() + annoHolder.getSoftExpire());
+        }
+        return value;
+    }
+
+    /**
+     * 超过软过期时间: 返回缓存中的值, 同时提交一次后台刷新
+     * <p>
+     * 刷新在{@link Refresher}线程中以触发本次读取的参数重新调用方法, 此时原调用已经返回,
+     * 调用线程的ThreadLocal、事务等上下文均不可用
+     */
+    private Object refreshIfStale(Object readResult, AnnoHolder annoHolder, MethodHolder methodHolder,
+                                  ProxyChain baseInvoker, String key, boolean needWrite) {
+        if (!(readResult instanceof CacheEntry)) {
+            return readResult;
+        }
+
+        CacheEntry entry = (CacheEntry) readResult;
+        if (needWrite && annoHolder.isRefreshAhead() && entry.isStale()) {
+            refresher.refresh(key, () -> doRefresh(annoHolder, methodHolder, baseInvoker, key));
+        }
+        return entry.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<Object> doRefresh(AnnoHolder annoHolder, MethodHolder methodHolder,
+                                                ProxyChain baseInvoker, String key) {
+        CompletableFuture<Object> future;
+        try {
+            Object invokeResult = doLogInvoke(baseInvoker::proceed);
+            if (methodHolder.isFuture()) {
+                future = null == invokeResult ? CompletableFuture.completedFuture(null) : (CompletableFuture<Object>) invokeResult;
+            } else {
+                future = CompletableFuture.completedFuture(invokeResult);
+            }
+        } catch (Throwable e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+
+        return future.whenComplete((value, e) -> {
+            boolean success = e == null;
+            if (success) {
+                if (value != null) {
+                    cacheManager.writeSingle(annoHolder.getCache(), key, wrap(annoHolder, value), annoHolder.getExpire());
+                } else if (config.isPreventOn()) {
+                    cacheManager.writeSingle(annoHolder.getCache(), key, wrap(annoHolder, PreventObjects.getPreventObject()), annoHolder.getExpire());
+                } else {
+                    cacheManager.remove(annoHolder.getCache(), key);
+                }
+            } else {
+                Logger.error("cache refresh failed, keep stale value until expire, key: {}", key, e);
+            }
+
+            if (this.baseHitting != null) {
+                this.baseHitting.refreshIncr(PatternGenerator.generatePattern(annoHolder), success);
+            }
+        });
+    }
+
     private void doRecord(Object result, String key, AnnoHolder annoHolder) {
         Logger.info("single cache hit rate: {}/1, key: {}", result == null ? 0 : 1, key);
         if (this.baseHitting != null) {
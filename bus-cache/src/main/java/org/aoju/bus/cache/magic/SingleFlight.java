@@ -0,0 +1,206 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.cache.magic;
+
+import org.aoju.bus.logger.Logger;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * 合并同一key的并发未命中加载: 同一时刻每个key只有一个调用者(leader)执行方法,
+ * 其余调用者(follower)等待其结果, 等待超时后由调用者自行降级执行
+ *
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public class SingleFlight {
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * 单key合并加载
+     *
+     * @param key      缓存key
+     * @param timeout  follower最长等待时间(毫秒)
+     * @param loader   leader执行的加载逻辑
+     * @param fallback follower等待超时后执行的降级逻辑
+     * @return 加载结果
+     * @throws Throwable leader加载失败时, leader与follower均抛出该异常
+     */
+    public Object execute(String key, long timeout,
+                          AbstractReader.ThrowableSupplier<Object> loader,
+                          AbstractReader.ThrowableSupplier<Object> fallback) throws Throwable {
+        Flight flight = join(key);
+        if (flight.isLeader()) {
+            try {
+                Object result = loader.get();
+                flight.future.complete(result);
+                return result;
+            } catch (Throwable e) {
+                flight.future.completeExceptionally(e);
+                throw e;
+            } finally {
+                flights.remove(key, flight.future);
+            }
+        }
+
+        try {
+            return flight.future.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            Logger.warn("single flight wait [{}] ms timeout, key: {}, fallback to invoke", timeout, key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return fallback.get();
+    }
+
+    /**
+     * 单key异步合并加载: follower直接共享leader的Future, 不阻塞等待
+     *
+     * @param key    缓存key
+     * @param loader leader执行的加载逻辑
+     * @return 加载结果
+     */
+    public CompletableFuture<Object> executeAsync(String key, AbstractReader.ThrowableSupplier<CompletableFuture<Object>> loader) {
+        Flight flight = join(key);
+        if (!flight.isLeader()) {
+            return flight.future;
+        }
+
+        CompletableFuture<Object> result;
+        try {
+            result = loader.get();
+        } catch (Throwable e) {
+            result = new CompletableFuture<>();
+            result.completeExceptionally(e);
+        }
+        result.whenComplete((value, e) -> {
+            if (e != null) {
+                flight.future.completeExceptionally(e);
+            } else {
+                flight.future.complete(value);
+            }
+            flights.remove(key, flight.future);
+        });
+        return flight.future;
+    }
+
+    /**
+     * 登记一次加载: 如果key上已有正在进行的加载, 则作为follower加入
+     *
+     * @param key 缓存key
+     * @return 加载凭据
+     */
+    public Flight join(String key) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> running = flights.putIfAbsent(key, future);
+        return null == running ? new Flight(key, future, true) : new Flight(key, running, false);
+    }
+
+    /**
+     * leader加载完成, 唤醒所有follower
+     *
+     * @param leaders     leader凭据
+     * @param keyValueMap 加载结果
+     */
+    public void complete(Collection<Flight> leaders, Map<String, Object> keyValueMap) {
+        for (Flight flight : leaders) {
+            flight.future.complete(keyValueMap.get(flight.key));
+            flights.remove(flight.key, flight.future);
+        }
+    }
+
+    /**
+     * leader加载失败, 将异常传递给所有follower
+     *
+     * @param leaders leader凭据
+     * @param cause   异常信息
+     */
+    public void fail(Collection<Flight> leaders, Throwable cause) {
+        for (Flight flight : leaders) {
+            flight.future.completeExceptionally(cause);
+            flights.remove(flight.key, flight.future);
+        }
+    }
+
+    /**
+     * 在同一截止时间内等待一组follower, 与单key模式一致: 超时的key不会出现在返回值内,
+     * 由调用者降级执行; leader加载失败时直接抛出该异常
+     *
+     * @param followers follower凭据
+     * @param timeout   最长等待时间(毫秒)
+     * @return 已完成的key_value_map
+     * @throws Throwable leader加载失败时抛出该异常
+     */
+    public Map<String, Object> await(Collection<Flight> followers, long timeout) throws Throwable {
+        Map<String, Object> keyValueMap = new HashMap<>(followers.size());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        for (Flight flight : followers) {
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                keyValueMap.put(flight.key, flight.future.get(remaining, TimeUnit.NANOSECONDS));
+            } catch (ExecutionException e) {
+                throw e.getCause();
+            } catch (TimeoutException e) {
+                Logger.warn("single flight wait [{}] ms timeout, key: {}, fallback to invoke", timeout, flight.key);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return keyValueMap;
+    }
+
+    public static class Flight {
+
+        private final String key;
+
+        private final CompletableFuture<Object> future;
+
+        private final boolean leader;
+
+        private Flight(String key, CompletableFuture<Object> future, boolean leader) {
+            this.key = key;
+            this.future = future;
+            this.leader = leader;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public boolean isLeader() {
+            return leader;
+        }
+
+    }
+
+}
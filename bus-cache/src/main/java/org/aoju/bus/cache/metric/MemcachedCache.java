@@ -31,12 +31,14 @@ import org.aoju.bus.cache.CacheX;
 import org.aoju.bus.cache.magic.CacheExpire;
 import org.aoju.bus.cache.serialize.BaseSerializer;
 import org.aoju.bus.cache.serialize.Hessian2Serializer;
+import org.aoju.bus.cache.support.CacheExecutor;
 
 import javax.annotation.PreDestroy;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
 
 /**
@@ -123,6 +125,52 @@ public class MemcachedCache implements CacheX {
         }
     }
 
+    @Override
+    public CompletableFuture<Object> readAsync(String key) {
+        return CacheExecutor.supplyAsync(() -> read(key));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> readAsync(Collection<String> keys) {
+        return CacheExecutor.supplyAsync(() -> read(keys));
+    }
+
+    /**
+     * 使用noreply协议写入, 请求发出后立即返回, 不等待服务端应答
+     */
+    @Override
+    public CompletableFuture<Void> writeAsync(String key, Object value, long expire) {
+        return CacheExecutor.run(() -> {
+            byte[] byteValue = serializer.serialize(value);
+            try {
+                client.setWithNoReply(key, expire == CacheExpire.FOREVER ? _30_DAYS : (int) (expire / 1000), byteValue);
+            } catch (InterruptedException | MemcachedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> writeAsync(Map<String, Object> keyValueMap, long expire) {
+        CompletableFuture<?>[] futures = keyValueMap.entrySet().stream()
+                .map(entry -> writeAsync(entry.getKey(), entry.getValue(), expire))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(futures);
+    }
+
+    @Override
+    public CompletableFuture<Void> removeAsync(String... keys) {
+        return CacheExecutor.run(() -> {
+            try {
+                for (String key : keys) {
+                    client.deleteWithNoReply(key);
+                }
+            } catch (InterruptedException | MemcachedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
     @Override
     public void clear() {
         try {
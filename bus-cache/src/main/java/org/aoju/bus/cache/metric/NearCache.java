@@ -0,0 +1,394 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.cache.metric;
+
+import org.aoju.bus.cache.CacheX;
+import org.aoju.bus.cache.magic.CacheExpire;
+import org.aoju.bus.core.toolkit.MapKit;
+import org.aoju.bus.logger.Logger;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 二级缓存支持: 本地有界缓存(L1) + 远程缓存(L2)
+ * <p>
+ * 读操作先查L1, 未命中再查L2并回填L1; 写操作同时写入L2与L1;
+ * 写入与删除会通过{@link Channel}广播失效消息, 其他节点收到后删除各自L1中的副本;
+ * {@link #clear()}只清空各节点的L1, 不清空L2(远程缓存的clear可能会关闭连接池等资源)
+ * <p>
+ * L1的过期时间不超过{@code localExpire}, 用于兜底广播丢失的情况;
+ * 由于无法从L2取得剩余存活时间, {@code localExpire}必须为有限值
+ *
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public class NearCache implements CacheX {
+
+    private final String node = UUID.randomUUID().toString();
+
+    // 按key分段的版本号, L2写入/删除完成后或收到失效消息时递增; 回填L1后复查, 版本变化则删除回填的副本
+    private static final int VERSION_SLOTS = 1024;
+
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_SLOTS);
+
+    private final CacheX local;
+
+    private final CacheX remote;
+
+    private final Channel channel;
+
+    private final long localExpire;
+
+    /**
+     * @param local       本地缓存, 应为有界实现, 如{@link TinyLfuCache}
+     * @param remote      远程缓存
+     * @param channel     失效广播通道
+     * @param localExpire L1最长存活时间(毫秒), 必须大于0
+     */
+    public NearCache(CacheX local, CacheX remote, Channel channel, long localExpire) {
+        if (localExpire <= CacheExpire.FOREVER) {
+            throw new IllegalArgumentException("localExpire must be positive: " + localExpire);
+        }
+        this.local = local;
+        this.remote = remote;
+        this.channel = channel;
+        this.localExpire = localExpire;
+        this.channel.subscribe(this::onInvalidate);
+    }
+
+    @Override
+    public Object read(String key) {
+        Object value = local.read(key);
+        if (null != value) {
+            return value;
+        }
+
+        long stamp = version(key);
+        value = remote.read(key);
+        if (null != value) {
+            fill(key, value, stamp);
+        }
+        return value;
+    }
+
+    @Override
+    public Map<String, Object> read(Collection<String> keys) {
+        Map<String, Object> result = new HashMap<>(keys.size());
+        List<String> missKeys = new ArrayList<>();
+        Map<String, Object> localMap = local.read(keys);
+        for (String key : keys) {
+            Object value = localMap.get(key);
+            if (null == value) {
+                missKeys.add(key);
+            } else {
+                result.put(key, value);
+            }
+        }
+        if (missKeys.isEmpty()) {
+            return result;
+        }
+
+        long[] stamps = versions(missKeys);
+        fill(missKeys, stamps, remote.read(missKeys), result);
+        return result;
+    }
+
+    @Override
+    public void write(String key, Object value, long expire) {
+        remote.write(key, value, expire);
+        bump(key);
+        local.write(key, value, localExpire(expire));
+        publish(key);
+    }
+
+    @Override
+    public void write(Map<String, Object> keyValueMap, long expire) {
+        if (MapKit.isEmpty(keyValueMap)) {
+            return;
+        }
+        remote.write(keyValueMap, expire);
+        bump(keyValueMap.keySet());
+        local.write(keyValueMap, localExpire(expire));
+        publish(keyValueMap.keySet().toArray(new String[0]));
+    }
+
+    @Override
+    public void remove(String... keys) {
+        // 空key数组在广播中表示清空全部L1
+        if (keys.length == 0) {
+            return;
+        }
+        remote.remove(keys);
+        bump(Arrays.asList(keys));
+        local.remove(keys);
+        publish(keys);
+    }
+
+    @Override
+    public void clear() {
+        bumpAll();
+        local.clear();
+        publish();
+    }
+
+    @Override
+    public CompletableFuture<Object> readAsync(String key) {
+        Object value = local.read(key);
+        if (null != value) {
+            return CompletableFuture.completedFuture(value);
+        }
+
+        long stamp = version(key);
+        return remote.readAsync(key).thenApply(remoteValue -> {
+            if (null != remoteValue) {
+                fill(key, remoteValue, stamp);
+            }
+            return remoteValue;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> readAsync(Collection<String> keys) {
+        Map<String, Object> result = new HashMap<>(keys.size());
+        List<String> missKeys = new ArrayList<>();
+        Map<String, Object> localMap = local.read(keys);
+        for (String key : keys) {
+            Object value = localMap.get(key);
+            if (null == value) {
+                missKeys.add(key);
+            } else {
+                result.put(key, value);
+            }
+        }
+        if (missKeys.isEmpty()) {
+            return CompletableFuture.completedFuture(result);
+        }
+
+        long[] stamps = versions(missKeys);
+        return remote.readAsync(missKeys).thenApply(remoteMap -> {
+            fill(missKeys, stamps, remoteMap, result);
+            return result;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> writeAsync(String key, Object value, long expire) {
+        return remote.writeAsync(key, value, expire).thenRun(() -> {
+            bump(key);
+            local.write(key, value, localExpire(expire));
+            publish(key);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> writeAsync(Map<String, Object> keyValueMap, long expire) {
+        if (MapKit.isEmpty(keyValueMap)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return remote.writeAsync(keyValueMap, expire).thenRun(() -> {
+            bump(keyValueMap.keySet());
+            local.write(keyValueMap, localExpire(expire));
+            publish(keyValueMap.keySet().toArray(new String[0]));
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> removeAsync(String... keys) {
+        if (keys.length == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        // 先删除本地副本, 避免远程删除期间读到旧值
+        local.remove(keys);
+        return remote.removeAsync(keys).thenRun(() -> {
+            bump(Arrays.asList(keys));
+            local.remove(keys);
+            publish(keys);
+        });
+    }
+
+    /**
+     * 回填L1: 读取L2前记录的版本与写入后的版本不一致时,
+     * 说明期间发生了失效或写入, 删除刚回填的副本
+     */
+    private void fill(String key, Object value, long stamp) {
+        if (stamp != version(key)) {
+            return;
+        }
+        local.write(key, value, localExpire);
+        if (stamp != version(key)) {
+            local.remove(key);
+        }
+    }
+
+    private void fill(List<String> keys, long[] stamps, Map<String, Object> remoteMap, Map<String, Object> result) {
+        Map<String, Object> fillMap = new HashMap<>(remoteMap.size());
+        List<String> fillKeys = new ArrayList<>(remoteMap.size());
+        List<Long> fillStamps = new ArrayList<>(remoteMap.size());
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            Object value = remoteMap.get(key);
+            if (null == value) {
+                continue;
+            }
+            result.put(key, value);
+            if (stamps[i] == version(key)) {
+                fillMap.put(key, value);
+                fillKeys.add(key);
+                fillStamps.add(stamps[i]);
+            }
+        }
+        if (fillMap.isEmpty()) {
+            return;
+        }
+        local.write(fillMap, localExpire);
+        List<String> staleKeys = new ArrayList<>();
+        for (int i = 0; i < fillKeys.size(); i++) {
+            if (fillStamps.get(i) != version(fillKeys.get(i))) {
+                staleKeys.add(fillKeys.get(i));
+            }
+        }
+        if (!staleKeys.isEmpty()) {
+            local.remove(staleKeys.toArray(new String[0]));
+        }
+    }
+
+    private int slot(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (VERSION_SLOTS - 1);
+    }
+
+    private long version(String key) {
+        return versions.get(slot(key));
+    }
+
+    private long[] versions(List<String> keys) {
+        long[] stamps = new long[keys.size()];
+        for (int i = 0; i < stamps.length; i++) {
+            stamps[i] = version(keys.get(i));
+        }
+        return stamps;
+    }
+
+    private void bump(String key) {
+        versions.incrementAndGet(slot(key));
+    }
+
+    private void bump(Collection<String> keys) {
+        for (String key : keys) {
+            bump(key);
+        }
+    }
+
+    private void bumpAll() {
+        for (int i = 0; i < VERSION_SLOTS; i++) {
+            versions.incrementAndGet(i);
+        }
+    }
+
+    private long localExpire(long expire) {
+        if (expire == CacheExpire.FOREVER) {
+            return localExpire;
+        }
+        return Math.min(expire, localExpire);
+    }
+
+    private void publish(String... keys) {
+        try {
+            channel.publish(node, keys);
+        } catch (Throwable e) {
+            Logger.error("publish cache invalidation failed, keys: {}", Arrays.toString(keys), e);
+        }
+    }
+
+    private void onInvalidate(String source, String[] keys) {
+        if (node.equals(source)) {
+            return;
+        }
+        if (keys.length == 0) {
+            bumpAll();
+            local.clear();
+            return;
+        }
+        bump(Arrays.asList(keys));
+        local.remove(keys);
+    }
+
+    /**
+     * 失效广播通道
+     */
+    public interface Channel {
+
+        /**
+         * 广播失效消息
+         *
+         * @param source 发送节点标识
+         * @param keys   失效的缓存key, 为空时表示清空全部L1
+         */
+        void publish(String source, String[] keys);
+
+        /**
+         * 订阅失效消息
+         *
+         * @param listener 消息处理
+         */
+        void subscribe(Listener listener);
+
+    }
+
+    /**
+     * 失效消息处理
+     */
+    public interface Listener {
+
+        void onInvalidate(String source, String[] keys);
+
+    }
+
+    /**
+     * 进程内广播: 消息直接投递给同一JVM内的所有订阅者, 用于测试或单机多实例
+     */
+    public static class LoopbackChannel implements Channel {
+
+        private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void publish(String source, String[] keys) {
+            for (Listener listener : listeners) {
+                listener.onInvalidate(source, keys);
+            }
+        }
+
+        @Override
+        public void subscribe(Listener listener) {
+            listeners.add(listener);
+        }
+
+    }
+
+}
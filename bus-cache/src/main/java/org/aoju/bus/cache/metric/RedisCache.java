@@ -28,6 +28,7 @@ import org.aoju.bus.cache.CacheX;
 import org.aoju.bus.cache.magic.CacheExpire;
 import org.aoju.bus.cache.serialize.BaseSerializer;
 import org.aoju.bus.cache.serialize.Hessian2Serializer;
+import org.aoju.bus.cache.support.CacheExecutor;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.Pipeline;
@@ -37,6 +38,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Redis 单机缓存支持
@@ -140,6 +142,31 @@ public class RedisCache implements CacheX {
         }
     }
 
+    @Override
+    public CompletableFuture<Object> readAsync(String key) {
+        return CacheExecutor.supplyAsync(() -> read(key));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> readAsync(Collection<String> keys) {
+        return CacheExecutor.supplyAsync(() -> read(keys));
+    }
+
+    @Override
+    public CompletableFuture<Void> writeAsync(String key, Object value, long expire) {
+        return CacheExecutor.runAsync(() -> write(key, value, expire));
+    }
+
+    @Override
+    public CompletableFuture<Void> writeAsync(Map<String, Object> keyValueMap, long expire) {
+        return CacheExecutor.runAsync(() -> write(keyValueMap, expire));
+    }
+
+    @Override
+    public CompletableFuture<Void> removeAsync(String... keys) {
+        return CacheExecutor.runAsync(() -> remove(keys));
+    }
+
     @Override
     public void clear() {
         tearDown();
@@ -28,11 +28,13 @@ import org.aoju.bus.cache.CacheX;
 import org.aoju.bus.cache.magic.CacheExpire;
 import org.aoju.bus.cache.serialize.BaseSerializer;
 import org.aoju.bus.cache.serialize.Hessian2Serializer;
+import org.aoju.bus.cache.support.CacheExecutor;
 import redis.clients.jedis.JedisCluster;
 
 import javax.annotation.PreDestroy;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Redis 集群缓存支持
@@ -133,6 +135,31 @@ public class RedisClusterCache implements CacheX {
         jedisCluster.del(keys);
     }
 
+    @Override
+    public CompletableFuture<Object> readAsync(String key) {
+        return CacheExecutor.supplyAsync(() -> read(key));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> readAsync(Collection<String> keys) {
+        return CacheExecutor.supplyAsync(() -> read(keys));
+    }
+
+    @Override
+    public CompletableFuture<Void> writeAsync(String key, Object value, long expire) {
+        return CacheExecutor.runAsync(() -> write(key, value, expire));
+    }
+
+    @Override
+    public CompletableFuture<Void> writeAsync(Map<String, Object> keyValueMap, long expire) {
+        return CacheExecutor.runAsync(() -> write(keyValueMap, expire));
+    }
+
+    @Override
+    public CompletableFuture<Void> removeAsync(String... keys) {
+        return CacheExecutor.runAsync(() -> remove(keys));
+    }
+
     @Override
     public void clear() {
         tearDown();
@@ -0,0 +1,797 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.cache.metric;
+
+import org.aoju.bus.cache.CacheX;
+import org.aoju.bus.cache.magic.CacheExpire;
+import org.aoju.bus.core.toolkit.MapKit;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 有界内存缓存支持(W-TinyLFU)
+ * <p>
+ * 读操作不加锁,访问记录写入分段的有损环形缓冲区;写操作记录到写缓冲区,
+ * 由持有淘汰锁的线程批量回放,维护窗口LRU、SLRU主区、频率草图及时间轮
+ * <p>
+ * 与{@link MemoryCache}不同,容量受{@code maximumWeight}约束,过期条目由时间轮按条目到期时间清理
+ *
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public class TinyLfuCache implements CacheX {
+
+    /**
+     * 主区占比,余下部分为窗口区
+     */
+    private static final double PERCENT_MAIN = 0.99d;
+    /**
+     * 主区中受保护区占比
+     */
+    private static final double PERCENT_MAIN_PROTECTED = 0.80d;
+    /**
+     * 频率超过该阈值的候选者以较小概率被接纳,防止哈希碰撞攻击
+     */
+    private static final int ADMIT_HASHDOS_THRESHOLD = 6;
+    /**
+     * 写缓冲区积压上限,超过后写线程阻塞等待回放
+     */
+    private static final int WRITE_BUFFER_MAX = 1024;
+    /**
+     * 永不过期
+     */
+    private static final long FOREVER = Long.MAX_VALUE;
+
+    private final ConcurrentHashMap<String, Node> data;
+    private final Weigher weigher;
+    private final long origin = System.nanoTime();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final ReadBuffer readBuffer = new ReadBuffer();
+    private final ConcurrentLinkedQueue<Runnable> writeBuffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+
+    // 以下字段仅在持有evictionLock时访问
+    private final AccessOrderDeque window = new AccessOrderDeque();
+    private final AccessOrderDeque probation = new AccessOrderDeque();
+    private final AccessOrderDeque protect = new AccessOrderDeque();
+    private final FrequencySketch sketch = new FrequencySketch();
+    private final TimerWheel timerWheel = new TimerWheel();
+    private final long maximum;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    private long weightedSize;
+    private long windowWeightedSize;
+    private long protectedWeightedSize;
+
+    /**
+     * 按条目数量限制容量
+     *
+     * @param maximumSize 最大条目数
+     */
+    public TinyLfuCache(long maximumSize) {
+        this(maximumSize, Weigher.SINGLETON);
+    }
+
+    /**
+     * 按权重限制容量
+     *
+     * @param maximumWeight 最大权重
+     * @param weigher       条目权重计算
+     */
+    public TinyLfuCache(long maximumWeight, Weigher weigher) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("maximumWeight must be positive: " + maximumWeight);
+        }
+        this.maximum = maximumWeight;
+        this.windowMaximum = Math.max(1, maximumWeight - (long) (PERCENT_MAIN * maximumWeight));
+        this.protectedMaximum = (long) (PERCENT_MAIN_PROTECTED * (maximumWeight - windowMaximum));
+        this.weigher = weigher;
+        this.data = new ConcurrentHashMap<>((int) Math.min(maximumWeight, 1 << 10));
+    }
+
+    @Override
+    public Object read(String key) {
+        Node node = data.get(key);
+        if (null == node) {
+            return null;
+        }
+        if (node.hasExpired(ticker())) {
+            scheduleDrain();
+            return null;
+        }
+        if (readBuffer.offer(node) == ReadBuffer.FULL) {
+            scheduleDrain();
+        }
+        return node.value;
+    }
+
+    @Override
+    public Map<String, Object> read(Collection<String> keys) {
+        Map<String, Object> subCache = new HashMap<>(keys.size());
+        for (String key : keys) {
+            subCache.put(key, read(key));
+        }
+        return subCache;
+    }
+
+    /**
+     * 设置缓存
+     *
+     * @param key    缓存KEY
+     * @param value  缓存内容
+     * @param expire 指定缓存过期时间(毫秒),{@link CacheExpire#FOREVER}为永不过期
+     */
+    @Override
+    public void write(String key, Object value, long expire) {
+        if (null == value || expire < CacheExpire.FOREVER) {
+            return;
+        }
+        long expireAt = expire == CacheExpire.FOREVER
+                ? FOREVER
+                : ticker() + TimeUnit.MILLISECONDS.toNanos(expire);
+        Node node = new Node(key, value, Math.max(0, weigher.weigh(key, value)), expireAt);
+        Node prior = data.put(key, node);
+        if (null != prior) {
+            prior.retire();
+            afterWrite(() -> onRemove(prior));
+        }
+        afterWrite(() -> onAdd(node));
+    }
+
+    @Override
+    public void write(Map<String, Object> keyValueMap, long expire) {
+        if (MapKit.isNotEmpty(keyValueMap)) {
+            keyValueMap.forEach((key, value) -> write(key, value, expire));
+        }
+    }
+
+    @Override
+    public void remove(String... keys) {
+        for (String key : keys) {
+            Node node = data.remove(key);
+            if (null != node) {
+                node.retire();
+                afterWrite(() -> onRemove(node));
+            }
+        }
+    }
+
+    /**
+     * 回放所有缓冲的操作并清理过期的缓存
+     */
+    @Override
+    public void clear() {
+        evictionLock.lock();
+        try {
+            maintenance();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * 当前条目数(估计值)
+     *
+     * @return 条目数
+     */
+    public long size() {
+        return data.size();
+    }
+
+    /**
+     * 当前已回放的总权重
+     *
+     * @return 总权重
+     */
+    public long weightedSize() {
+        evictionLock.lock();
+        try {
+            return weightedSize;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private long ticker() {
+        return System.nanoTime() - origin;
+    }
+
+    private void afterWrite(Runnable task) {
+        writeBuffer.add(task);
+        if (pendingWrites.incrementAndGet() > WRITE_BUFFER_MAX) {
+            // 写入过快时施加背压,保证权重上限不会被无限突破
+            clear();
+            return;
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * 尝试获取淘汰锁并执行维护;若锁被占用,则由持有者在释放锁后重新检查写缓冲区
+     */
+    private void scheduleDrain() {
+        do {
+            if (!evictionLock.tryLock()) {
+                return;
+            }
+            try {
+                maintenance();
+            } finally {
+                evictionLock.unlock();
+            }
+        } while (!writeBuffer.isEmpty());
+    }
+
+    private void maintenance() {
+        readBuffer.drainTo(this);
+        Runnable task;
+        while (null != (task = writeBuffer.poll())) {
+            pendingWrites.decrementAndGet();
+            task.run();
+        }
+        timerWheel.advance(this, ticker());
+        evictFromMain(evictFromWindow());
+    }
+
+    void onAccess(Node node) {
+        if (!node.isAlive() || null == node.queue) {
+            return;
+        }
+        sketch.increment(node.key);
+        if (node.queue == Queue.WINDOW) {
+            window.moveToBack(node);
+        } else if (node.queue == Queue.PROBATION) {
+            probation.remove(node);
+            protect.addLast(node);
+            node.queue = Queue.PROTECTED;
+            protectedWeightedSize += node.policyWeight;
+            demoteFromProtected();
+        } else {
+            protect.moveToBack(node);
+        }
+    }
+
+    private void onAdd(Node node) {
+        if (!node.isAlive()) {
+            return;
+        }
+        sketch.ensureCapacity(Math.min(maximum, data.size()));
+        sketch.increment(node.key);
+        node.policyWeight = node.weight;
+        node.queue = Queue.WINDOW;
+        weightedSize += node.weight;
+        windowWeightedSize += node.weight;
+        window.addLast(node);
+        if (node.expireAt != FOREVER) {
+            timerWheel.schedule(node);
+        }
+    }
+
+    private void onRemove(Node node) {
+        unlink(node);
+        node.die();
+    }
+
+    /**
+     * 由时间轮或容量淘汰调用
+     *
+     * @param node 淘汰的节点
+     */
+    void evict(Node node) {
+        data.remove(node.key, node);
+        node.retire();
+        onRemove(node);
+    }
+
+    private void unlink(Node node) {
+        if (null != node.queue) {
+            if (node.queue == Queue.WINDOW) {
+                window.remove(node);
+                windowWeightedSize -= node.policyWeight;
+            } else if (node.queue == Queue.PROBATION) {
+                probation.remove(node);
+            } else {
+                protect.remove(node);
+                protectedWeightedSize -= node.policyWeight;
+            }
+            weightedSize -= node.policyWeight;
+            node.queue = null;
+            node.policyWeight = 0;
+        }
+        timerWheel.deschedule(node);
+    }
+
+    private void demoteFromProtected() {
+        while (protectedWeightedSize > protectedMaximum) {
+            Node demoted = protect.peekFirst();
+            if (null == demoted) {
+                break;
+            }
+            protect.remove(demoted);
+            protectedWeightedSize -= demoted.policyWeight;
+            demoted.queue = Queue.PROBATION;
+            probation.addLast(demoted);
+        }
+    }
+
+    /**
+     * 将窗口区溢出的条目移入试用区尾部,作为进入主区的候选者
+     *
+     * @return 候选者数量
+     */
+    private int evictFromWindow() {
+        int candidates = 0;
+        Node node = window.peekFirst();
+        while (windowWeightedSize > windowMaximum && null != node) {
+            Node next = node.nextInAccess;
+            window.remove(node);
+            windowWeightedSize -= node.policyWeight;
+            node.queue = Queue.PROBATION;
+            probation.addLast(node);
+            candidates++;
+            node = next;
+        }
+        return candidates;
+    }
+
+    /**
+     * 超出容量时,在试用区头部的牺牲者与尾部的候选者间按访问频率决定淘汰对象
+     *
+     * @param candidates 候选者数量
+     */
+    private void evictFromMain(int candidates) {
+        Node candidate = candidates > 0 ? probation.peekLast() : null;
+        while (weightedSize > maximum) {
+            Node victim = probation.peekFirst();
+            if (null == victim) {
+                victim = protect.peekFirst();
+            }
+            if (null == victim) {
+                victim = window.peekFirst();
+            }
+            if (null == victim) {
+                break;
+            }
+            if (null == candidate || candidate == victim) {
+                candidate = null;
+                evict(victim);
+                continue;
+            }
+
+            Node previous = candidate.prevInAccess;
+            if (candidate.policyWeight > maximum) {
+                evict(candidate);
+            } else if (admit(candidate.key, victim.key)) {
+                evict(victim);
+            } else {
+                evict(candidate);
+            }
+            candidate = --candidates > 0 && null != previous && previous.queue == Queue.PROBATION ? previous : null;
+        }
+    }
+
+    private boolean admit(String candidateKey, String victimKey) {
+        int victimFreq = sketch.frequency(victimKey);
+        int candidateFreq = sketch.frequency(candidateKey);
+        if (candidateFreq > victimFreq) {
+            return true;
+        } else if (candidateFreq < ADMIT_HASHDOS_THRESHOLD) {
+            return false;
+        }
+        return (ThreadLocalRandom.current().nextInt() & 127) == 0;
+    }
+
+    private enum Queue {
+        WINDOW, PROBATION, PROTECTED
+    }
+
+    /**
+     * 条目权重计算
+     */
+    @FunctionalInterface
+    public interface Weigher {
+
+        /**
+         * 每个条目权重为1,即按条目数限制容量
+         */
+        Weigher SINGLETON = (key, value) -> 1;
+
+        /**
+         * 计算条目权重
+         *
+         * @param key   缓存KEY
+         * @param value 缓存内容
+         * @return 非负的权重
+         */
+        int weigh(String key, Object value);
+
+    }
+
+    static final class Node {
+
+        private static final int ALIVE = 0;
+        private static final int RETIRED = 1;
+        private static final int DEAD = 2;
+
+        final String key;
+        final Object value;
+        final int weight;
+        final long expireAt;
+        volatile int state;
+
+        // 以下字段仅在持有evictionLock时访问
+        int policyWeight;
+        Queue queue;
+        Node prevInAccess;
+        Node nextInAccess;
+        Node prevInTimer;
+        Node nextInTimer;
+
+        Node(String key, Object value, int weight, long expireAt) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.expireAt = expireAt;
+        }
+
+        boolean hasExpired(long now) {
+            return expireAt - now <= 0;
+        }
+
+        boolean isAlive() {
+            return state == ALIVE;
+        }
+
+        void retire() {
+            if (state == ALIVE) {
+                state = RETIRED;
+            }
+        }
+
+        void die() {
+            state = DEAD;
+        }
+
+    }
+
+    /**
+     * 按访问顺序排列的双向链表
+     */
+    static final class AccessOrderDeque {
+
+        private Node first;
+        private Node last;
+
+        Node peekFirst() {
+            return first;
+        }
+
+        Node peekLast() {
+            return last;
+        }
+
+        void addLast(Node node) {
+            node.prevInAccess = last;
+            node.nextInAccess = null;
+            if (null == last) {
+                first = node;
+            } else {
+                last.nextInAccess = node;
+            }
+            last = node;
+        }
+
+        void remove(Node node) {
+            Node prev = node.prevInAccess;
+            Node next = node.nextInAccess;
+            if (null == prev) {
+                first = next;
+            } else {
+                prev.nextInAccess = next;
+            }
+            if (null == next) {
+                last = prev;
+            } else {
+                next.prevInAccess = prev;
+            }
+            node.prevInAccess = null;
+            node.nextInAccess = null;
+        }
+
+        void moveToBack(Node node) {
+            if (node != last) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+    }
+
+    /**
+     * 分段的有损读缓冲区,缓冲区满或竞争失败时直接丢弃访问记录
+     */
+    static final class ReadBuffer {
+
+        static final int SUCCESS = 0;
+        static final int FAILED = 1;
+        static final int FULL = 2;
+
+        private static final int BUFFER_SIZE = 16;
+        private static final int BUFFER_MASK = BUFFER_SIZE - 1;
+        private static final int STRIPES = ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors());
+
+        private final AtomicReferenceArray<Node> buffer = new AtomicReferenceArray<>(STRIPES * BUFFER_SIZE);
+        private final AtomicLong[] writeCounters = new AtomicLong[STRIPES];
+        private final AtomicLongArray readCounters = new AtomicLongArray(STRIPES);
+
+        ReadBuffer() {
+            for (int i = 0; i < STRIPES; i++) {
+                writeCounters[i] = new AtomicLong();
+            }
+        }
+
+        private static int ceilingPowerOfTwo(int x) {
+            return 1 << -Integer.numberOfLeadingZeros(x - 1);
+        }
+
+        int offer(Node node) {
+            long id = Thread.currentThread().getId();
+            int stripe = (int) ((id ^ (id >>> 16)) * 0x9E3779B9L >>> 16) & (STRIPES - 1);
+            AtomicLong writeCounter = writeCounters[stripe];
+            long tail = writeCounter.get();
+            long size = tail - readCounters.get(stripe);
+            if (size >= BUFFER_SIZE) {
+                return FULL;
+            }
+            if (writeCounter.compareAndSet(tail, tail + 1)) {
+                buffer.lazySet(stripe * BUFFER_SIZE + (int) (tail & BUFFER_MASK), node);
+                return size + 1 == BUFFER_SIZE ? FULL : SUCCESS;
+            }
+            return FAILED;
+        }
+
+        void drainTo(TinyLfuCache cache) {
+            for (int stripe = 0; stripe < STRIPES; stripe++) {
+                long head = readCounters.get(stripe);
+                long tail = writeCounters[stripe].get();
+                for (; head < tail; head++) {
+                    int index = stripe * BUFFER_SIZE + (int) (head & BUFFER_MASK);
+                    Node node = buffer.get(index);
+                    if (null == node) {
+                        break;
+                    }
+                    buffer.lazySet(index, null);
+                    cache.onAccess(node);
+                }
+                readCounters.lazySet(stripe, head);
+            }
+        }
+
+    }
+
+    /**
+     * 频率草图(Count-Min Sketch),每个long保存16个4位计数器,样本数达到阈值后计数减半以保持新鲜度
+     */
+    static final class FrequencySketch {
+
+        private static final long[] SEED = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+        };
+        private static final long RESET_MASK = 0x7777777777777777L;
+        private static final long ONE_MASK = 0x1111111111111111L;
+        private static final int MAXIMUM_CAPACITY = 1 << 20;
+
+        private long[] table = new long[0];
+        private int tableMask;
+        private int sampleSize;
+        private int size;
+
+        private static int spread(int x) {
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            return (x >>> 16) ^ x;
+        }
+
+        void ensureCapacity(long maximumSize) {
+            int maximum = (int) Math.min(Math.max(maximumSize, 16), MAXIMUM_CAPACITY);
+            if (table.length >= maximum) {
+                return;
+            }
+            table = new long[ReadBuffer.ceilingPowerOfTwo(maximum)];
+            tableMask = table.length - 1;
+            sampleSize = 10 * maximum;
+            size = 0;
+        }
+
+        int frequency(Object e) {
+            if (table.length == 0) {
+                return 0;
+            }
+            int hash = spread(e.hashCode());
+            int start = (hash & 3) << 2;
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < 4; i++) {
+                int index = indexOf(hash, i);
+                int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+                frequency = Math.min(frequency, count);
+            }
+            return frequency;
+        }
+
+        void increment(Object e) {
+            if (table.length == 0) {
+                return;
+            }
+            int hash = spread(e.hashCode());
+            int start = (hash & 3) << 2;
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                added |= incrementAt(indexOf(hash, i), start + i);
+            }
+            if (added && ++size == sampleSize) {
+                reset();
+            }
+        }
+
+        private boolean incrementAt(int i, int j) {
+            int offset = j << 2;
+            long mask = 0xfL << offset;
+            if ((table[i] & mask) != mask) {
+                table[i] += 1L << offset;
+                return true;
+            }
+            return false;
+        }
+
+        private void reset() {
+            int count = 0;
+            for (int i = 0; i < table.length; i++) {
+                count += Long.bitCount(table[i] & ONE_MASK);
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            size = (size >>> 1) - (count >>> 2);
+        }
+
+        private int indexOf(int item, int i) {
+            long hash = (item + SEED[i]) * SEED[i];
+            hash += (hash >>> 32);
+            return ((int) hash) & tableMask;
+        }
+
+    }
+
+    /**
+     * 分层时间轮,各层桶跨度约为1秒、1分钟、1小时、1天及6.5天
+     */
+    static final class TimerWheel {
+
+        private static final int[] BUCKETS = {64, 64, 32, 4, 1};
+        private static final long[] SPANS = {
+                1L << 30, 1L << 36, 1L << 42, 1L << 47, 4L << 47, 4L << 47
+        };
+        private static final long[] SHIFT = {
+                30, 36, 42, 47, 49
+        };
+
+        private final Node[][] wheel = new Node[BUCKETS.length][];
+        private long nanos;
+
+        TimerWheel() {
+            for (int i = 0; i < wheel.length; i++) {
+                wheel[i] = new Node[BUCKETS[i]];
+                for (int j = 0; j < wheel[i].length; j++) {
+                    Node sentinel = new Node(null, null, 0, FOREVER);
+                    sentinel.prevInTimer = sentinel;
+                    sentinel.nextInTimer = sentinel;
+                    wheel[i][j] = sentinel;
+                }
+            }
+        }
+
+        void advance(TinyLfuCache cache, long currentTimeNanos) {
+            long previousTimeNanos = nanos;
+            nanos = currentTimeNanos;
+            for (int i = 0; i < SHIFT.length; i++) {
+                long previousTicks = previousTimeNanos >>> SHIFT[i];
+                long currentTicks = currentTimeNanos >>> SHIFT[i];
+                long delta = currentTicks - previousTicks;
+                if (delta <= 0L) {
+                    break;
+                }
+                expire(cache, i, previousTicks, delta);
+            }
+        }
+
+        private void expire(TinyLfuCache cache, int index, long previousTicks, long delta) {
+            Node[] timerWheel = wheel[index];
+            int mask = timerWheel.length - 1;
+            int steps = (int) Math.min(1 + delta, timerWheel.length);
+            int start = (int) (previousTicks & mask);
+            int end = start + steps;
+            for (int i = start; i < end; i++) {
+                Node sentinel = timerWheel[i & mask];
+                Node node = sentinel.nextInTimer;
+                sentinel.prevInTimer = sentinel;
+                sentinel.nextInTimer = sentinel;
+                while (node != sentinel) {
+                    Node next = node.nextInTimer;
+                    node.prevInTimer = null;
+                    node.nextInTimer = null;
+                    if (node.expireAt - nanos <= 0) {
+                        cache.evict(node);
+                    } else {
+                        schedule(node);
+                    }
+                    node = next;
+                }
+            }
+        }
+
+        void schedule(Node node) {
+            Node sentinel = findBucket(node.expireAt);
+            node.nextInTimer = sentinel;
+            node.prevInTimer = sentinel.prevInTimer;
+            sentinel.prevInTimer.nextInTimer = node;
+            sentinel.prevInTimer = node;
+        }
+
+        void deschedule(Node node) {
+            if (null != node.nextInTimer) {
+                node.nextInTimer.prevInTimer = node.prevInTimer;
+                node.prevInTimer.nextInTimer = node.nextInTimer;
+                node.nextInTimer = null;
+                node.prevInTimer = null;
+            }
+        }
+
+        private Node findBucket(long time) {
+            long duration = time - nanos;
+            int length = wheel.length - 1;
+            for (int i = 0; i < length; i++) {
+                if (duration < SPANS[i + 1]) {
+                    long ticks = time >>> SHIFT[i];
+                    int index = (int) (ticks & (wheel[i].length - 1));
+                    return wheel[i][index];
+                }
+            }
+            return wheel[length][0];
+        }
+
+    }
+
+}
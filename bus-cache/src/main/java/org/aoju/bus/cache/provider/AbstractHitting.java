@@ -25,15 +25,16 @@
 package org.aoju.bus.cache.provider;
 
 import org.aoju.bus.cache.Hitting;
-import org.aoju.bus.cache.magic.CachePair;
 import org.aoju.bus.core.lang.Normal;
+import org.aoju.bus.logger.Logger;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.yaml.snakeyaml.Yaml;
 
 import javax.annotation.PreDestroy;
 import java.io.InputStream;
 import java.util.*;
-import java.util.concurrent.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -48,36 +49,36 @@ import java.util.stream.Stream;
  */
 public abstract class AbstractHitting implements Hitting {
 
-    private static final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
-        Thread thread = new Thread(r);
-        thread.setName("cache:db-writer");
-        thread.setDaemon(true);
-        return thread;
-    });
+    /**
+     * 默认落盘间隔,单位秒
+     */
+    private static final long DEFAULT_INTERVAL = 5;
 
     private static final Lock lock = new ReentrantLock();
 
-    private volatile boolean isShutdown = false;
+    private final HittingRecorder recorder = new HittingRecorder();
 
-    private BlockingQueue<CachePair<String, Integer>> hitQueue = new LinkedTransferQueue<>();
+    // 已确认在表中存在记录的分组模板
+    private final Set<String> knownPatterns = ConcurrentHashMap.newKeySet();
 
-    private BlockingQueue<CachePair<String, Integer>> requireQueue = new LinkedTransferQueue<>();
+    private final HittingRecorder.Flusher flusher;
 
     private JdbcOperations jdbcOperations;
 
     private Properties sqls;
 
+    /**
+     * @param context 数据源参数, 可通过{@code interval}指定落盘间隔(秒), 默认5秒
+     */
     protected AbstractHitting(Map<String, Object> context) {
         InputStream resource = this.getClass().getClassLoader().getResourceAsStream(Normal.META_DATA_INF + "/caches/bus-cache.yaml");
         this.sqls = new Yaml().loadAs(resource, Properties.class);
 
         this.jdbcOperations = jdbcOperationsSupplier(context).get();
-        executor.submit(() -> {
-            while (!isShutdown) {
-                dumpToDB(hitQueue, "hit_count");
-                dumpToDB(requireQueue, "require_count");
-            }
-        });
+
+        Object interval = context.get("interval");
+        this.flusher = HittingRecorder.schedule(this::flush,
+                interval == null ? DEFAULT_INTERVAL : Long.parseLong(interval.toString()));
     }
 
     public AbstractHitting(String url, String username, String password) {
@@ -117,33 +118,66 @@ public abstract class AbstractHitting implements Hitting {
      */
     protected abstract Stream<DataDO> transferResults(List<Map<String, Object>> map);
 
-    private void dumpToDB(BlockingQueue<CachePair<String, Integer>> queue, String column) {
-        long times = 0;
-        CachePair<String, Integer> head;
-
-        // gather queue's all or before 100 data to a Map
-        Map<String, AtomicLong> holdMap = new HashMap<>();
-        while ((head = queue.poll()) != null && times <= 100) {
-            holdMap
-                    .computeIfAbsent(head.getLeft(), (key) -> new AtomicLong(0L))
-                    .addAndGet(head.getRight());
-            ++times;
+    /**
+     * 将各分组模板的增量以一条批量语句写入存储
+     */
+    private void flush() {
+        Map<String, long[]> deltas = recorder.drain();
+        if (deltas.isEmpty()) {
+            return;
         }
 
-        // batch write to DB
-        holdMap.forEach((pattern, count) -> countAddCas(column, pattern, count.get()));
+        List<String> patterns = new ArrayList<>(deltas.keySet());
+        int[] counts;
+        try {
+            List<Object[]> batchArgs = new ArrayList<>(patterns.size());
+            for (String pattern : patterns) {
+                ensureRecord(pattern);
+                long[] delta = deltas.get(pattern);
+                batchArgs.add(new Object[]{delta[0], delta[1], pattern});
+            }
+            counts = jdbcOperations.batchUpdate(sqls.getProperty("increase"), batchArgs);
+        } catch (Exception e) {
+            recorder.restore(deltas);
+            Logger.error("flush cache hit rate failed, will retry on next flush", e);
+            return;
+        }
+
+        // 记录已被删除(如其他节点reset), 重新插入并带上本次增量
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                continue;
+            }
+            String pattern = patterns.get(i);
+            long[] delta = deltas.get(pattern);
+            knownPatterns.remove(pattern);
+            try {
+                insertOrIncrease(pattern, delta[0], delta[1]);
+            } catch (Exception e) {
+                recorder.restore(Collections.singletonMap(pattern, delta));
+                Logger.error("flush cache hit rate failed, pattern: {}, will retry on next flush", pattern, e);
+            }
+        }
     }
 
     @Override
     public void hitIncr(String pattern, int count) {
-        if (count != 0)
-            hitQueue.add(CachePair.of(pattern, count));
+        recorder.hitIncr(pattern, count);
     }
 
     @Override
     public void reqIncr(String pattern, int count) {
-        if (count != 0)
-            requireQueue.add(CachePair.of(pattern, count));
+        recorder.reqIncr(pattern, count);
+    }
+
+    @Override
+    public void refreshIncr(String pattern, boolean success) {
+        recorder.refreshIncr(pattern, success);
+    }
+
+    @Override
+    public Map<String, Hitting.HittingDO> getSnapshot() {
+        return recorder.snapshot(summaryName());
     }
 
     @Override
@@ -167,41 +201,41 @@ public abstract class AbstractHitting implements Hitting {
         // gather application all pattern's hit rate
         result.put(summaryName(), Hitting.HittingDO.newInstance(statisticsHit.get(), statisticsRequired.get()));
 
-        return result;
+        return recorder.withRefresh(result, summaryName());
     }
 
     @Override
     public void reset(String pattern) {
         jdbcOperations.update(sqls.getProperty("delete"), pattern);
+        knownPatterns.remove(pattern);
+        recorder.reset(pattern);
     }
 
     @Override
     public void resetAll() {
         jdbcOperations.update(sqls.getProperty("truncate"));
+        knownPatterns.clear();
+        recorder.resetAll();
     }
 
-    private void countAddCas(String column, String pattern, long count) {
-        Optional<DataDO> dataOptional = queryObject(pattern);
+    private void ensureRecord(String pattern) {
+        if (knownPatterns.contains(pattern)) {
+            return;
+        }
 
-        // if has pattern record, update it.
-        if (dataOptional.isPresent()) {
-            DataDO dataDO = dataOptional.get();
-            while (update(column, pattern, getObjectCount(dataDO, column, count), dataDO.version) <= 0) {
-                dataDO = queryObject(pattern).get();
-            }
-        } else {
-            lock.lock();
-            try {
-                // double check
-                dataOptional = queryObject(pattern);
-                if (dataOptional.isPresent()) {
-                    update(column, pattern, count, dataOptional.get().version);
-                } else {
-                    insert(column, pattern, count);
+        lock.lock();
+        try {
+            // double check
+            if (!queryObject(pattern).isPresent()) {
+                try {
+                    insert(pattern, 0, 0);
+                } catch (DuplicateKeyException ignored) {
+                    // inserted by another node
                 }
-            } finally {
-                lock.unlock();
             }
+            knownPatterns.add(pattern);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -219,34 +253,23 @@ public abstract class AbstractHitting implements Hitting {
         return transferResults(mapResults).collect(Collectors.toList());
     }
 
-    private int insert(String column, String pattern, long count) {
-        String insertSql = String.format(sqls.getProperty("insert"), column);
-
-        return jdbcOperations.update(insertSql, pattern, count);
-    }
-
-    private int update(String column, String pattern, long count, long version) {
-        String updateSql = String.format(sqls.getProperty("update"), column);
-
-        return jdbcOperations.update(updateSql, count, pattern, version);
+    private void insertOrIncrease(String pattern, long hitCount, long requireCount) {
+        try {
+            insert(pattern, hitCount, requireCount);
+        } catch (DuplicateKeyException e) {
+            // inserted by another node
+            jdbcOperations.update(sqls.getProperty("increase"), hitCount, requireCount, pattern);
+        }
+        knownPatterns.add(pattern);
     }
 
-    private long getObjectCount(DataDO data, String column, long countOffset) {
-        long lastCount = column.equals("hit_count") ? data.hitCount : data.requireCount;
-
-        return lastCount + countOffset;
+    private int insert(String pattern, long hitCount, long requireCount) {
+        return jdbcOperations.update(sqls.getProperty("insert"), pattern, hitCount, requireCount);
     }
 
     @PreDestroy
     public void tearDown() {
-        while (hitQueue.size() > 0 || requireQueue.size() > 0) {
-            try {
-                TimeUnit.SECONDS.sleep(1);
-            } catch (InterruptedException ignored) {
-            }
-        }
-
-        isShutdown = true;
+        flusher.shutdown();
     }
 
     protected static final class DataDO {
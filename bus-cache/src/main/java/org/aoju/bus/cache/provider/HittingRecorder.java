@@ -0,0 +1,252 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.cache.provider;
+
+import org.aoju.bus.cache.Hitting;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 进程内命中率计数器
+ * <p>
+ * 每个分组模板持有一对{@link LongAdder}, 记录命中/请求时不加锁也不创建对象;
+ * 持久化实现由定时任务调用{@link #drain()}取出自上次落盘以来的增量, 批量写入存储
+ *
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public class HittingRecorder {
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r);
+        thread.setName("cache:hitting-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 按固定间隔执行落盘任务
+     *
+     * @param flusher  落盘任务
+     * @param interval 间隔时长,单位秒
+     * @return 任务句柄, 用于停止落盘
+     */
+    public static Flusher schedule(Runnable flusher, long interval) {
+        return new Flusher(flusher, interval);
+    }
+
+    public void hitIncr(String pattern, int count) {
+        if (count != 0) {
+            counter(pattern).hit.add(count);
+        }
+    }
+
+    public void reqIncr(String pattern, int count) {
+        if (count != 0) {
+            counter(pattern).require.add(count);
+        }
+    }
+
+    public void refreshIncr(String pattern, boolean success) {
+        Counter counter = counter(pattern);
+        if (success) {
+            counter.refreshed.increment();
+        } else {
+            counter.refreshFailed.increment();
+        }
+    }
+
+    /**
+     * 进程内的累计命中率, 不访问存储
+     *
+     * @param summaryName 汇总项名称
+     * @return 分组模板 -> 命中率, 最后一项为汇总
+     */
+    public Map<String, Hitting.HittingDO> snapshot(String summaryName) {
+        Map<String, Hitting.HittingDO> result = new LinkedHashMap<>();
+
+        long totalHit = 0;
+        long totalRequire = 0;
+        long totalRefreshed = 0;
+        long totalRefreshFailed = 0;
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            Counter counter = entry.getValue();
+            long hit = counter.hit.sum();
+            long require = counter.require.sum();
+            long refreshed = counter.refreshed.sum();
+            long refreshFailed = counter.refreshFailed.sum();
+
+            totalHit += hit;
+            totalRequire += require;
+            totalRefreshed += refreshed;
+            totalRefreshFailed += refreshFailed;
+
+            result.put(entry.getKey(), Hitting.HittingDO.newInstance(hit, require, refreshed, refreshFailed));
+        }
+
+        result.put(summaryName, Hitting.HittingDO.newInstance(totalHit, totalRequire, totalRefreshed, totalRefreshFailed));
+
+        return result;
+    }
+
+    /**
+     * 将进程内的刷新计数合并到从存储读取的命中率中
+     *
+     * @param hitting     从存储读取的命中率, 最后一项为汇总
+     * @param summaryName 汇总项名称
+     * @return 合并后的命中率
+     */
+    public Map<String, Hitting.HittingDO> withRefresh(Map<String, Hitting.HittingDO> hitting, String summaryName) {
+        long totalRefreshed = 0;
+        long totalRefreshFailed = 0;
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            long refreshed = entry.getValue().refreshed.sum();
+            long refreshFailed = entry.getValue().refreshFailed.sum();
+            totalRefreshed += refreshed;
+            totalRefreshFailed += refreshFailed;
+            hitting.computeIfPresent(entry.getKey(), (pattern, hittingDO) -> Hitting.HittingDO.newInstance(
+                    hittingDO.getHit(), hittingDO.getRequired(), refreshed, refreshFailed));
+        }
+
+        long refreshed = totalRefreshed;
+        long refreshFailed = totalRefreshFailed;
+        hitting.computeIfPresent(summaryName, (pattern, hittingDO) -> Hitting.HittingDO.newInstance(
+                hittingDO.getHit(), hittingDO.getRequired(), refreshed, refreshFailed));
+        return hitting;
+    }
+
+    /**
+     * 取出自上次落盘以来的增量, 仅由落盘线程调用
+     *
+     * @return 分组模板 -> {命中增量, 请求增量}, 无增量的模板不会出现
+     */
+    public Map<String, long[]> drain() {
+        Map<String, long[]> deltas = new LinkedHashMap<>();
+        counters.forEach((pattern, counter) -> {
+            long hit = counter.hit.sum();
+            long require = counter.require.sum();
+            long hitDelta = hit - counter.flushedHit;
+            long requireDelta = require - counter.flushedRequire;
+            if (hitDelta != 0 || requireDelta != 0) {
+                counter.flushedHit = hit;
+                counter.flushedRequire = require;
+                deltas.put(pattern, new long[]{hitDelta, requireDelta});
+            }
+        });
+        return deltas;
+    }
+
+    /**
+     * 落盘失败时归还增量, 由下次落盘重试
+     *
+     * @param deltas {@link #drain()}的返回值
+     */
+    public void restore(Map<String, long[]> deltas) {
+        deltas.forEach((pattern, delta) -> {
+            Counter counter = counters.get(pattern);
+            if (counter != null) {
+                counter.flushedHit -= delta[0];
+                counter.flushedRequire -= delta[1];
+            }
+        });
+    }
+
+    public void reset(String pattern) {
+        counters.remove(pattern);
+    }
+
+    public void resetAll() {
+        counters.clear();
+    }
+
+    private Counter counter(String pattern) {
+        // 先get再computeIfAbsent: JDK8的computeIfAbsent在key已存在时仍会锁住桶
+        Counter counter = counters.get(pattern);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(pattern, (key) -> new Counter());
+        }
+        return counter;
+    }
+
+    /**
+     * 定时落盘任务: 同一时刻只有一次落盘在执行
+     */
+    public static final class Flusher {
+
+        private final Runnable task;
+
+        private final Lock lock = new ReentrantLock();
+
+        private final ScheduledFuture<?> future;
+
+        private Flusher(Runnable task, long interval) {
+            this.task = task;
+            this.future = scheduler.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.SECONDS);
+        }
+
+        private void flush() {
+            lock.lock();
+            try {
+                task.run();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 停止定时落盘, 等待正在执行的落盘结束后再执行最后一次
+         */
+        public void shutdown() {
+            future.cancel(false);
+            flush();
+        }
+
+    }
+
+    private static final class Counter {
+
+        private final LongAdder hit = new LongAdder();
+
+        private final LongAdder require = new LongAdder();
+
+        private final LongAdder refreshed = new LongAdder();
+
+        private final LongAdder refreshFailed = new LongAdder();
+
+        // 已落盘的累计值, 仅落盘任务读写
+        private volatile long flushedHit;
+
+        private volatile long flushedRequire;
+    }
+
+}
@@ -26,70 +26,47 @@ package org.aoju.bus.cache.provider;
 
 import org.aoju.bus.cache.Hitting;
 
-import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * 纯内存的命中率统计, 不依赖任何存储, 可用于测试或单机场景
+ *
  * @author Kimi Liu
  * @version 5.9.6
  * @since JDK 1.8+
  */
 public class MemoryHitting implements Hitting {
 
-    private ConcurrentMap<String, AtomicLong> hitMap = new ConcurrentHashMap<>();
-
-    private ConcurrentMap<String, AtomicLong> requireMap = new ConcurrentHashMap<>();
+    private final HittingRecorder recorder = new HittingRecorder();
 
     @Override
     public void hitIncr(String pattern, int count) {
-        hitMap.computeIfAbsent(
-                pattern,
-                (k) -> new AtomicLong()
-        ).addAndGet(count);
+        recorder.hitIncr(pattern, count);
     }
 
     @Override
     public void reqIncr(String pattern, int count) {
-        requireMap.computeIfAbsent(
-                pattern,
-                (k) -> new AtomicLong()
-        ).addAndGet(count);
+        recorder.reqIncr(pattern, count);
     }
 
     @Override
-    public Map<String, Hitting.HittingDO> getHitting() {
-        Map<String, Hitting.HittingDO> result = new LinkedHashMap<>();
-
-        AtomicLong statisticsHit = new AtomicLong(0);
-        AtomicLong statisticsRequired = new AtomicLong(0);
-        requireMap.forEach((pattern, count) -> {
-            long hit = hitMap.computeIfAbsent(pattern, (key) -> new AtomicLong(0)).get();
-            long require = count.get();
-
-            statisticsHit.addAndGet(hit);
-            statisticsRequired.addAndGet(require);
-
-            result.put(pattern, Hitting.HittingDO.newInstance(hit, require));
-        });
-
-        result.put(summaryName(), Hitting.HittingDO.newInstance(statisticsHit.get(), statisticsRequired.get()));
+    public void refreshIncr(String pattern, boolean success) {
+        recorder.refreshIncr(pattern, success);
+    }
 
-        return result;
+    @Override
+    public Map<String, Hitting.HittingDO> getHitting() {
+        return recorder.snapshot(summaryName());
     }
 
     @Override
     public void reset(String pattern) {
-        hitMap.remove(pattern);
-        requireMap.remove(pattern);
+        recorder.reset(pattern);
     }
 
     @Override
     public void resetAll() {
-        hitMap.clear();
-        requireMap.clear();
+        recorder.resetAll();
     }
 
 }
@@ -25,7 +25,6 @@
 package org.aoju.bus.cache.provider;
 
 import org.aoju.bus.cache.Hitting;
-import org.aoju.bus.cache.magic.CachePair;
 import org.aoju.bus.core.lang.Symbol;
 import org.aoju.bus.logger.Logger;
 import org.apache.curator.framework.CuratorFramework;
@@ -39,7 +38,7 @@ import javax.annotation.PreDestroy;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -49,24 +48,20 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 public class ZookeeperHitting implements Hitting {
 
-    private static final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
-        Thread thread = new Thread(r);
-        thread.setName("cache:zk-uploader");
-        thread.setDaemon(true);
-        return thread;
-    });
-
     private static final String NAME_SPACE = "cache";
 
-    private volatile boolean isShutdown = false;
+    /**
+     * 默认上传间隔,单位秒
+     */
+    private static final long DEFAULT_INTERVAL = 5;
 
-    private BlockingQueue<CachePair<String, Integer>> hitQueue = new LinkedTransferQueue<>();
+    private final HittingRecorder recorder = new HittingRecorder();
 
-    private BlockingQueue<CachePair<String, Integer>> requireQueue = new LinkedTransferQueue<>();
+    private final HittingRecorder.Flusher uploader;
 
-    private Map<String, DistributedAtomicLong> hitCounterMap = new HashMap<>();
+    private Map<String, DistributedAtomicLong> hitCounterMap = new ConcurrentHashMap<>();
 
-    private Map<String, DistributedAtomicLong> requireCounterMap = new HashMap<>();
+    private Map<String, DistributedAtomicLong> requireCounterMap = new ConcurrentHashMap<>();
 
     private CuratorFramework client;
 
@@ -79,6 +74,15 @@ public class ZookeeperHitting implements Hitting {
     }
 
     public ZookeeperHitting(String zkServer, String productName) {
+        this(zkServer, productName, DEFAULT_INTERVAL);
+    }
+
+    /**
+     * @param zkServer    zookeeper地址
+     * @param productName 应用名称
+     * @param interval    上传间隔,单位秒
+     */
+    public ZookeeperHitting(String zkServer, String productName, long interval) {
         this.client = CuratorFrameworkFactory.builder()
                 .connectString(zkServer)
                 .retryPolicy(new RetryNTimes(3, 0))
@@ -98,24 +102,27 @@ public class ZookeeperHitting implements Hitting {
             throw new RuntimeException("create path: " + hitPathPrefix + ", " + requirePathPrefix + " on namespace: " + NAME_SPACE + " error", e);
         }
 
-        executor.submit(() -> {
-            while (!isShutdown) {
-                dumpToZK(hitQueue, hitCounterMap, hitPathPrefix);
-                dumpToZK(requireQueue, requireCounterMap, requirePathPrefix);
-            }
-        });
+        this.uploader = HittingRecorder.schedule(this::dumpToZK, interval);
     }
 
     @Override
     public void hitIncr(String pattern, int count) {
-        if (count != 0)
-            hitQueue.add(CachePair.of(pattern, count));
+        recorder.hitIncr(pattern, count);
     }
 
     @Override
     public void reqIncr(String pattern, int count) {
-        if (count != 0)
-            requireQueue.add(CachePair.of(pattern, count));
+        recorder.reqIncr(pattern, count);
+    }
+
+    @Override
+    public void refreshIncr(String pattern, boolean success) {
+        recorder.refreshIncr(pattern, success);
+    }
+
+    @Override
+    public Map<String, Hitting.HittingDO> getSnapshot() {
+        return recorder.snapshot(summaryName());
     }
 
     @Override
@@ -140,31 +147,26 @@ public class ZookeeperHitting implements Hitting {
 
         result.put(summaryName(), Hitting.HittingDO.newInstance(totalHit.get(), totalRequire.get()));
 
-        return result;
+        return recorder.withRefresh(result, summaryName());
     }
 
     @Override
     public void reset(String pattern) {
         hitCounterMap.computeIfPresent(pattern, this::doReset);
         requireCounterMap.computeIfPresent(pattern, this::doReset);
+        recorder.reset(pattern);
     }
 
     @Override
     public void resetAll() {
         hitCounterMap.forEach(this::doReset);
         requireCounterMap.forEach(this::doReset);
+        recorder.resetAll();
     }
 
     @PreDestroy
     public void tearDown() {
-        while (hitQueue.size() > 0 || requireQueue.size() > 0) {
-            try {
-                TimeUnit.SECONDS.sleep(1);
-            } catch (InterruptedException ignored) {
-            }
-        }
-
-        isShutdown = true;
+        uploader.shutdown();
     }
 
     private String processProductName(String productName) {
@@ -189,28 +191,42 @@ public class ZookeeperHitting implements Hitting {
         return null;
     }
 
-    private void dumpToZK(BlockingQueue<CachePair<String, Integer>> queue, Map<String, DistributedAtomicLong> counterMap, String zkPrefix) {
-        long count = 0;
-        CachePair<String, Integer> head;
-
-        // 将queue中所有的 || 前100条数据聚合到一个暂存Map中
-        Map<String, AtomicLong> holdMap = new HashMap<>();
-        while ((head = queue.poll()) != null && count <= 100) {
-            holdMap
-                    .computeIfAbsent(head.getLeft(), (key) -> new AtomicLong(0L))
-                    .addAndGet(head.getRight());
-            ++count;
-        }
-
-        holdMap.forEach((pattern, atomicCount) -> {
-            String zkPath = String.format("%s/%s", zkPrefix, pattern);
-            DistributedAtomicLong counter = counterMap.computeIfAbsent(pattern, (key) -> new DistributedAtomicLong(client, zkPath, new RetryNTimes(10, 10)));
+    private void dumpToZK() {
+        Map<String, long[]> deltas = recorder.drain();
+        Map<String, long[]> failed = new HashMap<>();
+        // 命中数与请求数分别上传, 失败的一项放回计数器, 下次上传时重试
+        deltas.forEach((pattern, delta) -> {
+            long hitFailed = 0;
+            long requireFailed = 0;
             try {
-                counter.add(atomicCount.get()).postValue();
+                add(hitCounterMap, hitPathPrefix, pattern, delta[0]);
             } catch (Exception e) {
-                Logger.error(e, "dump data from queue to zookeeper error: ", e.getMessage());
+                hitFailed = delta[0];
+                Logger.error(e, "dump hit count to zookeeper error: ", e.getMessage());
+            }
+            try {
+                add(requireCounterMap, requirePathPrefix, pattern, delta[1]);
+            } catch (Exception e) {
+                requireFailed = delta[1];
+                Logger.error(e, "dump require count to zookeeper error: ", e.getMessage());
+            }
+            if (hitFailed != 0 || requireFailed != 0) {
+                failed.put(pattern, new long[]{hitFailed, requireFailed});
             }
         });
+        recorder.restore(failed);
+    }
+
+    private void add(Map<String, DistributedAtomicLong> counterMap, String zkPrefix, String pattern, long delta) throws Exception {
+        if (delta == 0) {
+            return;
+        }
+        String zkPath = String.format("%s/%s", zkPrefix, pattern);
+        DistributedAtomicLong counter = counterMap.computeIfAbsent(pattern, (key) -> new DistributedAtomicLong(client, zkPath, new RetryNTimes(10, 10)));
+        AtomicValue<Long> value = counter.add(delta);
+        if (!value.succeeded()) {
+            throw new IllegalStateException("zookeeper counter add not succeeded, path: " + zkPath);
+        }
     }
 
     private long getValue(Object value) throws Exception {
@@ -0,0 +1,722 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.cache.serialize;
+
+import org.aoju.bus.core.io.Buffer;
+import org.aoju.bus.core.io.DeflaterSink;
+import org.aoju.bus.core.io.InflaterSource;
+import org.aoju.bus.core.lang.Charset;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+
+import java.io.*;
+import java.lang.reflect.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 基于类结构的二进制序列化
+ * <p>
+ * 每个类的字段信息只反射一次并缓存; 写入时使用{@link Buffer}的池化分段, 不再逐次扩容{@code byte[]};
+ * 类名与字段名在同一次序列化内只写一次, 之后以编号引用; 序列化结果超过{@code compressThreshold}字节时才压缩
+ * <p>
+ * 数据格式: 魔数(1字节) + 版本(1字节) + 标识(1字节) + 数据体, 字段按名称写入,
+ * 读取时跳过已删除的字段、保留新增字段的默认值, 因此应用升级前后写入的缓存可以互相读取
+ * <p>
+ * 不支持循环引用; 无无参构造方法的类以及JDK内部类型在实现{@link Serializable}时退化为JDK序列化;
+ * EnumMap、EnumSet类型的字段需声明具体的枚举泛型, 否则读取时报错
+ *
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public class SchemaSerializer extends AbstractSerializer {
+
+    /**
+     * 默认压缩阈值: 4KB
+     */
+    public static final int DEFAULT_COMPRESS_THRESHOLD = 4 * 1024;
+
+    private static final byte MAGIC = (byte) 0xB5;
+
+    private static final byte VERSION = 1;
+
+    private static final byte FLAG_DEFLATE = 1;
+
+    private static final int HEADER_SIZE = 3;
+
+    private static final int MAX_DEPTH = 256;
+
+    private static final byte NULL = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+    private static final byte BYTE = 3;
+    private static final byte SHORT = 4;
+    private static final byte CHAR = 5;
+    private static final byte INT = 6;
+    private static final byte LONG = 7;
+    private static final byte FLOAT = 8;
+    private static final byte DOUBLE = 9;
+    private static final byte STRING = 10;
+    private static final byte BYTES = 11;
+    private static final byte BIG_INTEGER = 12;
+    private static final byte BIG_DECIMAL = 13;
+    private static final byte DATE = 14;
+    private static final byte ENUM = 15;
+    private static final byte COLLECTION = 16;
+    private static final byte MAP = 17;
+    private static final byte ARRAY = 18;
+    private static final byte OBJECT = 19;
+    private static final byte SERIAL = 20;
+
+    private static final Map<String, Class<?>> PRIMITIVES = new HashMap<>();
+
+    static {
+        for (Class<?> type : new Class<?>[]{boolean.class, byte.class, short.class, char.class,
+                int.class, long.class, float.class, double.class}) {
+            PRIMITIVES.put(type.getName(), type);
+        }
+    }
+
+    private static final Map<Class<?>, Schema> SCHEMAS = new ConcurrentHashMap<>();
+
+    private static final Map<String, Class<?>> CLASSES = new ConcurrentHashMap<>();
+
+    private final int compressThreshold;
+
+    public SchemaSerializer() {
+        this(DEFAULT_COMPRESS_THRESHOLD);
+    }
+
+    /**
+     * @param compressThreshold 数据体超过该字节数时压缩, 小于0表示不压缩
+     */
+    public SchemaSerializer(int compressThreshold) {
+        this.compressThreshold = compressThreshold;
+    }
+
+    @Override
+    protected byte[] doSerialize(Object obj) throws Throwable {
+        Buffer body = new Buffer();
+        try {
+            new Writer(body).write(obj, 0);
+
+            Buffer out = new Buffer();
+            out.writeByte(MAGIC).writeByte(VERSION);
+            if (compressThreshold >= 0 && body.size() > compressThreshold) {
+                out.writeByte(FLAG_DEFLATE);
+                DeflaterSink deflater = new DeflaterSink(out, new Deflater(Deflater.BEST_SPEED));
+                deflater.write(body, body.size());
+                deflater.close();
+            } else {
+                out.writeByte(0);
+                out.write(body, body.size());
+            }
+            return out.readByteArray();
+        } finally {
+            body.clear();
+        }
+    }
+
+    @Override
+    protected Object doDeserialize(byte[] bytes) throws Throwable {
+        if (bytes.length < HEADER_SIZE || bytes[0] != MAGIC) {
+            throw new InstrumentException("not a schema serialized payload");
+        }
+        if (bytes[1] > VERSION) {
+            throw new InstrumentException("unsupported schema serialize version: " + bytes[1]);
+        }
+
+        if ((bytes[2] & FLAG_DEFLATE) == 0) {
+            return new Reader(bytes, HEADER_SIZE).read(0);
+        }
+
+        Buffer compressed = new Buffer().write(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE);
+        Buffer body = new Buffer();
+        try (InflaterSource inflater = new InflaterSource(compressed, new Inflater())) {
+            while (inflater.read(body, Long.MAX_VALUE) != -1) {
+                // read until end of stream
+            }
+        }
+        return new Reader(body.readByteArray(), 0).read(0);
+    }
+
+    private static Class<?> forName(String name) throws ClassNotFoundException {
+        Class<?> type = CLASSES.get(name);
+        if (null != type) {
+            return type;
+        }
+        type = PRIMITIVES.get(name);
+        if (null == type) {
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            type = Class.forName(name, false, null == loader ? SchemaSerializer.class.getClassLoader() : loader);
+        }
+        CLASSES.put(name, type);
+        return type;
+    }
+
+    private static Schema schema(Class<?> type) {
+        Schema schema = SCHEMAS.get(type);
+        if (null == schema) {
+            schema = SCHEMAS.computeIfAbsent(type, Schema::new);
+        }
+        return schema;
+    }
+
+    private static void checkDepth(int depth) {
+        if (depth > MAX_DEPTH) {
+            throw new InstrumentException("object graph too deep, circular reference is not supported");
+        }
+    }
+
+    /**
+     * 类结构: 可序列化的字段以及实例化方式
+     */
+    private static final class Schema {
+
+        private final Field[] fields;
+
+        private final String[] names;
+
+        private final Map<String, Field> fieldMap;
+
+        private final Constructor<?> constructor;
+
+        Schema(Class<?> type) {
+            List<Field> list = new ArrayList<>();
+            this.fieldMap = new LinkedHashMap<>();
+            for (Class<?> clazz = type; null != clazz && clazz != Object.class; clazz = clazz.getSuperclass()) {
+                for (Field field : clazz.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    list.add(field);
+                    // 子类字段使用原名, 被子类同名字段遮蔽的父类字段以"声明类#字段名"区分
+                    String name = field.getName();
+                    if (fieldMap.containsKey(name)) {
+                        name = clazz.getName() + '#' + name;
+                    }
+                    fieldMap.put(name, field);
+                }
+            }
+            this.fields = list.toArray(new Field[0]);
+            this.names = fieldMap.keySet().toArray(new String[0]);
+            this.constructor = constructor(type);
+        }
+
+        private static Constructor<?> constructor(Class<?> type) {
+            String name = type.getName();
+            if (type.isInterface() || Modifier.isAbstract(type.getModifiers())
+                    || name.startsWith("java.") || name.startsWith("javax.")
+                    || (type.isMemberClass() && !Modifier.isStatic(type.getModifiers()))) {
+                return null;
+            }
+            try {
+                Constructor<?> constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                return constructor;
+            } catch (NoSuchMethodException | RuntimeException e) {
+                return null;
+            }
+        }
+
+        boolean isSupported() {
+            return null != constructor;
+        }
+
+    }
+
+    /**
+     * 写入池化缓冲区
+     */
+    private static final class Writer {
+
+        private final Buffer buffer;
+
+        private final Map<String, Integer> symbols = new HashMap<>();
+
+        Writer(Buffer buffer) {
+            this.buffer = buffer;
+        }
+
+        void write(Object value, int depth) throws IOException {
+            checkDepth(depth);
+            if (null == value) {
+                buffer.writeByte(NULL);
+                return;
+            }
+
+            Class<?> type = value.getClass();
+            if (type == String.class) {
+                buffer.writeByte(STRING);
+                writeString((String) value);
+            } else if (type == Integer.class) {
+                buffer.writeByte(INT);
+                writeVarLong((Integer) value);
+            } else if (type == Long.class) {
+                buffer.writeByte(LONG);
+                writeVarLong((Long) value);
+            } else if (type == Boolean.class) {
+                buffer.writeByte((Boolean) value ? TRUE : FALSE);
+            } else if (type == Double.class) {
+                buffer.writeByte(DOUBLE).writeLong(Double.doubleToRawLongBits((Double) value));
+            } else if (type == Float.class) {
+                buffer.writeByte(FLOAT).writeInt(Float.floatToRawIntBits((Float) value));
+            } else if (type == Short.class) {
+                buffer.writeByte(SHORT).writeShort((Short) value);
+            } else if (type == Byte.class) {
+                buffer.writeByte(BYTE).writeByte((Byte) value);
+            } else if (type == Character.class) {
+                buffer.writeByte(CHAR).writeShort((Character) value);
+            } else if (type == byte[].class) {
+                byte[] bytes = (byte[]) value;
+                buffer.writeByte(BYTES);
+                writeVarInt(bytes.length);
+                buffer.write(bytes);
+            } else if (type == BigDecimal.class) {
+                buffer.writeByte(BIG_DECIMAL);
+                writeString(value.toString());
+            } else if (type == BigInteger.class) {
+                buffer.writeByte(BIG_INTEGER);
+                writeString(value.toString());
+            } else if (type == Date.class) {
+                buffer.writeByte(DATE);
+                writeVarLong(((Date) value).getTime());
+            } else if (value instanceof Enum) {
+                buffer.writeByte(ENUM);
+                writeSymbol(((Enum<?>) value).getDeclaringClass().getName());
+                writeSymbol(((Enum<?>) value).name());
+            } else if (type.isArray()) {
+                writeArray(value, depth);
+            } else if (value instanceof Collection && !isSorted(value)) {
+                writeCollection((Collection<?>) value, depth);
+            } else if (value instanceof Map && !isSorted(value)) {
+                writeMap((Map<?, ?>) value, depth);
+            } else {
+                Schema schema = schema(type);
+                if (schema.isSupported()) {
+                    writeObject(value, schema, depth);
+                } else {
+                    writeSerial(value);
+                }
+            }
+        }
+
+        private boolean isSorted(Object value) {
+            // 带比较器的有序集合无法还原比较器
+            return (value instanceof SortedSet && null != ((SortedSet<?>) value).comparator())
+                    || (value instanceof SortedMap && null != ((SortedMap<?, ?>) value).comparator());
+        }
+
+        private void writeArray(Object array, int depth) throws IOException {
+            int length = Array.getLength(array);
+            buffer.writeByte(ARRAY);
+            writeSymbol(array.getClass().getComponentType().getName());
+            writeVarInt(length);
+            for (int i = 0; i < length; ++i) {
+                write(Array.get(array, i), depth + 1);
+            }
+        }
+
+        private void writeCollection(Collection<?> collection, int depth) throws IOException {
+            buffer.writeByte(COLLECTION);
+            writeSymbol(containerName(collection.getClass(), collection instanceof Set ? LinkedHashSet.class : ArrayList.class));
+            writeVarInt(collection.size());
+            for (Object item : collection) {
+                write(item, depth + 1);
+            }
+        }
+
+        private void writeMap(Map<?, ?> map, int depth) throws IOException {
+            buffer.writeByte(MAP);
+            writeSymbol(containerName(map.getClass(), LinkedHashMap.class));
+            writeVarInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                write(entry.getKey(), depth + 1);
+                write(entry.getValue(), depth + 1);
+            }
+        }
+
+        private String containerName(Class<?> type, Class<?> defaultType) {
+            // Arrays$ArrayList、Collections$UnmodifiableXxx等无法直接实例化, 使用通用实现代替
+            if (Modifier.isPublic(type.getModifiers()) && !type.isMemberClass()) {
+                try {
+                    type.getConstructor();
+                    return type.getName();
+                } catch (NoSuchMethodException ignored) {
+                    // use default
+                }
+            }
+            return defaultType.getName();
+        }
+
+        private void writeObject(Object value, Schema schema, int depth) throws IOException {
+            buffer.writeByte(OBJECT);
+            writeSymbol(value.getClass().getName());
+            writeVarInt(schema.fields.length);
+            try {
+                for (int i = 0; i < schema.fields.length; ++i) {
+                    writeSymbol(schema.names[i]);
+                    write(schema.fields[i].get(value), depth + 1);
+                }
+            } catch (IllegalAccessException e) {
+                throw new InstrumentException(e);
+            }
+        }
+
+        private void writeSerial(Object value) throws IOException {
+            if (!(value instanceof Serializable)) {
+                throw new NotSerializableException(value.getClass().getName());
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(value);
+            }
+            buffer.writeByte(SERIAL);
+            writeVarInt(bytes.size());
+            buffer.write(bytes.toByteArray());
+        }
+
+        /**
+         * 类名与字段名: 首次出现时写入内容并编号, 再次出现时只写编号
+         */
+        private void writeSymbol(String symbol) {
+            Integer id = symbols.get(symbol);
+            if (null != id) {
+                writeVarInt(id + 1);
+                return;
+            }
+            symbols.put(symbol, symbols.size());
+            writeVarInt(0);
+            writeString(symbol);
+        }
+
+        private void writeString(String value) {
+            writeVarInt(utf8Size(value));
+            buffer.writeUtf8(value);
+        }
+
+        private int utf8Size(String value) {
+            int size = 0;
+            for (int i = 0, length = value.length(); i < length; ++i) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    size += 1;
+                } else if (c < 0x800) {
+                    size += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    size += 4;
+                    ++i;
+                } else {
+                    // 孤立的代理字符由writeUtf8替换为'?'
+                    size += Character.isSurrogate(c) ? 1 : 3;
+                }
+            }
+            return size;
+        }
+
+        private void writeVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                buffer.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer.writeByte(value);
+        }
+
+        private void writeVarLong(long value) {
+            // zigzag编码, 使绝对值小的负数同样占用较少字节
+            long zigzag = (value << 1) ^ (value >> 63);
+            while ((zigzag & ~0x7FL) != 0) {
+                buffer.writeByte((int) ((zigzag & 0x7F) | 0x80));
+                zigzag >>>= 7;
+            }
+            buffer.writeByte((int) zigzag);
+        }
+
+    }
+
+    /**
+     * 直接在字节数组上读取, 不复制
+     */
+    private static final class Reader {
+
+        private final byte[] bytes;
+
+        private final List<String> symbols = new ArrayList<>();
+
+        private int pos;
+
+        Reader(byte[] bytes, int pos) {
+            this.bytes = bytes;
+            this.pos = pos;
+        }
+
+        Object read(int depth) throws Exception {
+            checkDepth(depth);
+            byte tag = bytes[pos++];
+            switch (tag) {
+                case NULL:
+                    return null;
+                case TRUE:
+                    return Boolean.TRUE;
+                case FALSE:
+                    return Boolean.FALSE;
+                case BYTE:
+                    return bytes[pos++];
+                case SHORT:
+                    return readShort();
+                case CHAR:
+                    return (char) readShort();
+                case INT:
+                    return (int) readVarLong();
+                case LONG:
+                    return readVarLong();
+                case FLOAT:
+                    return Float.intBitsToFloat(readInt());
+                case DOUBLE:
+                    return Double.longBitsToDouble(((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL));
+                case STRING:
+                    return readString();
+                case BYTES:
+                    return readBytes();
+                case BIG_INTEGER:
+                    return new BigInteger(readString());
+                case BIG_DECIMAL:
+                    return new BigDecimal(readString());
+                case DATE:
+                    return new Date(readVarLong());
+                case ENUM:
+                    return readEnum();
+                case COLLECTION:
+                    return readCollection(depth);
+                case MAP:
+                    return readMap(depth);
+                case ARRAY:
+                    return readArray(depth);
+                case OBJECT:
+                    return readObject(depth);
+                case SERIAL:
+                    return readSerial();
+                default:
+                    throw new InstrumentException("unknown schema serialize tag: " + tag + " at " + (pos - 1));
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object readEnum() throws ClassNotFoundException {
+            Class type = forName(readSymbol());
+            return Enum.valueOf(type, readSymbol());
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object readCollection(int depth) throws Exception {
+            Collection<Object> collection = (Collection<Object>) forName(readSymbol()).newInstance();
+            int size = readVarInt();
+            for (int i = 0; i < size; ++i) {
+                collection.add(read(depth + 1));
+            }
+            return collection;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object readMap(int depth) throws Exception {
+            Map<Object, Object> map = (Map<Object, Object>) forName(readSymbol()).newInstance();
+            int size = readVarInt();
+            for (int i = 0; i < size; ++i) {
+                Object key = read(depth + 1);
+                map.put(key, read(depth + 1));
+            }
+            return map;
+        }
+
+        private Object readArray(int depth) throws Exception {
+            Class<?> componentType = forName(readSymbol());
+            int length = readVarInt();
+            Object array = Array.newInstance(componentType, length);
+            for (int i = 0; i < length; ++i) {
+                Object item = read(depth + 1);
+                Array.set(array, i, componentType.isPrimitive() ? coerce(componentType, item) : item);
+            }
+            return array;
+        }
+
+        private Object readObject(int depth) throws Exception {
+            Schema schema = schema(forName(readSymbol()));
+            if (!schema.isSupported()) {
+                throw new InstrumentException("no default constructor found");
+            }
+            Object target = schema.constructor.newInstance();
+            int count = readVarInt();
+            for (int i = 0; i < count; ++i) {
+                Field field = schema.fieldMap.get(readSymbol());
+                Object value = read(depth + 1);
+                // 已删除的字段直接跳过
+                if (null != field) {
+                    setField(target, field, value);
+                }
+            }
+            return target;
+        }
+
+        private void setField(Object target, Field field, Object value) throws IllegalAccessException {
+            Class<?> type = field.getType();
+            if (null == value) {
+                if (!type.isPrimitive()) {
+                    field.set(target, null);
+                }
+                return;
+            }
+            Object coerced = coerce(field, value);
+            // 字段类型变更且无法转换时保留默认值
+            if (type.isPrimitive() || type.isInstance(coerced)) {
+                try {
+                    field.set(target, coerced);
+                } catch (IllegalArgumentException ignored) {
+                    // keep default
+                }
+            }
+        }
+
+        /**
+         * EnumMap、EnumSet写入时以通用实现代替, 读取时按字段声明的枚举类型还原
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object coerce(Field field, Object value) {
+            Class<?> type = field.getType();
+            boolean enumMap = type == EnumMap.class && value instanceof Map;
+            boolean enumSet = type == EnumSet.class && value instanceof Collection;
+            if (!enumMap && !enumSet) {
+                return coerce(type, value);
+            }
+            Type generic = field.getGenericType();
+            if (!(generic instanceof ParameterizedType)
+                    || !(((ParameterizedType) generic).getActualTypeArguments()[0] instanceof Class)) {
+                throw new InstrumentException("cannot resolve enum type of field: %s", field);
+            }
+            Class elementType = (Class) ((ParameterizedType) generic).getActualTypeArguments()[0];
+            if (enumMap) {
+                EnumMap map = new EnumMap(elementType);
+                map.putAll((Map) value);
+                return map;
+            }
+            EnumSet set = EnumSet.noneOf(elementType);
+            set.addAll((Collection) value);
+            return set;
+        }
+
+        private Object coerce(Class<?> type, Object value) {
+            if (!(value instanceof Number) || type.isInstance(value)) {
+                return value;
+            }
+            Number number = (Number) value;
+            if (type == int.class || type == Integer.class) {
+                return number.intValue();
+            } else if (type == long.class || type == Long.class) {
+                return number.longValue();
+            } else if (type == double.class || type == Double.class) {
+                return number.doubleValue();
+            } else if (type == float.class || type == Float.class) {
+                return number.floatValue();
+            } else if (type == short.class || type == Short.class) {
+                return number.shortValue();
+            } else if (type == byte.class || type == Byte.class) {
+                return number.byteValue();
+            }
+            return value;
+        }
+
+        private Object readSerial() throws IOException, ClassNotFoundException {
+            int length = readVarInt();
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes, pos, length))) {
+                pos += length;
+                return in.readObject();
+            }
+        }
+
+        private String readSymbol() {
+            int id = readVarInt();
+            if (id != 0) {
+                return symbols.get(id - 1);
+            }
+            String symbol = readString();
+            symbols.add(symbol);
+            return symbol;
+        }
+
+        private String readString() {
+            int length = readVarInt();
+            String value = new String(bytes, pos, length, Charset.UTF_8);
+            pos += length;
+            return value;
+        }
+
+        private byte[] readBytes() {
+            int length = readVarInt();
+            byte[] value = Arrays.copyOfRange(bytes, pos, pos + length);
+            pos += length;
+            return value;
+        }
+
+        private short readShort() {
+            return (short) (((bytes[pos++] & 0xFF) << 8) | (bytes[pos++] & 0xFF));
+        }
+
+        private int readInt() {
+            return ((bytes[pos++] & 0xFF) << 24)
+                    | ((bytes[pos++] & 0xFF) << 16)
+                    | ((bytes[pos++] & 0xFF) << 8)
+                    | (bytes[pos++] & 0xFF);
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = bytes[pos++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        private long readVarLong() {
+            long zigzag = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = bytes[pos++];
+                zigzag |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return (zigzag >>> 1) ^ -(zigzag & 1);
+                }
+            }
+        }
+
+    }
+
+}
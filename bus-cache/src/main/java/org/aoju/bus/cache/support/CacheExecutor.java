@@ -0,0 +1,143 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.cache.support;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 缓存异步操作的执行器
+ * <p>
+ * 阻塞式客户端(Jedis等)的异步操作提交到有界的I/O线程池执行, 队列已满时返回失败的Future而不是阻塞调用线程;
+ * 内存缓存的异步操作直接在调用线程执行并返回已完成的Future
+ *
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public final class CacheExecutor {
+
+    private static final int QUEUE_SIZE = 4096;
+
+    private static final ExecutorService executor = newPool("cache:async-io-");
+
+    /**
+     * 方法调用线程池: 异步读缓存未命中、且结果不在调用线程返回时, 被拦截的方法在此调用,
+     * 不占用I/O线程; 调用线程的ThreadLocal、事务等上下文不会传递到该线程池
+     */
+    private static final ExecutorService loader = newPool("cache:loader-");
+
+    private CacheExecutor() {
+
+    }
+
+    /**
+     * 在I/O线程池中执行阻塞操作
+     *
+     * @param supplier 阻塞操作
+     * @param <T>      返回值类型
+     * @return 操作结果
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, executor);
+        } catch (RejectedExecutionException e) {
+            return failed(e);
+        }
+    }
+
+    /**
+     * 在方法调用线程池中调用被拦截的方法
+     *
+     * @param supplier 方法调用, 返回方法的Future
+     * @param <T>      返回值类型
+     * @return 方法的结果
+     */
+    public static <T> CompletableFuture<T> loadAsync(Supplier<CompletableFuture<T>> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, loader).thenCompose(Function.identity());
+        } catch (RejectedExecutionException e) {
+            return failed(e);
+        }
+    }
+
+    public static CompletableFuture<Void> runAsync(Runnable runnable) {
+        try {
+            return CompletableFuture.runAsync(runnable, executor);
+        } catch (RejectedExecutionException e) {
+            return failed(e);
+        }
+    }
+
+    /**
+     * 在调用线程执行非阻塞操作, 异常通过Future返回
+     *
+     * @param supplier 非阻塞操作
+     * @param <T>      返回值类型
+     * @return 已完成的Future
+     */
+    public static <T> CompletableFuture<T> supply(Supplier<T> supplier) {
+        try {
+            return CompletableFuture.completedFuture(supplier.get());
+        } catch (Throwable e) {
+            return failed(e);
+        }
+    }
+
+    public static CompletableFuture<Void> run(Runnable runnable) {
+        try {
+            runnable.run();
+            return CompletableFuture.completedFuture(null);
+        } catch (Throwable e) {
+            return failed(e);
+        }
+    }
+
+    private static ExecutorService newPool(String name) {
+        int threads = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads,
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(QUEUE_SIZE),
+                r -> {
+                    Thread thread = new Thread(r);
+                    thread.setName(name + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    public static <T> CompletableFuture<T> failed(Throwable e) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+}
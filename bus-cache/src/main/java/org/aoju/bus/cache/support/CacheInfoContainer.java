@@ -41,6 +41,7 @@ import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -73,14 +74,23 @@ public class CacheInfoContainer {
         Annotation[][] pAnnotations = method.getParameterAnnotations();
         scanKeys(builder, pAnnotations);
 
+        String condition;
         if (method.isAnnotationPresent(Cached.class)) {
-            scanCached(builder, method.getAnnotation(Cached.class));
+            Cached cached = method.getAnnotation(Cached.class);
+            scanCached(builder, cached);
+            condition = cached.condition();
         } else if (method.isAnnotationPresent(CachedGet.class)) {
-            scanCachedGet(builder, method.getAnnotation(CachedGet.class));
+            CachedGet cachedGet = method.getAnnotation(CachedGet.class);
+            scanCachedGet(builder, cachedGet);
+            condition = cachedGet.condition();
         } else {
-            scanInvalid(builder, method.getAnnotation(Invalid.class));
+            Invalid invalid = method.getAnnotation(Invalid.class);
+            scanInvalid(builder, invalid);
+            condition = invalid.condition();
         }
 
+        compileSpels(builder, ArgNameGenerator.getArgNames(method), condition);
+
         return builder.build();
     }
 
@@ -110,11 +120,26 @@ public class CacheInfoContainer {
                 .setId(id);
     }
 
+    // 预先解析@CacheKey与condition表达式, 避免每次调用时重复解析
+    private static AnnoHolder.Builder compileSpels(AnnoHolder.Builder builder, String[] argNames, String condition) {
+        Map<String, Integer> variables = CompiledSpel.variables(argNames, false);
+        Map<String, Integer> keyVariables = builder.getMultiIndex() == -1 ? variables : CompiledSpel.variables(argNames, true);
+
+        Map<Integer, CompiledSpel> cacheKeySpelMap = new LinkedHashMap<>(builder.getCacheKeyMap().size());
+        builder.getCacheKeyMap().forEach((argIndex, cacheKey) ->
+                cacheKeySpelMap.put(argIndex, CompiledSpel.compile(cacheKey.value(), keyVariables)));
+
+        return builder
+                .setCacheKeySpelMap(cacheKeySpelMap)
+                .setCondition(CompiledSpel.compile(condition, variables));
+    }
+
     private static AnnoHolder.Builder scanCached(AnnoHolder.Builder builder, Cached cached) {
         return builder
                 .setCache(cached.value())
                 .setPrefix(cached.prefix())
-                .setExpire(cached.expire());
+                .setExpire(cached.expire())
+                .setSoftExpire(cached.softExpire());
     }
 
     private static AnnoHolder.Builder scanCachedGet(AnnoHolder.Builder builder, CachedGet cachedGet) {
@@ -134,13 +159,26 @@ public class CacheInfoContainer {
     private static MethodHolder getMethodHolder(Method method, AnnoHolder annoHolder) {
         boolean isCollectionReturn = Collection.class.isAssignableFrom(method.getReturnType());
         boolean isMapReturn = Map.class.isAssignableFrom(method.getReturnType());
+        boolean isFutureReturn = method.getReturnType() == CompletableFuture.class;
+
+        // 批量读写暂不支持Future, 只有@Invalid可以返回Future
+        if (isFutureReturn && annoHolder.isMulti() && false == method.isAnnotationPresent(Invalid.class)) {
+            throw new RuntimeException("multi cache not support CompletableFuture return");
+        }
+        if (annoHolder.isRefreshAhead() && annoHolder.isMulti()) {
+            throw new RuntimeException("multi cache not support soft expire");
+        }
+        if (annoHolder.isRefreshAhead() && annoHolder.getExpire() != CacheExpire.FOREVER
+                && annoHolder.getSoftExpire() >= annoHolder.getExpire()) {
+            throw new RuntimeException("soft expire must be less than expire");
+        }
 
         staticAnalyze(method.getParameterTypes(),
                 annoHolder,
                 isCollectionReturn,
                 isMapReturn);
 
-        return new MethodHolder(isCollectionReturn);
+        return new MethodHolder(isCollectionReturn, isFutureReturn);
     }
 
     private static void staticAnalyze(Class<?>[] pTypes, AnnoHolder annoHolder,
@@ -0,0 +1,272 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.cache.support;
+
+import com.google.common.base.Strings;
+import org.springframework.expression.Expression;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.spel.support.ReflectiveMethodResolver;
+import org.springframework.expression.spel.support.ReflectivePropertyAccessor;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 预编译的Spel表达式: 在方法首次被拦截时解析一次, 之后每次调用只做求值
+ * <p>
+ * 形如{@code #arg0}、{@code #user.id}、{@code #args0.dept.name}的简单参数/属性路径表达式
+ * 直接通过反射读取, 不经过Spel; 其余表达式使用预解析的{@link Expression}求值,
+ * 参数按名称从方法参数数组中延迟查找, 不再逐个写入求值上下文
+ *
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public final class CompiledSpel {
+
+    /**
+     * 批量模式下`#i`遍历指令对应的变量索引
+     */
+    public static final int INDEX = -1;
+
+    private static final int NONE = Integer.MIN_VALUE;
+
+    private static final Object NOT_FOUND = new Object();
+
+    private static final Pattern PROPERTY_PATH = Pattern.compile("^#([A-Za-z_$][\\w$]*)((?:\\.[A-Za-z_$][\\w$]*)*)$");
+
+    // 求值上下文共享属性访问器与方法解析器, 使其内部的反射缓存跨调用生效
+    private static final List<PropertyAccessor> PROPERTY_ACCESSORS = Collections.singletonList(new ReflectivePropertyAccessor());
+
+    private static final List<MethodResolver> METHOD_RESOLVERS = Collections.singletonList(new ReflectiveMethodResolver());
+
+    private final String spel;
+
+    private final Expression expression;
+
+    private final Map<String, Integer> variables;
+
+    private final int rootIndex;
+
+    private final String[] path;
+
+    private final ConcurrentMap<Class<?>, Object>[] accessors;
+
+    private CompiledSpel(String spel, Expression expression, Map<String, Integer> variables, int rootIndex, String[] path) {
+        this.spel = spel;
+        this.expression = expression;
+        this.variables = variables;
+        this.rootIndex = rootIndex;
+        this.path = path;
+        this.accessors = new ConcurrentMap[path.length];
+        for (int i = 0; i < path.length; ++i) {
+            this.accessors[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * 编译表达式
+     *
+     * @param spel      Spel表达式, 为空时求值返回默认值
+     * @param variables 变量名 -> 方法参数索引({@link #INDEX}表示`#i`遍历指令)
+     * @return 编译结果
+     */
+    public static CompiledSpel compile(String spel, Map<String, Integer> variables) {
+        if (Strings.isNullOrEmpty(spel)) {
+            return new CompiledSpel(spel, null, variables, NONE, new String[0]);
+        }
+
+        Expression expression = SpelCalculator.parse(spel);
+        Matcher matcher = PROPERTY_PATH.matcher(spel.trim());
+        if (matcher.matches() && variables.containsKey(matcher.group(1))) {
+            String properties = matcher.group(2);
+            String[] path = properties.isEmpty() ? new String[0] : properties.substring(1).split("\\.");
+            return new CompiledSpel(spel, expression, variables, variables.get(matcher.group(1)), path);
+        }
+
+        return new CompiledSpel(spel, expression, variables, NONE, new String[0]);
+    }
+
+    /**
+     * 生成方法参数的变量表: 包括真实参数名以及`argsN`形式的参数名
+     *
+     * @param argNames 方法参数名
+     * @param multi    是否追加批量模式的`#i`遍历指令
+     * @return 变量名 -> 方法参数索引
+     */
+    public static Map<String, Integer> variables(String[] argNames, boolean multi) {
+        Map<String, Integer> variables = new HashMap<>();
+        for (int i = 0; i < argNames.length; ++i) {
+            variables.put(argNames[i], i);
+        }
+        if (multi) {
+            variables.put("i", INDEX);
+        }
+
+        int size = multi ? argNames.length + 1 : argNames.length;
+        String[] xArgNames = ArgNameGenerator.getXArgNames(size);
+        for (int i = 0; i < size; ++i) {
+            variables.put(xArgNames[i], i < argNames.length ? i : INDEX);
+        }
+
+        return Collections.unmodifiableMap(variables);
+    }
+
+    public String getSpel() {
+        return spel;
+    }
+
+    public boolean isEmpty() {
+        return null == expression;
+    }
+
+    public Object getValue(Object[] argValues, Object defaultValue) {
+        return getValue(argValues, 0, defaultValue);
+    }
+
+    /**
+     * 求值
+     *
+     * @param argValues    方法参数
+     * @param index        批量模式下`#i`的值
+     * @param defaultValue 表达式为空时的返回值
+     * @return 表达式的值
+     */
+    public Object getValue(Object[] argValues, int index, Object defaultValue) {
+        if (null == expression) {
+            return defaultValue;
+        }
+        if (rootIndex == NONE) {
+            return evaluate(argValues, index);
+        }
+
+        Object value = rootIndex == INDEX ? index : argValues[rootIndex];
+        for (int i = 0; i < path.length; ++i) {
+            if (null == value) {
+                // 交由Spel处理, 保持原有的异常信息
+                return evaluate(argValues, index);
+            }
+            value = readProperty(i, value);
+            if (value == NOT_FOUND) {
+                return evaluate(argValues, index);
+            }
+        }
+        return value;
+    }
+
+    private Object evaluate(Object[] argValues, int index) {
+        return expression.getValue(new ArgumentContext(variables, argValues, index));
+    }
+
+    private Object readProperty(int i, Object target) {
+        Object accessor = accessors[i].computeIfAbsent(target.getClass(), type -> findAccessor(type, path[i]));
+        try {
+            if (accessor instanceof Method) {
+                return ((Method) accessor).invoke(target);
+            } else if (accessor instanceof Field) {
+                return ((Field) accessor).get(target);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return NOT_FOUND;
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * 与{@link ReflectivePropertyAccessor}一致: 依次查找getXxx()、isXxx()以及public字段
+     */
+    private static Object findAccessor(Class<?> type, String property) {
+        if (!Modifier.isPublic(type.getModifiers())) {
+            return NOT_FOUND;
+        }
+
+        String suffix = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        for (String prefix : new String[]{"get", "is"}) {
+            try {
+                Method method = type.getMethod(prefix + suffix);
+                if (!Modifier.isStatic(method.getModifiers())
+                        && method.getReturnType() != void.class
+                        && ("get".equals(prefix) || method.getReturnType() == boolean.class || method.getReturnType() == Boolean.class)) {
+                    return method;
+                }
+            } catch (NoSuchMethodException ignored) {
+                // try next
+            }
+        }
+
+        try {
+            Field field = type.getField(property);
+            if (!Modifier.isStatic(field.getModifiers())) {
+                return field;
+            }
+        } catch (NoSuchFieldException ignored) {
+            // not found
+        }
+
+        return NOT_FOUND;
+    }
+
+    /**
+     * 按名称从方法参数中查找变量的求值上下文
+     */
+    private static final class ArgumentContext extends StandardEvaluationContext {
+
+        private final Map<String, Integer> variables;
+
+        private final Object[] argValues;
+
+        private final int index;
+
+        ArgumentContext(Map<String, Integer> variables, Object[] argValues, int index) {
+            this.variables = variables;
+            this.argValues = argValues;
+            this.index = index;
+            setPropertyAccessors(PROPERTY_ACCESSORS);
+            setMethodResolvers(METHOD_RESOLVERS);
+        }
+
+        @Override
+        public Object lookupVariable(String name) {
+            Integer argIndex = variables.get(name);
+            if (null != argIndex) {
+                if (argIndex == INDEX) {
+                    return index;
+                }
+                return argIndex < argValues.length ? argValues[argIndex] : null;
+            }
+            return super.lookupVariable(name);
+        }
+
+    }
+
+}
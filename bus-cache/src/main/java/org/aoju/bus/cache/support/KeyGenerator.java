@@ -24,7 +24,6 @@
  ********************************************************************************/
 package org.aoju.bus.cache.support;
 
-import org.aoju.bus.cache.annotation.CacheKey;
 import org.aoju.bus.cache.magic.AnnoHolder;
 
 import java.util.*;
@@ -38,11 +37,7 @@ import java.util.stream.Collectors;
 public class KeyGenerator {
 
     public static String generateSingleKey(AnnoHolder annoHolder, Object[] argValues) {
-        String[] argNames = ArgNameGenerator.getArgNames(annoHolder.getMethod());
-        Map<Integer, CacheKey> cacheKeyMap = annoHolder.getCacheKeyMap();
-        String prefix = annoHolder.getPrefix();
-
-        return doGenerateKey(cacheKeyMap, prefix, argNames, argValues);
+        return doGenerateKey(annoHolder.getCacheKeySpelMap(), annoHolder.getPrefix(), argValues, 0);
     }
 
     //array[]: {multiEntry2Key, key2MultiEntry}
@@ -54,25 +49,17 @@ public class KeyGenerator {
         // 准备要拼装key所需的原材料
         // 标记为multi的参数
         Collection multiArgEntries = getMultiArgEntries(argValues[annoHolder.getMultiIndex()]);
-        // 参数索引 -> CacheKey
-        Map<Integer, CacheKey> argIndex2CacheKey = annoHolder.getCacheKeyMap();
+        // 参数索引 -> 预编译的CacheKey表达式(已包含`#i`遍历指令)
+        Map<Integer, CompiledSpel> argIndex2CacheKey = annoHolder.getCacheKeySpelMap();
         // 全局prefix
         String prefix = annoHolder.getPrefix();
 
         // 开始拼装
-
-        // 根据方法获取原始的参数名
-        String[] argNames = ArgNameGenerator.getArgNames(annoHolder.getMethod());
-        // 给参数名添加一个`#i`遍历指令
-        String[] appendArgNames = (String[]) appendArray(argNames, "i");
-
         int i = 0;
         for (Object multiElement : multiArgEntries) {
 
-            // 给参数值数组的`#i`指令赋值
-            Object[] appendArgValues = appendArray(argValues, i);
-
-            String key = doGenerateKey(argIndex2CacheKey, prefix, appendArgNames, appendArgValues);
+            // `#i`指令的值由表达式求值时直接给出, 无需复制参数数组
+            String key = doGenerateKey(argIndex2CacheKey, prefix, argValues, i);
 
             key2MultiEntry.put(key, multiElement);
             multiEntry2Key.put(multiElement, key);
@@ -82,16 +69,15 @@ public class KeyGenerator {
         return new Map[]{multiEntry2Key, key2MultiEntry};
     }
 
-    private static String doGenerateKey(Map<Integer, CacheKey> parameterIndex2CacheKey,
-                                        String prefix, String[] argNames, Object[] argValues) {
+    private static String doGenerateKey(Map<Integer, CompiledSpel> parameterIndex2CacheKey,
+                                        String prefix, Object[] argValues, int index) {
 
         StringBuilder sb = new StringBuilder(prefix);
-        for (Map.Entry<Integer, CacheKey> entry : parameterIndex2CacheKey.entrySet()) {
+        for (Map.Entry<Integer, CompiledSpel> entry : parameterIndex2CacheKey.entrySet()) {
             int argIndex = entry.getKey();
-            String argSpel = entry.getValue().value();
 
             Object defaultValue = getDefaultValue(argValues, argIndex);
-            Object keyPart = SpelCalculator.calcSpelValueWithContext(argSpel, argNames, argValues, defaultValue);
+            Object keyPart = entry.getValue().getValue(argValues, index, defaultValue);
 
             sb.append(keyPart);
 
@@ -129,10 +115,4 @@ public class KeyGenerator {
         }
     }
 
-    private static Object[] appendArray(Object[] origin, Object append) {
-        Object[] dest = Arrays.copyOf(origin, origin.length + 1);
-        dest[origin.length] = append;
-
-        return dest;
-    }
 }
@@ -108,6 +108,24 @@ public class BeanCopier<T> implements Copier<T>, Serializable {
         return new BeanCopier<>(source, dest, destType, copyOptions);
     }
 
+    /**
+     * 获取目标对象需要拷贝属性的类型
+     *
+     * @param bean 目标Bean
+     * @return 限制的类或接口, 未设置时为目标对象的类型
+     */
+    private Class<?> editable(Object bean) {
+        final Class<?> editable = this.copyOptions.editable;
+        if (null == editable) {
+            return bean.getClass();
+        }
+        // 检查限制类是否为target的父类或接口
+        if (false == editable.isInstance(bean)) {
+            throw new IllegalArgumentException(StringKit.format("Target class [{}] not assignable to Editable class [{}]", bean.getClass().getName(), editable.getName()));
+        }
+        return editable;
+    }
+
     /**
      * 获取指定字段名对应的映射值
      *
@@ -152,6 +170,13 @@ public class BeanCopier<T> implements Copier<T>, Serializable {
      * @param destBean     目标Bean
      */
     private void beanToBean(Object providerBean, Object destBean) {
+        if (this.copyOptions.compiled) {
+            final CopyPlan plan = CopyPlan.of(providerBean.getClass(), editable(destBean), this.destType, this.copyOptions);
+            if (null != plan) {
+                plan.copy(providerBean, destBean);
+                return;
+            }
+        }
         valueProviderToBean(new BeanValueProvider(providerBean, this.copyOptions.ignoreCase, this.copyOptions.ignoreError), destBean);
     }
 
@@ -237,14 +262,7 @@ public class BeanCopier<T> implements Copier<T>, Serializable {
         }
 
         final CopyOptions copyOptions = this.copyOptions;
-        Class<?> actualEditable = bean.getClass();
-        if (null != copyOptions.editable) {
-            // 检查限制类是否为target的父类或接口
-            if (false == copyOptions.editable.isInstance(bean)) {
-                throw new IllegalArgumentException(StringKit.format("Target class [{}] not assignable to Editable class [{}]", bean.getClass().getName(), copyOptions.editable.getName()));
-            }
-            actualEditable = copyOptions.editable;
-        }
+        final Class<?> actualEditable = editable(bean);
         final HashSet<String> ignoreSet = (null != copyOptions.ignoreProperties) ? CollKit.newHashSet(copyOptions.ignoreProperties) : null;
         final Map<String, String> fieldReverseMapping = copyOptions.getReversedMapping();
 
@@ -66,6 +66,10 @@ public class CopyOptions {
      * 拷贝属性的字段映射,用于不同的属性之前拷贝做对应表用
      */
     protected Map<String, String> fieldMapping;
+    /**
+     * Bean之间拷贝时是否使用预先生成的拷贝计划,false: 逐属性反射拷贝
+     */
+    protected boolean compiled = true;
 
     /**
      * 构造拷贝选项
@@ -173,6 +177,17 @@ public class CopyOptions {
         return this;
     }
 
+    /**
+     * 设置Bean之间拷贝时是否使用预先生成的拷贝计划
+     *
+     * @param compiled 是否使用拷贝计划,false: 逐属性反射拷贝
+     * @return CopyOptions
+     */
+    public CopyOptions setCompiled(boolean compiled) {
+        this.compiled = compiled;
+        return this;
+    }
+
     /**
      * 获取反转之后的映射
      *
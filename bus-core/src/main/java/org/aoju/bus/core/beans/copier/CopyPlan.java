@@ -0,0 +1,380 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.beans.copier;
+
+import org.aoju.bus.core.beans.BeanDesc;
+import org.aoju.bus.core.convert.Convert;
+import org.aoju.bus.core.lang.Normal;
+import org.aoju.bus.core.lang.SimpleCache;
+import org.aoju.bus.core.lang.Typed;
+import org.aoju.bus.core.lang.Types;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.toolkit.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Bean之间的拷贝计划
+ * <p>
+ * 按(源类型, 目标类型, 拷贝选项)预先解析需要拷贝的属性、泛型参数与读写方法,
+ * 读写方法转为{@link MethodHandle}, 同为基本类型或字符串的属性不再经过{@link Convert};
+ * 每次拷贝只按计划顺序读写, 语义与{@link BeanCopier}逐属性反射的方式一致
+ *
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public final class CopyPlan {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * 无法生成计划时的占位, 此时退回反射方式
+     */
+    private static final CopyPlan UNSUPPORTED = new CopyPlan(new Property[0], false, false);
+
+    /**
+     * 目标类型 -> 计划
+     */
+    private static final SimpleCache<Class<?>, ConcurrentMap<Key, CopyPlan>> PLANS = new SimpleCache<>();
+
+    private final Property[] properties;
+
+    private final boolean ignoreNullValue;
+
+    private final boolean ignoreError;
+
+    private CopyPlan(Property[] properties, boolean ignoreNullValue, boolean ignoreError) {
+        this.properties = properties;
+        this.ignoreNullValue = ignoreNullValue;
+        this.ignoreError = ignoreError;
+    }
+
+    /**
+     * 获取拷贝计划
+     *
+     * @param sourceClass 源Bean类型
+     * @param editable    目标Bean类型(或限制的父类)
+     * @param destType    目标的泛型类型
+     * @param copyOptions 拷贝选项
+     * @return 拷贝计划, 无法生成时返回{@code null}
+     */
+    public static CopyPlan of(Class<?> sourceClass, Class<?> editable, Type destType, CopyOptions copyOptions) {
+        // Types每次构造都是新实例, 按其引用的泛型类型生成计划并作为缓存键
+        Type type = destType instanceof Types ? ((Types<?>) destType).getType() : destType;
+        ConcurrentMap<Key, CopyPlan> plans = PLANS.get(editable, ConcurrentHashMap::new);
+        Key key = new Key(sourceClass, type, copyOptions);
+        CopyPlan plan = plans.get(key);
+        if (null == plan) {
+            plan = create(sourceClass, editable, type, copyOptions);
+            CopyPlan prior = plans.putIfAbsent(key.snapshot(), plan);
+            if (null != prior) {
+                plan = prior;
+            }
+        }
+        return plan == UNSUPPORTED ? null : plan;
+    }
+
+    /**
+     * 按计划拷贝
+     *
+     * @param source 源Bean
+     * @param dest   目标Bean
+     */
+    public void copy(Object source, Object dest) {
+        for (Property property : properties) {
+            Object value = property.read(source, ignoreError);
+            if (null == value && ignoreNullValue) {
+                continue;// 当允许跳过空时，跳过
+            }
+            if (dest == value) {
+                continue;// 值不能为bean本身，防止循环引用
+            }
+
+            try {
+                if (property.convert && false == property.propClass.isInstance(value)) {
+                    value = Convert.convert(property.propClass, value);
+                    if (null == value && ignoreNullValue) {
+                        continue;// 当允许跳过空时，跳过
+                    }
+                }
+                property.write(dest, value);
+            } catch (Exception e) {
+                if (false == ignoreError) {
+                    throw new InstrumentException("Inject [{}] error!", property.fieldName);
+                }
+                // 忽略注入失败
+            }
+        }
+    }
+
+    private static CopyPlan create(Class<?> sourceClass, Class<?> editable, Type destType, CopyOptions copyOptions) {
+        try {
+            final Map<String, BeanDesc.PropDesc> sourcePdMap = BeanKit.getBeanDesc(sourceClass).getPropMap(copyOptions.ignoreCase);
+            final HashSet<String> ignoreSet = (null != copyOptions.ignoreProperties) ? CollKit.newHashSet(copyOptions.ignoreProperties) : null;
+            final Map<String, String> fieldReverseMapping = copyOptions.getReversedMapping();
+
+            List<Property> properties = new ArrayList<>();
+            for (BeanDesc.PropDesc prop : BeanKit.getBeanDesc(editable).getProps()) {
+                final Field field = prop.getField();
+                final String fieldName = prop.getFieldName();
+                if (CollKit.contains(ignoreSet, fieldName)) {
+                    continue;
+                }
+                String providerKey = fieldName;
+                if (MapKit.isNotEmpty(fieldReverseMapping)) {
+                    providerKey = ObjectKit.defaultIfNull(fieldReverseMapping.get(fieldName), fieldName);
+                }
+                final String isKey = StringKit.upperFirstAndAddPre(providerKey, Normal.IS);
+                if (false == sourcePdMap.containsKey(providerKey) && false == sourcePdMap.containsKey(isKey)) {
+                    continue;
+                }
+                final Method setter = prop.getSetter();
+                if (null == setter && false == BeanKit.isPublic(field)) {
+                    continue;
+                }
+
+                final Type valueType = resolveValueType(destType, field, setter);
+                BeanDesc.PropDesc sourcePd = sourcePdMap.get(providerKey);
+                if (null == sourcePd && (Boolean.class == valueType || boolean.class == valueType)) {
+                    sourcePd = sourcePdMap.get(isKey);
+                }
+                final Method getter = null == sourcePd ? null : sourcePd.getGetter();
+                properties.add(new Property(fieldName, providerKey, getter, field, setter, valueType, prop.getFieldClass()));
+            }
+            return new CopyPlan(properties.toArray(new Property[0]), copyOptions.ignoreNullValue, copyOptions.ignoreError);
+        } catch (Exception e) {
+            return UNSUPPORTED;
+        }
+    }
+
+    /**
+     * 目标属性的值类型, 泛型参数解析为真实类型
+     */
+    private static Type resolveValueType(Type destType, Field field, Method setter) {
+        Type valueType = (null == setter) ? TypeKit.getType(field) : TypeKit.getFirstParamType(setter);
+        if (valueType instanceof ParameterizedType) {
+            // 参数为泛型参数类型，解析对应泛型类型为真实类型
+            ParameterizedType tmp = (ParameterizedType) valueType;
+            Type[] actualTypeArguments = tmp.getActualTypeArguments();
+            if (TypeKit.hasTypeVeriable(actualTypeArguments)) {
+                // 泛型对象中含有未被转换的泛型变量
+                actualTypeArguments = TypeKit.getActualTypes(destType, field.getDeclaringClass(), tmp.getActualTypeArguments());
+                if (ArrayKit.isNotEmpty(actualTypeArguments)) {
+                    // 替换泛型变量为实际类型
+                    valueType = new Typed(actualTypeArguments, tmp.getOwnerType(), tmp.getRawType());
+                }
+            }
+        } else if (valueType instanceof TypeVariable) {
+            // 参数为泛型，查找其真实类型(适用于泛型方法定义于泛型父类)
+            valueType = TypeKit.getActualType(destType, field.getDeclaringClass(), valueType);
+        }
+        return valueType;
+    }
+
+    private static boolean isScalar(Type type) {
+        return type instanceof Class && (ClassKit.isBasicType((Class<?>) type) || String.class == type);
+    }
+
+    /**
+     * 单个属性的读写
+     */
+    private static final class Property {
+
+        private final String fieldName;
+
+        private final String providerKey;
+
+        private final MethodHandle getter;
+
+        private final MethodHandle setter;
+
+        private final Type valueType;
+
+        private final Class<?> propClass;
+
+        private final Class<?> paramType;
+
+        private final Object defaultValue;
+
+        /**
+         * 是否需要经过{@link Convert}转换, 源与目标为同一基本类型或字符串时无需转换
+         */
+        private final boolean convert;
+
+        Property(String fieldName, String providerKey, Method getter, Field field, Method setter,
+                 Type valueType, Class<?> propClass) throws IllegalAccessException {
+            this.fieldName = fieldName;
+            this.providerKey = providerKey;
+            this.valueType = valueType;
+            this.propClass = propClass;
+            if (null == getter) {
+                this.getter = null;
+            } else {
+                ReflectKit.setAccessible(getter);
+                this.getter = LOOKUP.unreflect(getter).asType(GETTER_TYPE);
+            }
+            if (null == setter) {
+                ReflectKit.setAccessible(field);
+                this.setter = LOOKUP.unreflectSetter(field).asType(SETTER_TYPE);
+                this.paramType = field.getType();
+            } else {
+                ReflectKit.setAccessible(setter);
+                this.setter = LOOKUP.unreflect(setter).asType(SETTER_TYPE);
+                this.paramType = setter.getParameterTypes()[0];
+            }
+            this.defaultValue = ClassKit.getDefaultValue(paramType);
+            this.convert = false == (null != getter && isScalar(valueType) && valueType == propClass
+                    && ClassKit.primitiveToWrapper(getter.getReturnType()) == ClassKit.primitiveToWrapper(propClass));
+        }
+
+        Object read(Object source, boolean ignoreError) {
+            if (null == getter) {
+                return null;
+            }
+            Object result = null;
+            try {
+                result = (Object) getter.invokeExact(source);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                if (false == ignoreError) {
+                    throw new InstrumentException("Inject [{}] error!", providerKey);
+                }
+            }
+            if (convert) {
+                // 尝试转换为目标类型，失败将返回原类型
+                final Object convertValue = Convert.convertWithCheck(valueType, result, null, ignoreError);
+                if (null != convertValue) {
+                    result = convertValue;
+                }
+            }
+            return result;
+        }
+
+        void write(Object dest, Object value) {
+            if (null == value) {
+                // 获取null对应默认值，防止原始类型造成空指针问题
+                value = defaultValue;
+            } else if (convert && false == paramType.isAssignableFrom(value.getClass())) {
+                //对于类型不同的字段，尝试转换，转换失败则使用原对象类型
+                final Object targetValue = Convert.convert(paramType, value);
+                if (null != targetValue) {
+                    value = targetValue;
+                }
+            }
+            try {
+                setter.invokeExact(dest, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new InstrumentException(e);
+            }
+        }
+
+    }
+
+    /**
+     * 计划的缓存键, 查找时直接引用拷贝选项中的数组与Map, 放入缓存前复制一份
+     */
+    private static final class Key {
+
+        private final Class<?> sourceClass;
+
+        private final Type destType;
+
+        private final boolean ignoreNullValue;
+
+        private final boolean ignoreError;
+
+        private final boolean ignoreCase;
+
+        private final String[] ignoreProperties;
+
+        private final Map<String, String> fieldMapping;
+
+        private final int hash;
+
+        Key(Class<?> sourceClass, Type destType, CopyOptions copyOptions) {
+            this(sourceClass, destType, copyOptions.ignoreNullValue, copyOptions.ignoreError, copyOptions.ignoreCase,
+                    copyOptions.ignoreProperties, copyOptions.fieldMapping);
+        }
+
+        private Key(Class<?> sourceClass, Type destType, boolean ignoreNullValue, boolean ignoreError, boolean ignoreCase,
+                    String[] ignoreProperties, Map<String, String> fieldMapping) {
+            this.sourceClass = sourceClass;
+            this.destType = destType;
+            this.ignoreNullValue = ignoreNullValue;
+            this.ignoreError = ignoreError;
+            this.ignoreCase = ignoreCase;
+            this.ignoreProperties = ignoreProperties;
+            this.fieldMapping = fieldMapping;
+            int result = sourceClass.hashCode();
+            result = 31 * result + Objects.hashCode(destType);
+            result = 31 * result + (ignoreNullValue ? 1 : 0);
+            result = 31 * result + (ignoreError ? 1 : 0);
+            result = 31 * result + (ignoreCase ? 1 : 0);
+            result = 31 * result + Arrays.hashCode(ignoreProperties);
+            this.hash = 31 * result + Objects.hashCode(fieldMapping);
+        }
+
+        Key snapshot() {
+            return new Key(sourceClass, destType, ignoreNullValue, ignoreError, ignoreCase,
+                    null == ignoreProperties ? null : ignoreProperties.clone(),
+                    null == fieldMapping ? null : new HashMap<>(fieldMapping));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return sourceClass == key.sourceClass
+                    && ignoreNullValue == key.ignoreNullValue
+                    && ignoreError == key.ignoreError
+                    && ignoreCase == key.ignoreCase
+                    && Objects.equals(destType, key.destType)
+                    && Arrays.equals(ignoreProperties, key.ignoreProperties)
+                    && Objects.equals(fieldMapping, key.fieldMapping);
+        }
+
+    }
+
+}
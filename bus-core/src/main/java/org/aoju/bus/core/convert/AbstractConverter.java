@@ -41,6 +41,12 @@ import java.util.Map;
  */
 public abstract class AbstractConverter<T> implements Converter<T> {
 
+    /**
+     * 泛型参数解析结果, 转换器实例长期复用, 只解析一次
+     */
+    private Class<T> typeArgument;
+    private volatile boolean typeArgumentResolved;
+
     @Override
     public T convert(Object value, T defaultValue) {
         Class<T> targetType = getTargetType();
@@ -137,7 +143,11 @@ public abstract class AbstractConverter<T> implements Converter<T> {
      * @return 此类的泛型类型, 可能为{@code null}
      */
     public Class<T> getTargetType() {
-        return (Class<T>) ClassKit.getTypeArgument(getClass());
+        if (false == typeArgumentResolved) {
+            typeArgument = (Class<T>) ClassKit.getTypeArgument(getClass());
+            typeArgumentResolved = true;
+        }
+        return typeArgument;
     }
 
 }
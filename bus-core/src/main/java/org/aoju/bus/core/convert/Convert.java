@@ -668,6 +668,19 @@ public class Convert {
         return convertWithCheck(type, value, defaultValue, false);
     }
 
+    /**
+     * 批量转换值为指定类型，适用于CSV、Excel等按列转换的场景
+     *
+     * @param <T>    目标类型
+     * @param type   类型
+     * @param values 值
+     * @return 转换后的值，与值一一对应
+     * @throws InstrumentException 转换器不存在
+     */
+    public static <T> List<T> convertAll(Class<T> type, Collection<?> values) throws InstrumentException {
+        return ConverterRegistry.getInstance().convertAll(type, values, null);
+    }
+
     /**
      * 转换值为指定类型，不抛异常转换
      * 当转换失败时返回{@code null}
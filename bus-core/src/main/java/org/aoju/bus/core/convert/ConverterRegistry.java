@@ -25,6 +25,7 @@
 package org.aoju.bus.core.convert;
 
 import org.aoju.bus.core.date.DateTime;
+import org.aoju.bus.core.lang.SimpleCache;
 import org.aoju.bus.core.lang.Types;
 import org.aoju.bus.core.lang.exception.InstrumentException;
 import org.aoju.bus.core.toolkit.BeanKit;
@@ -69,6 +70,14 @@ public class ConverterRegistry {
      * 用户自定义类型转换器
      */
     private volatile Map<Type, Converter<?>> customConverterMap;
+    /**
+     * 已解析的转换器(自定义转换器优先): 目标类型 -> 被转换值的类型 -> 转换器
+     */
+    private final SimpleCache<Class<?>, SimpleCache<Class<?>, Converter<?>>> customFirstCache = new SimpleCache<>();
+    /**
+     * 已解析的转换器(默认转换器优先): 目标类型 -> 被转换值的类型 -> 转换器
+     */
+    private final SimpleCache<Class<?>, SimpleCache<Class<?>, Converter<?>>> defaultFirstCache = new SimpleCache<>();
 
     public ConverterRegistry() {
         defaultConverter();
@@ -110,6 +119,9 @@ public class ConverterRegistry {
             }
         }
         customConverterMap.put(type, converter);
+        // 自定义转换器可能改变已解析的结果
+        customFirstCache.clear();
+        defaultFirstCache.clear();
         return this;
     }
 
@@ -192,6 +204,11 @@ public class ConverterRegistry {
             return converter.convert(value, defaultValue);
         }
 
+        if (type instanceof Class) {
+            // 目标为具体类时，特殊类型的转换器只取决于目标类型与值的类型，直接使用解析结果
+            return resolve((Class<T>) type, value.getClass(), isCustomFirst).convert(value, defaultValue);
+        }
+
         Class<T> rowType = (Class<T>) TypeKit.getClass(type);
         if (null == rowType) {
             if (null != defaultValue) {
@@ -245,6 +262,148 @@ public class ConverterRegistry {
         return convert(type, value, null);
     }
 
+    /**
+     * 批量转换值为指定类型，适用于CSV、Excel等按列转换的场景
+     * 同一列的值类型通常相同，转换器只在值类型变化时重新查找
+     *
+     * @param <T>           转换的目标类型(转换器转换到的类型)
+     * @param type          类型目标
+     * @param values        被转换值
+     * @param defaultValue  默认值
+     * @param isCustomFirst 是否自定义转换器优先
+     * @return 转换后的值，与被转换值一一对应
+     * @throws InstrumentException 转换器不存在
+     */
+    public <T> List<T> convertAll(Type type, Collection<?> values, T defaultValue, boolean isCustomFirst) throws InstrumentException {
+        if (type instanceof Types) {
+            type = ((Types<?>) type).getType();
+        }
+
+        final List<T> result = new ArrayList<>(values.size());
+        if (false == type instanceof Class) {
+            for (Object value : values) {
+                result.add(convert(type, value, defaultValue, isCustomFirst));
+            }
+            return result;
+        }
+
+        Class<?> valueClass = null;
+        Converter<T> converter = null;
+        for (Object value : values) {
+            if (ObjectKit.isNull(value)) {
+                result.add(defaultValue);
+                continue;
+            }
+            if (value.getClass() != valueClass) {
+                valueClass = value.getClass();
+                converter = resolve((Class<T>) type, valueClass, isCustomFirst);
+            }
+            result.add(converter.convert(value, defaultValue));
+        }
+        return result;
+    }
+
+    /**
+     * 批量转换值为指定类型
+     * 自定义转换器优先
+     *
+     * @param <T>          转换的目标类型(转换器转换到的类型)
+     * @param type         类型目标
+     * @param values       被转换值
+     * @param defaultValue 默认值
+     * @return 转换后的值，与被转换值一一对应
+     * @throws InstrumentException 转换器不存在
+     */
+    public <T> List<T> convertAll(Type type, Collection<?> values, T defaultValue) throws InstrumentException {
+        return convertAll(type, values, defaultValue, true);
+    }
+
+    /**
+     * 获取(目标类型, 值类型)对应的转换器，解析结果会被缓存
+     *
+     * @param <T>           转换的目标类型(转换器转换到的类型)
+     * @param type          目标类型
+     * @param valueClass    被转换值的类型
+     * @param isCustomFirst 是否自定义转换器优先
+     * @return 转换器
+     */
+    private <T> Converter<T> resolve(Class<T> type, Class<?> valueClass, boolean isCustomFirst) {
+        final SimpleCache<Class<?>, SimpleCache<Class<?>, Converter<?>>> cache = isCustomFirst ? customFirstCache : defaultFirstCache;
+        // 先直接查找，命中时不创建lambda
+        SimpleCache<Class<?>, Converter<?>> converters = cache.get(type);
+        if (null == converters) {
+            converters = cache.get(type, SimpleCache::new);
+        }
+        Converter<?> converter = converters.get(valueClass);
+        if (null == converter) {
+            converter = converters.get(valueClass, () -> createConverter(type, valueClass, isCustomFirst));
+        }
+        return (Converter<T>) converter;
+    }
+
+    /**
+     * 按{@link #convert(Type, Object, Object, boolean)}的查找顺序创建转换器
+     *
+     * @param <T>           转换的目标类型(转换器转换到的类型)
+     * @param type          目标类型
+     * @param valueClass    被转换值的类型
+     * @param isCustomFirst 是否自定义转换器优先
+     * @return 转换器
+     */
+    private <T> Converter<T> createConverter(Class<T> type, Class<?> valueClass, boolean isCustomFirst) {
+        // 标准转换器
+        final Converter<T> converter = getConverter(type, isCustomFirst);
+        if (null != converter) {
+            return converter;
+        }
+
+        // 尝试转Bean，否则无法转换
+        final Converter<T> fallback = BeanKit.isBean(type) ? new BeanConverter<>(type) : (value, defaultValue) -> {
+            throw new InstrumentException("No Converter for type [{}]", type.getName());
+        };
+
+        // 特殊类型转换，包括Collection、Map、强转、Array等
+        if (Collection.class.isAssignableFrom(type)) {
+            return orElse((Converter<T>) new CollectionConverter(type), fallback);
+        }
+        if (Map.class.isAssignableFrom(type)) {
+            return orElse((Converter<T>) new MapConverter(type), fallback);
+        }
+        if (type.isAssignableFrom(valueClass)) {
+            return (value, defaultValue) -> (T) value;
+        }
+        if (type.isEnum()) {
+            return orElse((Converter<T>) new EnumConverter(type), fallback);
+        }
+        if (type.isArray()) {
+            final Converter<T> arrayConverter = (Converter<T>) new ArrayConverter(type);
+            return orElse((value, defaultValue) -> {
+                try {
+                    return arrayConverter.convert(value, defaultValue);
+                } catch (Exception e) {
+                    // 数组转换失败进行下一步
+                    return null;
+                }
+            }, fallback);
+        }
+        return fallback;
+    }
+
+    /**
+     * 特殊类型转换结果为{@code null}时继续尝试下一步转换
+     *
+     * @param <T>       转换的目标类型(转换器转换到的类型)
+     * @param converter 转换器
+     * @param fallback  下一步的转换器
+     * @return 转换器
+     */
+    private static <T> Converter<T> orElse(Converter<T> converter, Converter<T> fallback) {
+        return (value, defaultValue) -> {
+            final T result = converter.convert(value, defaultValue);
+            return null == result ? fallback.convert(value, defaultValue) : result;
+        };
+    }
+
     /**
      * 特殊类型转换
      * 包括：
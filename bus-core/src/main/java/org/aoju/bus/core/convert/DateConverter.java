@@ -25,6 +25,7 @@
 package org.aoju.bus.core.convert;
 
 import org.aoju.bus.core.date.DateTime;
+import org.aoju.bus.core.lang.Fields;
 import org.aoju.bus.core.toolkit.DateKit;
 import org.aoju.bus.core.toolkit.StringKit;
 
@@ -101,9 +102,16 @@ public class DateConverter extends AbstractConverter<Date> {
             final String valueStr = convertToStr(value);
             Date date = null;
             try {
-                date = StringKit.isBlank(this.format)
-                        ? DateKit.parse(valueStr)
-                        : DateKit.parse(valueStr, this.format);
+                if (StringKit.isNotBlank(this.format)) {
+                    date = DateKit.parse(valueStr, this.format);
+                } else if (isNorm(valueStr, Fields.NORM_DATETIME_PATTERN)) {
+                    // 标准格式直接解析，无需识别格式及规范化
+                    date = DateKit.parse(valueStr, Fields.NORM_DATETIME_FORMAT);
+                } else if (isNorm(valueStr, Fields.NORM_DATE_PATTERN)) {
+                    date = DateKit.parse(valueStr, Fields.NORM_DATE_FORMAT);
+                } else {
+                    date = DateKit.parse(valueStr);
+                }
             } catch (Exception e) {
                 // Ignore Exception
             }
@@ -133,4 +141,24 @@ public class DateConverter extends AbstractConverter<Date> {
         throw new UnsupportedOperationException(StringKit.format("Unsupport Date type: {}", this.targetType.getName()));
     }
 
+    /**
+     * 是否为指定的标准格式，格式中的字母位置均为数字，其余字符完全一致
+     *
+     * @param value   日期字符串
+     * @param pattern 标准格式，如yyyy-MM-dd HH:mm:ss
+     * @return 是否为标准格式
+     */
+    private static boolean isNorm(String value, String pattern) {
+        if (null == value || value.length() != pattern.length()) {
+            return false;
+        }
+        for (int i = 0; i < pattern.length(); i++) {
+            final char c = value.charAt(i);
+            if (Character.isLetter(pattern.charAt(i)) ? (c < '0' || c > '9') : c != pattern.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
 }
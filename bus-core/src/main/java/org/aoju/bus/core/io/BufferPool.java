@@ -24,6 +24,8 @@
  ********************************************************************************/
 package org.aoju.bus.core.io;
 
+import org.aoju.bus.core.lang.Symbol;
+
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -71,7 +73,58 @@ public class BufferPool {
      */
     public PageBuffer allocateBufferPage() {
         //轮训游标,均衡分配内存页
-        return pageBufferList[cursor.getAndIncrement() % pageBufferList.length];
+        return pageBufferList[(cursor.getAndIncrement() & Integer.MAX_VALUE) % pageBufferList.length];
+    }
+
+    /**
+     * 各内存页已分配的字节数之和
+     *
+     * @return 字节数
+     */
+    public long getUsedBytes() {
+        long usedBytes = 0;
+        for (PageBuffer pageBuffer : pageBufferList) {
+            usedBytes += pageBuffer.getUsedBytes();
+        }
+        return usedBytes;
+    }
+
+    /**
+     * 各内存页空间不足而申请非池化缓冲区的次数之和
+     *
+     * @return 次数
+     */
+    public long getFallbackCount() {
+        long fallbackCount = 0;
+        for (PageBuffer pageBuffer : pageBufferList) {
+            fallbackCount += pageBuffer.getFallbackCount();
+        }
+        return fallbackCount;
+    }
+
+    /**
+     * 各内存页检测到的泄漏数量之和
+     *
+     * @return 数量
+     */
+    public long getLeakCount() {
+        long leakCount = 0;
+        for (PageBuffer pageBuffer : pageBufferList) {
+            leakCount += pageBuffer.getLeakCount();
+        }
+        return leakCount;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("BufferPool{directMemory=").append(PageBuffer.getDirectMemory())
+                .append(", used=").append(getUsedBytes())
+                .append(", fallback=").append(getFallbackCount())
+                .append(", leak=").append(getLeakCount());
+        for (PageBuffer pageBuffer : pageBufferList) {
+            builder.append(Symbol.CRLF).append(pageBuffer);
+        }
+        return builder.append('}').toString();
     }
 
 }
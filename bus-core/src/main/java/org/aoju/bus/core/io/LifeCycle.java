@@ -24,9 +24,18 @@
  ********************************************************************************/
 package org.aoju.bus.core.io;
 
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * 这是避免GC搅动和零填充所必需的
  * 这个池是一个线程安全的静态单例
+ * <p>
+ * 池按线程ID分为多个桶,每个桶是一个独立的链表,取用与回收只在当前线程对应的桶上进行;
+ * 桶头通过{@link AtomicReference#getAndSet(Object)}置为{@link #LOCK}实现互斥,
+ * 桶已被占用时不等待,直接新建(取用)或丢弃(回收).桶内已缓存的字节数记录在桶头的{@link Segment#limit}中
+ * <p>
+ * 池的总容量可通过系统属性{@value #POOL_SIZE_PROPERTY}设置(单位字节),默认每个桶64 KiB
  *
  * @author Kimi Liu
  * @version 5.9.6
@@ -34,39 +43,126 @@ package org.aoju.bus.core.io;
  */
 public final class LifeCycle {
 
-    static final long MAX_SIZE = 64 * 1024;
+    /**
+     * 池总容量的系统属性
+     */
+    public static final String POOL_SIZE_PROPERTY = "bus.io.pool.size";
+
+    /**
+     * 桶的数量,不小于CPU核数的2的幂
+     */
+    static final int HASH_BUCKET_COUNT = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+
+    /**
+     * 每个桶的容量
+     */
+    static final long MAX_SIZE = Math.max(Segment.SIZE,
+            Long.getLong(POOL_SIZE_PROPERTY, 64 * 1024L * HASH_BUCKET_COUNT) / HASH_BUCKET_COUNT);
+
+    /**
+     * 桶被占用的标记
+     */
+    private static final Segment LOCK = new Segment(new byte[0], 0, 0, false, false);
 
-    static Segment next;
+    private static final AtomicReference<Segment>[] HASH_BUCKETS = new AtomicReference[HASH_BUCKET_COUNT];
 
-    static long byteCount;
+    private static final LongAdder HIT_COUNT = new LongAdder();
+
+    private static final LongAdder MISS_COUNT = new LongAdder();
+
+    static {
+        for (int i = 0; i < HASH_BUCKET_COUNT; i++) {
+            HASH_BUCKETS[i] = new AtomicReference<>();
+        }
+    }
 
     private LifeCycle() {
 
     }
 
     public static Segment take() {
-        synchronized (LifeCycle.class) {
-            if (next != null) {
-                Segment result = next;
-                next = result.next;
-                result.next = null;
-                byteCount -= Segment.SIZE;
-                return result;
-            }
+        final AtomicReference<Segment> firstRef = firstRef();
+
+        final Segment first = firstRef.getAndSet(LOCK);
+        if (first == LOCK) {
+            // 桶正在被其它线程使用,不等待
+            MISS_COUNT.increment();
+            return new Segment();
         }
-        return new Segment();
+        if (first == null) {
+            firstRef.set(null);
+            MISS_COUNT.increment();
+            return new Segment();
+        }
+
+        firstRef.set(first.next);
+        first.next = null;
+        first.limit = 0;
+        HIT_COUNT.increment();
+        return first;
     }
 
     public static void recycle(Segment segment) {
         if (segment.next != null || segment.prev != null) throw new IllegalArgumentException();
         if (segment.shared) return;
-        synchronized (LifeCycle.class) {
-            if (byteCount + Segment.SIZE > MAX_SIZE) return;
-            byteCount += Segment.SIZE;
-            segment.next = next;
-            segment.pos = segment.limit = 0;
-            next = segment;
+
+        final AtomicReference<Segment> firstRef = firstRef();
+
+        final Segment first = firstRef.getAndSet(LOCK);
+        if (first == LOCK) {
+            // 桶正在被其它线程使用,直接丢弃
+            return;
+        }
+        final int firstLimit = null == first ? 0 : first.limit;
+        if (firstLimit >= MAX_SIZE) {
+            firstRef.set(first);
+            return;
+        }
+
+        segment.next = first;
+        segment.pos = 0;
+        segment.limit = firstLimit + Segment.SIZE;
+        firstRef.set(segment);
+    }
+
+    /**
+     * 池中缓存的字节数,并发场景下为近似值
+     *
+     * @return 字节数
+     */
+    public static long getByteCount() {
+        long byteCount = 0;
+        for (AtomicReference<Segment> bucket : HASH_BUCKETS) {
+            final Segment first = bucket.get();
+            if (null != first && first != LOCK) {
+                byteCount += first.limit;
+            }
         }
+        return byteCount;
+    }
+
+    /**
+     * 从池中取到片段的次数
+     *
+     * @return 次数
+     */
+    public static long getHitCount() {
+        return HIT_COUNT.sum();
+    }
+
+    /**
+     * 池中无可用片段而新建的次数
+     *
+     * @return 次数
+     */
+    public static long getMissCount() {
+        return MISS_COUNT.sum();
+    }
+
+    private static AtomicReference<Segment> firstRef() {
+        // 线程ID相对固定,同一线程总是落在同一个桶中
+        final int index = (int) (Thread.currentThread().getId() & (HASH_BUCKET_COUNT - 1L));
+        return HASH_BUCKETS[index];
     }
 
 }
@@ -24,17 +24,29 @@
  ********************************************************************************/
 package org.aoju.bus.core.io;
 
-import org.aoju.bus.core.lang.Normal;
+import org.aoju.bus.core.lang.Console;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.nio.ByteBuffer;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * ByteBuffer内存页
+ * <p>
+ * 内存页按伙伴算法管理,最小块为{@value #MIN_SIZE}字节,申请的空间向上取整到2的幂;
+ * 各阶空闲块以双向链表串联,申请与释放(含合并)的开销只与阶数有关.
+ * 回收的块先放入按线程分桶的各阶回收栈,再次申请同阶空间时直接复用,不加锁;
+ * 回收栈中的块在页内空间不足或空闲时由定时任务归还伙伴链表并合并
+ * <p>
+ * 页内空间不足时退化为非池化的堆内缓冲区,次数见{@link #getFallbackCount()};
+ * 系统属性{@value #LEAK_SAMPLING_PROPERTY}设置泄漏检测的采样间隔,默认每1024次申请检测1次,0表示关闭
  *
  * @author Kimi Liu
  * @version 5.9.6
@@ -43,20 +55,62 @@ import java.util.concurrent.locks.ReentrantLock;
 public class PageBuffer {
 
     /**
-     * 当前空闲的虚拟Buffer
+     * 泄漏检测采样间隔的系统属性
      */
-    private List<VirtualBuffer> availableBuffers;
+    public static final String LEAK_SAMPLING_PROPERTY = "bus.io.pool.leakSampling";
+
+    private static final int MIN_SHIFT = 8;
+
+    /**
+     * 最小块
+     */
+    private static final int MIN_SIZE = 1 << MIN_SHIFT;
+
+    private static final int LEAK_SAMPLING = Integer.getInteger(LEAK_SAMPLING_PROPERTY, 1024);
+
+    /**
+     * 回收栈被占用的标记
+     */
+    private static final VirtualBuffer LOCK = new VirtualBuffer(null, null, 0, 0);
+
     /**
-     * 待回收的虚拟Buffer
+     * 全部内存页占用的堆外内存
      */
-    private ConcurrentLinkedQueue<VirtualBuffer> cleanBuffers = new ConcurrentLinkedQueue<>();
+    private static final AtomicLong DIRECT_MEMORY = new AtomicLong();
 
     /**
      * 当前缓存页的物理缓冲区
      */
-    private ByteBuffer buffer;
-    private ReentrantLock lock = new ReentrantLock();
+    private final ByteBuffer buffer;
+    private final boolean direct;
+    /**
+     * 伙伴算法管理的最小块数量
+     */
+    private final int units;
+    private final int maxOrder;
+    /**
+     * 各阶空闲链表的头部,-1表示为空
+     */
+    private final int[] heads;
+    private final int[] prev;
+    private final int[] next;
+    /**
+     * 以空闲块起始位置为下标,值为阶数+1,0表示不是空闲块的起始位置
+     */
+    private final byte[] free;
+    /**
+     * 各阶回收栈,下标为 桶 * 阶数 + 阶
+     */
+    private final AtomicReferenceArray<VirtualBuffer> recycled;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final LongAdder usedBytes = new LongAdder();
+    private final LongAdder fallbackCount = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+    private final Set<Leak> leaks = ConcurrentHashMap.newKeySet();
+    private final ReferenceQueue<VirtualBuffer> leakQueue = new ReferenceQueue<>();
 
+    private int sampling;
     private long lastAllocateTime;
 
     /**
@@ -64,9 +118,36 @@ public class PageBuffer {
      * @param direct 是否使用堆外内存
      */
     PageBuffer(int size, boolean direct) {
-        availableBuffers = new LinkedList<>();
         this.buffer = allocate0(size, direct);
-        availableBuffers.add(new VirtualBuffer(this, null, buffer.position(), buffer.limit()));
+        this.direct = direct;
+        if (direct) {
+            DIRECT_MEMORY.addAndGet(size);
+        }
+        this.units = size >>> MIN_SHIFT;
+        this.maxOrder = 31 - Integer.numberOfLeadingZeros(units);
+        this.heads = new int[maxOrder + 1];
+        this.prev = new int[units];
+        this.next = new int[units];
+        this.free = new byte[units];
+        this.recycled = new AtomicReferenceArray<>(LifeCycle.HASH_BUCKET_COUNT * (maxOrder + 1));
+        Arrays.fill(heads, -1);
+        // 按2的幂从大到小切分,保证每个块都按自身大小对齐
+        int unit = 0;
+        for (int order = maxOrder; order >= 0; order--) {
+            if (units - unit >= 1 << order) {
+                insert(unit, order);
+                unit += 1 << order;
+            }
+        }
+    }
+
+    /**
+     * 全部内存页占用的堆外内存
+     *
+     * @return 字节数
+     */
+    public static long getDirectMemory() {
+        return DIRECT_MEMORY.get();
     }
 
     /**
@@ -82,116 +163,273 @@ public class PageBuffer {
 
     public VirtualBuffer allocate(final int size) {
         lastAllocateTime = System.currentTimeMillis();
-        VirtualBuffer cleanBuffer = cleanBuffers.poll();
-        if (cleanBuffer != null && cleanBuffer.getParentLimit() - cleanBuffer.getParentPosition() >= size) {
-            cleanBuffer.buffer().clear();
-            cleanBuffer.buffer(cleanBuffer.buffer());
-            return cleanBuffer;
-        }
-        lock.lock();
-        try {
-            if (cleanBuffer != null) {
-                clean0(cleanBuffer);
+        final int order = size <= MIN_SIZE ? 0 : 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SHIFT;
+        if (order <= maxOrder) {
+            VirtualBuffer virtualBuffer = pop(order);
+            if (null == virtualBuffer) {
+                virtualBuffer = allocate1(order);
             }
-            while ((cleanBuffer = cleanBuffers.poll()) != null) {
-                if (cleanBuffer.getParentLimit() - cleanBuffer.getParentPosition() >= size) {
-                    cleanBuffer.buffer().clear();
-                    cleanBuffer.buffer(cleanBuffer.buffer());
-                    return cleanBuffer;
+            if (null != virtualBuffer) {
+                ByteBuffer byteBuffer = virtualBuffer.buffer();
+                if (null != byteBuffer && byteBuffer.capacity() == size) {
+                    byteBuffer.clear();
                 } else {
-                    clean0(cleanBuffer);
-                }
-            }
-            Iterator<VirtualBuffer> iterator = availableBuffers.iterator();
-            VirtualBuffer bufferChunk;
-            while (iterator.hasNext()) {
-                VirtualBuffer freeChunk = iterator.next();
-                final int remaining = freeChunk.getParentLimit() - freeChunk.getParentPosition();
-                if (remaining < size) {
-                    continue;
+                    byteBuffer = slice(virtualBuffer.getParentPosition(), size);
                 }
-                if (remaining == size) {
-                    iterator.remove();
-                    buffer.limit(freeChunk.getParentLimit());
-                    buffer.position(freeChunk.getParentPosition());
-                    freeChunk.buffer(buffer.slice());
-                    bufferChunk = freeChunk;
-                } else {
-                    buffer.limit(freeChunk.getParentPosition() + size);
-                    buffer.position(freeChunk.getParentPosition());
-                    bufferChunk = new VirtualBuffer(this, buffer.slice(), buffer.position(), buffer.limit());
-                    freeChunk.setParentPosition(buffer.limit());
+                virtualBuffer.buffer(byteBuffer);
+                usedBytes.add(MIN_SIZE << order);
+                if (LEAK_SAMPLING > 0 && ++sampling % LEAK_SAMPLING == 0) {
+                    virtualBuffer.leak = new Leak(virtualBuffer, leakQueue);
+                    leaks.add(virtualBuffer.leak);
                 }
-                if (bufferChunk.buffer().remaining() != size) {
-                    throw new RuntimeException("allocate " + size + ", buffer:" + bufferChunk);
-                }
-                return bufferChunk;
+                return virtualBuffer;
+            }
+        }
+        fallbackCount.increment();
+        return new VirtualBuffer(null, allocate0(size, false), 0, 0);
+    }
+
+    /**
+     * 从伙伴链表申请,空间不足时先合并回收栈中的块
+     *
+     * @param order 阶
+     * @return 虚拟缓冲区, 空间不足时返回null
+     */
+    private VirtualBuffer allocate1(int order) {
+        lock.lock();
+        try {
+            int unit = take(order);
+            if (unit < 0) {
+                drain();
+                unit = take(order);
+            }
+            if (unit < 0) {
+                return null;
             }
+            final int position = unit << MIN_SHIFT;
+            return new VirtualBuffer(this, null, position, position + (MIN_SIZE << order));
         } finally {
             lock.unlock();
         }
-        return new VirtualBuffer(null, allocate0(size, false), 0, 0);
+    }
+
+    private ByteBuffer slice(int position, int size) {
+        ByteBuffer byteBuffer = buffer.duplicate();
+        byteBuffer.limit(position + size);
+        byteBuffer.position(position);
+        return byteBuffer.slice();
     }
 
     void clean(VirtualBuffer cleanBuffer) {
-        if (cleanBuffers.offer(cleanBuffer)) {
+        if (null != cleanBuffer.leak) {
+            leaks.remove(cleanBuffer.leak);
+            cleanBuffer.leak.clear();
+            cleanBuffer.leak = null;
+        }
+        final int order = Integer.numberOfTrailingZeros(cleanBuffer.getParentLimit() - cleanBuffer.getParentPosition()) - MIN_SHIFT;
+        usedBytes.add(-(MIN_SIZE << order));
+        if (push(order, cleanBuffer)) {
             return;
         }
         lock.lock();
         try {
-            clean0(cleanBuffer);
+            release(cleanBuffer.getParentPosition() >>> MIN_SHIFT, order);
         } finally {
             lock.unlock();
         }
     }
 
     void tryClean() {
+        Leak leak;
+        while ((leak = (Leak) leakQueue.poll()) != null) {
+            if (leaks.remove(leak)) {
+                leakCount.increment();
+                Console.error(leak.trace, "VirtualBuffer was not cleaned before being garbage collected, {} bytes of PageBuffer leaked", leak.size);
+            }
+        }
         if (System.currentTimeMillis() - lastAllocateTime < 1000 || !lock.tryLock()) {
             return;
         }
         try {
-            VirtualBuffer cleanBuffer;
-            while ((cleanBuffer = cleanBuffers.poll()) != null) {
-                clean0(cleanBuffer);
-            }
+            drain();
         } finally {
             lock.unlock();
         }
+    }
+
+    /**
+     * 已分配的字节数,并发场景下为近似值
+     *
+     * @return 字节数
+     */
+    public long getUsedBytes() {
+        return usedBytes.sum();
+    }
+
+    /**
+     * 内存页空间不足而申请非池化缓冲区的次数
+     *
+     * @return 次数
+     */
+    public long getFallbackCount() {
+        return fallbackCount.sum();
+    }
+
+    /**
+     * 检测到的未回收就被GC的虚拟缓冲区数量
+     *
+     * @return 数量
+     */
+    public long getLeakCount() {
+        return leakCount.sum();
+    }
+
+    public int getCapacity() {
+        return buffer.capacity();
+    }
+
+    public boolean isDirect() {
+        return direct;
+    }
+
+    private int bucket(int order) {
+        return ((int) Thread.currentThread().getId() & (LifeCycle.HASH_BUCKET_COUNT - 1)) * (maxOrder + 1) + order;
+    }
+
+    private VirtualBuffer pop(int order) {
+        final int index = bucket(order);
+        final VirtualBuffer first = recycled.getAndSet(index, LOCK);
+        if (first == LOCK) {
+            return null;
+        }
+        if (first == null) {
+            recycled.set(index, null);
+            return null;
+        }
+        recycled.set(index, first.next);
+        first.next = null;
+        return first;
+    }
 
+    private boolean push(int order, VirtualBuffer virtualBuffer) {
+        final int index = bucket(order);
+        final VirtualBuffer first = recycled.getAndSet(index, LOCK);
+        if (first == LOCK) {
+            return false;
+        }
+        virtualBuffer.next = first;
+        recycled.set(index, virtualBuffer);
+        return true;
     }
 
-    private void clean0(VirtualBuffer cleanBuffer) {
-        int index = 0;
-        Iterator<VirtualBuffer> iterator = availableBuffers.iterator();
-        while (iterator.hasNext()) {
-            VirtualBuffer freeBuffer = iterator.next();
-            //cleanBuffer在freeBuffer之前并且形成连续块
-            if (freeBuffer.getParentPosition() == cleanBuffer.getParentLimit()) {
-                freeBuffer.setParentPosition(cleanBuffer.getParentPosition());
-                return;
+    /**
+     * 将回收栈中的块归还伙伴链表,需持有锁
+     */
+    private void drain() {
+        for (int index = 0; index < recycled.length(); index++) {
+            VirtualBuffer first = recycled.getAndSet(index, LOCK);
+            if (first == LOCK) {
+                continue;
             }
-            //cleanBuffer与freeBuffer之后并形成连续块
-            if (freeBuffer.getParentLimit() == cleanBuffer.getParentPosition()) {
-                freeBuffer.setParentLimit(cleanBuffer.getParentLimit());
-                //判断后一个是否连续
-                if (iterator.hasNext()) {
-                    VirtualBuffer next = iterator.next();
-                    if (next.getParentPosition() == freeBuffer.getParentLimit()) {
-                        freeBuffer.setParentLimit(next.getParentLimit());
-                        iterator.remove();
-                    } else if (next.getParentPosition() < freeBuffer.getParentLimit()) {
-                        throw new IllegalStateException(Normal.EMPTY);
-                    }
-                }
-                return;
+            recycled.set(index, null);
+            final int order = index % (maxOrder + 1);
+            while (first != null) {
+                VirtualBuffer virtualBuffer = first;
+                first = virtualBuffer.next;
+                virtualBuffer.next = null;
+                release(virtualBuffer.getParentPosition() >>> MIN_SHIFT, order);
+            }
+        }
+    }
+
+    /**
+     * 申请指定阶的块,必要时拆分更高阶的块,需持有锁
+     *
+     * @param order 阶
+     * @return 块的起始位置, 空间不足时返回-1
+     */
+    private int take(int order) {
+        for (int i = order; i <= maxOrder; i++) {
+            final int unit = heads[i];
+            if (unit < 0) {
+                continue;
             }
-            if (freeBuffer.getParentPosition() > cleanBuffer.getParentLimit()) {
-                availableBuffers.add(index, cleanBuffer);
-                return;
+            remove(unit, i);
+            while (i > order) {
+                i--;
+                insert(unit + (1 << i), i);
+            }
+            return unit;
+        }
+        return -1;
+    }
+
+    /**
+     * 释放块并与空闲的伙伴块合并,需持有锁
+     *
+     * @param unit  块的起始位置
+     * @param order 阶
+     */
+    private void release(int unit, int order) {
+        while (order < maxOrder) {
+            final int buddy = unit ^ (1 << order);
+            final int merged = unit & ~(1 << order);
+            if (merged + (2 << order) > units || free[buddy] != order + 1) {
+                break;
             }
-            index++;
+            remove(buddy, order);
+            unit = merged;
+            order++;
+        }
+        insert(unit, order);
+    }
+
+    private void insert(int unit, int order) {
+        free[unit] = (byte) (order + 1);
+        prev[unit] = -1;
+        next[unit] = heads[order];
+        if (heads[order] >= 0) {
+            prev[heads[order]] = unit;
         }
-        availableBuffers.add(cleanBuffer);
+        heads[order] = unit;
+    }
+
+    private void remove(int unit, int order) {
+        free[unit] = 0;
+        if (prev[unit] >= 0) {
+            next[prev[unit]] = next[unit];
+        } else {
+            heads[order] = next[unit];
+        }
+        if (next[unit] >= 0) {
+            prev[next[unit]] = prev[unit];
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PageBuffer{capacity=" + buffer.capacity()
+                + ", direct=" + direct
+                + ", used=" + getUsedBytes()
+                + ", fallback=" + getFallbackCount()
+                + ", leak=" + getLeakCount()
+                + '}';
+    }
+
+    /**
+     * 被采样的虚拟缓冲区,被GC时仍未回收即为泄漏
+     */
+    static final class Leak extends WeakReference<VirtualBuffer> {
+
+        private final int size;
+        private final Throwable trace;
+
+        Leak(VirtualBuffer referent, ReferenceQueue<VirtualBuffer> queue) {
+            super(referent, queue);
+            this.size = referent.getParentLimit() - referent.getParentPosition();
+            this.trace = new Throwable("VirtualBuffer allocated at");
+        }
+
     }
 
 }
@@ -24,211 +24,318 @@
  ********************************************************************************/
 package org.aoju.bus.core.io;
 
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
+ * 无锁环形缓冲区
+ * <p>
+ * 事件对象在创建时由{@link EventFactory}预先分配,之后循环复用;
+ * 每个槽位记录一个序号: 等于写序号时可写,等于写序号+1时可读,
+ * 读取完成后置为写序号+容量,供下一轮写入.生产者与消费者分别在各自的{@link Sequence}上CAS申请位置,
+ * 申请到的槽位由申请方独占,发布后才对另一方可见,因此读写均无需加锁,且允许乱序发布.
+ * <p>
+ * 申请失败时按{@link WaitStrategy}等待,单生产者时写序号无需CAS.
+ * 除按下标读写的方法外,还提供按序号批量申请与发布的方法,序号为单调递增的long值
+ *
  * @author Kimi Liu
  * @version 5.9.6
  * @since JDK 1.8+
  */
 public final class RingBuffer<T> {
 
-    private static final byte READABLE = 1, READING = 1 << 1, WRITEABLE = 1 << 2, WRITING = 1 << 3;
     /**
-     * 排队的项目
+     * 预分配的事件
      */
-    private final Node<T>[] items;
+    private final Object[] entries;
     /**
-     * 主锁保护所有入口
+     * 各槽位的序号
      */
-    private final ReentrantLock lock;
+    private final AtomicLongArray sequences;
     /**
-     * 等待条件
+     * 容量
      */
-    private final Condition notEmpty;
+    private final int capacity;
     /**
-     * 等待权条件
+     * 下一个可申请的写序号
      */
-    private final Condition notFull;
+    private final Sequence writeSequence = new Sequence();
     /**
-     * 项目索引为下一次采取，投票删除
+     * 下一个可申请的读序号
      */
-    private int takeIndex;
+    private final Sequence readSequence = new Sequence();
     /**
-     * 项目索引的下一个出售，出价，或增加
+     * 是否只有一个生产者
      */
-    private int putIndex;
-    private volatile boolean needFullSingle = false;
+    private final boolean singleProducer;
 
-    private volatile boolean needEmptySingle = false;
+    private final WaitStrategy waitStrategy;
 
-    private EventFactory<T> eventFactory;
+    private final EventFactory<T> eventFactory;
 
+    /**
+     * 构造,多生产者,等待时挂起线程
+     *
+     * @param capacity 容量, 不小于2
+     * @param factory  事件工厂
+     */
     public RingBuffer(int capacity, EventFactory<T> factory) {
-        if (capacity <= 0)
-            throw new IllegalArgumentException();
-        this.items = new Node[capacity];
-        lock = new ReentrantLock(false);
-        notEmpty = lock.newCondition();
-        notFull = lock.newCondition();
+        this(capacity, factory, ProducerType.MULTI, new WaitStrategy.Parking());
+    }
+
+    /**
+     * 构造
+     *
+     * @param capacity     容量, 不小于2; 发布时槽位序号置为{@code sequence + 1}(可读),
+     *                     读取方释放时置为{@code sequence + capacity}(可写);
+     *                     容量为1时两者相同, 已发布未读取的槽位会被生产者当作可写而覆盖
+     * @param factory      事件工厂
+     * @param producerType 生产者类型
+     * @param waitStrategy 等待策略
+     */
+    public RingBuffer(int capacity, EventFactory<T> factory, ProducerType producerType, WaitStrategy waitStrategy) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("capacity must be >= 2");
+        }
+        this.capacity = capacity;
+        this.entries = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            entries[i] = factory.newInstance();
+            sequences.lazySet(i, i);
+        }
         this.eventFactory = factory;
+        this.singleProducer = ProducerType.SINGLE == producerType;
+        this.waitStrategy = waitStrategy;
     }
 
     public int nextWriteIndex() throws InterruptedException {
-        final ReentrantLock lock = this.lock;
-        lock.lockInterruptibly();
-        try {
-            notFullSignal();
-            final Node<T>[] items = this.items;
-            Node<T> node = items[putIndex];
-            if (node == null) {
-                node = new Node<>(eventFactory.newInstance());
-                node.status = WRITEABLE;
-                items[putIndex] = node;
-            }
-            while (node.status != WRITEABLE) {
-                notFull.await();
-                notFullSignal();
-                node = items[putIndex];
-            }
+        return index(next(1));
+    }
+
+    public int tryNextWriteIndex() {
+        final long sequence = tryNext(1);
+        return sequence < 0 ? -1 : index(sequence);
+    }
+
+    public void publishWriteIndex(int index) {
+        // 槽位被写入方独占,其序号即申请到的写序号
+        publish(sequences.get(index));
+    }
+
+    public T get(int index) {
+        return (T) entries[index];
+    }
+
+    public int nextReadIndex() throws InterruptedException {
+        return index(nextRead(1));
+    }
 
-            node.status = WRITING;
-            int index = putIndex;
-            if (++putIndex == items.length)
-                putIndex = 0;
-            return index;
-        } finally {
-            lock.unlock();
+    public int tryNextReadIndex() {
+        final long sequence = tryNextRead(1);
+        return sequence < 0 ? -1 : index(sequence);
+    }
+
+    public void publishReadIndex(int index) {
+        // 槽位被读取方独占,其序号为申请到的读序号+1
+        release(sequences.get(index) - 1);
+    }
+
+    /**
+     * 申请连续的n个写序号,空间不足时等待
+     *
+     * @param n 数量
+     * @return 第一个序号
+     * @throws InterruptedException 等待时线程被中断
+     */
+    public long next(int n) throws InterruptedException {
+        long sequence = tryNext(n);
+        int counter = 0;
+        while (sequence < 0) {
+            waitStrategy.idle(counter++, () -> isReady(writeSequence.get(), n, 0));
+            sequence = tryNext(n);
         }
+        return sequence;
     }
 
-    public int tryNextWriteIndex() throws InterruptedException {
-        final ReentrantLock lock = this.lock;
-        lock.lockInterruptibly();
-        try {
-            notFullSignal();
-            final Node<T>[] items = this.items;
-            Node<T> node = items[putIndex];
-            if (node == null) {
-                node = new Node<>(eventFactory.newInstance());
-                node.status = WRITEABLE;
-                items[putIndex] = node;
-            }
-            if (node.status != WRITEABLE) {
+    /**
+     * 尝试申请连续的n个写序号
+     *
+     * @param n 数量
+     * @return 第一个序号,空间不足时返回-1
+     */
+    public long tryNext(int n) {
+        checkBatchSize(n);
+        while (true) {
+            final long current = writeSequence.get();
+            final int state = claimable(current, n, 0);
+            if (state < 0) {
                 return -1;
             }
-
-            node.status = WRITING;
-            int index = putIndex;
-            if (++putIndex == items.length)
-                putIndex = 0;
-            return index;
-        } finally {
-            lock.unlock();
+            if (state > 0) {
+                // 其它生产者已申请,重新读取
+                continue;
+            }
+            if (singleProducer) {
+                writeSequence.lazySet(current + n);
+                return current;
+            }
+            if (writeSequence.compareAndSet(current, current + n)) {
+                return current;
+            }
         }
     }
 
-    public void publishWriteIndex(int sequence) {
-        Node<T> node = items[sequence];
-        if (node.status != WRITING) {
-            throw new RuntimeException("invalid status");
-        }
-        node.status = READABLE;
-        final ReentrantLock lock = this.lock;
-        needEmptySingle = true;
-        if (lock.tryLock()) {
-            try {
-                notFullSignal();
-            } finally {
-                lock.unlock();
-            }
+    /**
+     * 发布单个写序号
+     *
+     * @param sequence 序号
+     */
+    public void publish(long sequence) {
+        publish(sequence, sequence);
+    }
+
+    /**
+     * 发布一段写序号,发布后事件对消费者可见
+     *
+     * @param lo 第一个序号
+     * @param hi 最后一个序号
+     */
+    public void publish(long lo, long hi) {
+        for (long sequence = lo; sequence <= hi; sequence++) {
+            sequences.set(index(sequence), sequence + 1);
         }
+        waitStrategy.signalAll();
     }
 
-    public T get(int sequence) {
-        return items[sequence].entity;
+    /**
+     * 申请连续的n个读序号,事件不足时等待
+     *
+     * @param n 数量
+     * @return 第一个序号
+     * @throws InterruptedException 等待时线程被中断
+     */
+    public long nextRead(int n) throws InterruptedException {
+        long sequence = tryNextRead(n);
+        int counter = 0;
+        while (sequence < 0) {
+            waitStrategy.idle(counter++, () -> isReady(readSequence.get(), n, 1));
+            sequence = tryNextRead(n);
+        }
+        return sequence;
     }
 
-    public int tryNextReadIndex() {
-        final ReentrantLock lock = this.lock;
-        lock.lock();
-        try {
-            notFullSignal();
-            final Node[] items = this.items;
-            Node x = items[takeIndex];
-            if (x == null || x.status != READABLE) {
+    /**
+     * 尝试申请连续的n个读序号
+     *
+     * @param n 数量
+     * @return 第一个序号,事件不足时返回-1
+     */
+    public long tryNextRead(int n) {
+        checkBatchSize(n);
+        while (true) {
+            final long current = readSequence.get();
+            final int state = claimable(current, n, 1);
+            if (state < 0) {
                 return -1;
             }
-            x.status = READING;
-            int index = takeIndex;
-            if (++takeIndex == items.length)
-                takeIndex = 0;
-            return index;
-        } finally {
-            lock.unlock();
+            if (state == 0 && readSequence.compareAndSet(current, current + n)) {
+                return current;
+            }
         }
     }
 
-    public int nextReadIndex() throws InterruptedException {
-        final ReentrantLock lock = this.lock;
-        lock.lockInterruptibly();
-        try {
-            notFullSignal();
-            final Node[] items = this.items;
-            Node x = items[takeIndex];
-            while (x == null || x.status != READABLE) {
-                notEmpty.await();
-                notFullSignal();
-                x = items[takeIndex];
-            }
-            x.status = READING;
-            int index = takeIndex;
-            if (++takeIndex == items.length)
-                takeIndex = 0;
-            return index;
-        } finally {
-            lock.unlock();
-        }
+    /**
+     * 释放单个读序号
+     *
+     * @param sequence 序号
+     */
+    public void release(long sequence) {
+        release(sequence, sequence);
     }
 
-    private void notFullSignal() {
-        if (needFullSingle) {
-            notFull.signal();
-            needFullSingle = false;
-        }
-        if (needEmptySingle) {
-            notEmpty.signal();
-            needEmptySingle = false;
+    /**
+     * 释放一段读序号,重置事件后槽位可再次写入
+     *
+     * @param lo 第一个序号
+     * @param hi 最后一个序号
+     */
+    public void release(long lo, long hi) {
+        for (long sequence = lo; sequence <= hi; sequence++) {
+            final int index = index(sequence);
+            eventFactory.restEntity((T) entries[index]);
+            sequences.set(index, sequence + capacity);
         }
+        waitStrategy.signalAll();
     }
 
-    public void publishReadIndex(int sequence) {
-        Node<T> node = items[sequence];
-        if (node.status != READING) {
-            throw new RuntimeException("invalid status");
-        }
-        eventFactory.restEntity(node.entity);
-        node.status = WRITEABLE;
-        final ReentrantLock lock = this.lock;
-        needFullSingle = true;
-        if (lock.tryLock()) {
-            try {
-                notFullSignal();
-            } finally {
-                lock.unlock();
+    /**
+     * 获取序号对应的事件
+     *
+     * @param sequence 序号
+     * @return 事件
+     */
+    public T get(long sequence) {
+        return (T) entries[index(sequence)];
+    }
+
+    /**
+     * 已发布但尚未被申请读取的事件数,并发场景下为近似值
+     *
+     * @return 事件数
+     */
+    public int readable() {
+        return (int) Math.max(0, writeSequence.get() - readSequence.get());
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    /**
+     * 检查从current开始的n个槽位能否申请
+     *
+     * @param current 起始序号
+     * @param n       数量
+     * @param offset  写为0,读为1
+     * @return 0: 可申请, 小于0: 空间或事件不足, 大于0: 起始序号已被其它线程申请
+     */
+    private int claimable(long current, int n, int offset) {
+        for (int i = 0; i < n; i++) {
+            final long expected = current + i + offset;
+            final long diff = sequences.get(index(current + i)) - expected;
+            if (diff != 0) {
+                return diff < 0 ? -1 : 1;
             }
         }
+        return 0;
     }
 
-    class Node<T1> {
-
-        byte status;
-        T1 entity;
+    private boolean isReady(long current, int n, int offset) {
+        return claimable(current, n, offset) >= 0;
+    }
 
-        Node(T1 entity) {
-            this.entity = entity;
+    private void checkBatchSize(int n) {
+        if (n < 1 || n > capacity) {
+            throw new IllegalArgumentException("n must be > 0 and <= " + capacity);
         }
     }
 
+    /**
+     * 生产者类型
+     */
+    public enum ProducerType {
+        /**
+         * 只有一个线程写入,申请写序号时无需CAS
+         */
+        SINGLE,
+        /**
+         * 多个线程写入
+         */
+        MULTI
+    }
+
 }
@@ -0,0 +1,96 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.io;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * 左侧填充,避免与前面的对象共享缓存行
+ */
+abstract class LhsPadding {
+    protected long p1, p2, p3, p4, p5, p6, p7;
+}
+
+/**
+ * 序号值
+ */
+abstract class Value extends LhsPadding {
+    protected volatile long value;
+}
+
+/**
+ * 右侧填充,避免与后面的对象共享缓存行
+ */
+abstract class RhsPadding extends Value {
+    protected long p9, p10, p11, p12, p13, p14, p15;
+}
+
+/**
+ * 独占缓存行的序号,支持CAS更新
+ * 生产者与消费者各自的序号分别位于不同的缓存行,互相修改时不会造成伪共享
+ *
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public class Sequence extends RhsPadding {
+
+    private static final AtomicLongFieldUpdater<Value> UPDATER = AtomicLongFieldUpdater.newUpdater(Value.class, "value");
+
+    public Sequence() {
+        this(0);
+    }
+
+    public Sequence(long initialValue) {
+        UPDATER.lazySet(this, initialValue);
+    }
+
+    public long get() {
+        return value;
+    }
+
+    public void set(long value) {
+        this.value = value;
+    }
+
+    /**
+     * 有序写入,不保证立即对其它线程可见,适用于只有一个线程修改的场景
+     *
+     * @param value 新的值
+     */
+    public void lazySet(long value) {
+        UPDATER.lazySet(this, value);
+    }
+
+    public boolean compareAndSet(long expect, long update) {
+        return UPDATER.compareAndSet(this, expect, update);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(value);
+    }
+
+}
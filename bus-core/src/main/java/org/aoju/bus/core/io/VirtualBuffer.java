@@ -49,12 +49,20 @@ public final class VirtualBuffer {
     /**
      * 当前虚拟buffer映射的实际buffer.position
      */
-    private int parentPosition;
+    private final int parentPosition;
 
     /**
      * 当前虚拟buffer映射的实际buffer.limit
      */
-    private int parentLimit;
+    private final int parentLimit;
+    /**
+     * 所在回收栈的下一个缓冲区
+     */
+    VirtualBuffer next;
+    /**
+     * 泄漏检测的采样记录,未被采样时为null
+     */
+    PageBuffer.Leak leak;
 
     VirtualBuffer(PageBuffer pageBuffer, ByteBuffer buffer, int parentPosition, int parentLimit) {
         this.pageBuffer = pageBuffer;
@@ -67,18 +75,10 @@ public final class VirtualBuffer {
         return parentPosition;
     }
 
-    void setParentPosition(int parentPosition) {
-        this.parentPosition = parentPosition;
-    }
-
     int getParentLimit() {
         return parentLimit;
     }
 
-    void setParentLimit(int parentLimit) {
-        this.parentLimit = parentLimit;
-    }
-
     public ByteBuffer buffer() {
         return buffer;
     }
@@ -0,0 +1,145 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.io;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * {@link RingBuffer}的等待策略
+ * 生产者等待空位、消费者等待数据时,每次尝试失败后调用{@link #idle(int, BooleanSupplier)}
+ *
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public interface WaitStrategy {
+
+    /**
+     * 等待一次
+     *
+     * @param counter 本次等待前已连续等待的次数
+     * @param ready   等待的条件,阻塞前需再次检查
+     * @throws InterruptedException 线程被中断
+     */
+    void idle(int counter, BooleanSupplier ready) throws InterruptedException;
+
+    /**
+     * 发布或释放了事件,唤醒阻塞的线程
+     */
+    default void signalAll() {
+    }
+
+    /**
+     * 自旋等待,延迟最低,但会一直占用CPU
+     * 适用于线程数不超过CPU核数的场景
+     */
+    class BusySpin implements WaitStrategy {
+
+        @Override
+        public void idle(int counter, BooleanSupplier ready) throws InterruptedException {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+
+    }
+
+    /**
+     * 先自旋,之后让出CPU
+     */
+    class Yielding implements WaitStrategy {
+
+        private static final int SPIN_TRIES = 100;
+
+        @Override
+        public void idle(int counter, BooleanSupplier ready) throws InterruptedException {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (counter >= SPIN_TRIES) {
+                Thread.yield();
+            }
+        }
+
+    }
+
+    /**
+     * 先自旋、让出CPU,仍无法满足时挂起线程,直到有事件发布或释放
+     * 只有存在挂起的线程时,发布方才需要加锁唤醒
+     */
+    class Parking implements WaitStrategy {
+
+        private static final int SPIN_TRIES = 100;
+
+        private static final int YIELD_TRIES = 200;
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final Condition processorNotify = lock.newCondition();
+
+        private volatile boolean signalNeeded;
+
+        @Override
+        public void idle(int counter, BooleanSupplier ready) throws InterruptedException {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (counter < SPIN_TRIES) {
+                return;
+            }
+            if (counter < YIELD_TRIES) {
+                Thread.yield();
+                return;
+            }
+            lock.lockInterruptibly();
+            try {
+                signalNeeded = true;
+                // 先登记再检查,保证发布方一定能看到登记
+                if (false == ready.getAsBoolean()) {
+                    processorNotify.await();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void signalAll() {
+            if (signalNeeded) {
+                lock.lock();
+                try {
+                    signalNeeded = false;
+                    processorNotify.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+    }
+
+}
@@ -25,15 +25,19 @@
 package org.aoju.bus.core.lang;
 
 import java.io.Serializable;
-import java.util.Iterator;
-import java.util.Map;
-import java.util.WeakHashMap;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
 
 /**
- * 简单缓存,无超时实现,使用{@link WeakHashMap}实现缓存自动清理
+ * 简单缓存,无超时实现,键为弱引用,键被回收后缓存自动清理
+ * <p>
+ * 基于{@link ConcurrentHashMap}, 读取不加锁, 写入只锁单个桶;
+ * 与{@link WeakHashMap}一致, 键按{@link Object#equals(Object)}比较
  *
  * @param <K> 键类型
  * @param <V> 值类型
@@ -46,11 +50,12 @@ public class SimpleCache<K, V> implements Iterable<Map.Entry<K, V>>, Serializabl
     /**
      * 池
      */
-    private final Map<K, V> cache = new WeakHashMap<>();
+    private final ConcurrentMap<Object, V> cache = new ConcurrentHashMap<>();
 
-    private final ReentrantReadWriteLock cacheLock = new ReentrantReadWriteLock();
-    private final ReadLock readLock = cacheLock.readLock();
-    private final WriteLock writeLock = cacheLock.writeLock();
+    /**
+     * 已被回收的键
+     */
+    private final ReferenceQueue<K> queue = new ReferenceQueue<>();
 
     /**
      * 从缓存池中查找值
@@ -59,15 +64,32 @@ public class SimpleCache<K, V> implements Iterable<Map.Entry<K, V>>, Serializabl
      * @return 值
      */
     public V get(K key) {
-        // 尝试读取缓存
-        readLock.lock();
-        V value;
-        try {
-            value = cache.get(key);
-        } finally {
-            readLock.unlock();
+        if (null == key) {
+            return null;
         }
-        return value;
+        return cache.get(new LookupKey(key));
+    }
+
+    /**
+     * 从缓存池中查找值,不存在时创建并放入缓存
+     * 创建过程不加锁,并发创建时以先放入的值为准
+     *
+     * @param key      键
+     * @param supplier 值不存在时的创建方法
+     * @return 值
+     */
+    public V get(K key, Supplier<V> supplier) {
+        V value = get(key);
+        if (null != value) {
+            return value;
+        }
+        value = supplier.get();
+        if (null == key || null == value) {
+            return value;
+        }
+        expunge();
+        V prior = cache.putIfAbsent(new WeakKey<>(key, queue), value);
+        return null == prior ? value : prior;
     }
 
     /**
@@ -78,11 +100,14 @@ public class SimpleCache<K, V> implements Iterable<Map.Entry<K, V>>, Serializabl
      * @return 值
      */
     public V put(K key, V value) {
-        writeLock.lock();
-        try {
-            cache.put(key, value);
-        } finally {
-            writeLock.unlock();
+        if (null == key) {
+            return value;
+        }
+        expunge();
+        if (null == value) {
+            cache.remove(new LookupKey(key));
+        } else {
+            cache.put(new WeakKey<>(key, queue), value);
         }
         return value;
     }
@@ -94,29 +119,105 @@ public class SimpleCache<K, V> implements Iterable<Map.Entry<K, V>>, Serializabl
      * @return 移除的值
      */
     public V remove(K key) {
-        writeLock.lock();
-        try {
-            return cache.remove(key);
-        } finally {
-            writeLock.unlock();
+        expunge();
+        if (null == key) {
+            return null;
         }
+        return cache.remove(new LookupKey(key));
     }
 
     /**
      * 清空缓存池
      */
     public void clear() {
-        writeLock.lock();
-        try {
-            this.cache.clear();
-        } finally {
-            writeLock.unlock();
-        }
+        this.cache.clear();
+        expunge();
     }
 
     @Override
     public Iterator<Map.Entry<K, V>> iterator() {
-        return this.cache.entrySet().iterator();
+        List<Map.Entry<K, V>> entries = new ArrayList<>(cache.size());
+        for (Map.Entry<Object, V> entry : cache.entrySet()) {
+            K key = ((WeakKey<K>) entry.getKey()).get();
+            if (null != key) {
+                entries.add(new AbstractMap.SimpleImmutableEntry<>(key, entry.getValue()));
+            }
+        }
+        return entries.iterator();
+    }
+
+    /**
+     * 移除键已被回收的条目
+     */
+    private void expunge() {
+        Reference<? extends K> reference;
+        while (null != (reference = queue.poll())) {
+            cache.remove(reference);
+        }
+    }
+
+    /**
+     * 取得包装前的键,已被回收时为null
+     */
+    private static Object unwrap(Object key) {
+        if (key instanceof WeakKey) {
+            return ((WeakKey<?>) key).get();
+        }
+        return ((LookupKey) key).key;
+    }
+
+    /**
+     * 存储用的弱引用键,回收后只与自身相等,以便从缓存中移除
+     */
+    private static final class WeakKey<K> extends WeakReference<K> {
+
+        private final int hash;
+
+        WeakKey(K key, ReferenceQueue<K> queue) {
+            super(key, queue);
+            this.hash = key.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            Object key = get();
+            return null != key && (o instanceof WeakKey || o instanceof LookupKey) && key.equals(unwrap(o));
+        }
+
+    }
+
+    /**
+     * 查找用的键,不创建引用对象
+     */
+    private static final class LookupKey {
+
+        private final Object key;
+
+        private final int hash;
+
+        LookupKey(Object key) {
+            this.key = key;
+            this.hash = key.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return (o instanceof WeakKey || o instanceof LookupKey) && key.equals(unwrap(o));
+        }
+
     }
 
 }
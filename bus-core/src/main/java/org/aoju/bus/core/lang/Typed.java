@@ -30,6 +30,8 @@ import org.aoju.bus.core.toolkit.StringKit;
 import java.io.Serializable;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Objects;
 
 /**
  * {@link ParameterizedType} 接口实现，用于重新定义泛型类型
@@ -105,6 +107,31 @@ public class Typed implements ParameterizedType, Serializable {
         return rawType;
     }
 
+    /**
+     * 与其他{@link ParameterizedType}实现(包括JDK自带实现)按原始类型、拥有者类型与泛型参数比较
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (false == obj instanceof ParameterizedType) {
+            return false;
+        }
+        final ParameterizedType other = (ParameterizedType) obj;
+        return Objects.equals(rawType, other.getRawType())
+                && Objects.equals(ownerType, other.getOwnerType())
+                && Arrays.equals(actualTypeArguments, other.getActualTypeArguments());
+    }
+
+    /**
+     * 与JDK的{@link ParameterizedType}实现保持一致, 相等的类型可以互换作为缓存键
+     */
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(actualTypeArguments) ^ Objects.hashCode(ownerType) ^ Objects.hashCode(rawType);
+    }
+
     @Override
     public String toString() {
         final StringBuilder buf = new StringBuilder();
@@ -0,0 +1,549 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.text.csv;
+
+import org.aoju.bus.core.lang.Symbol;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 内存映射CSV的行游标
+ * <p>
+ * 游标在映射的UTF-8字节上解析记录,只记录每个字段的起止位置;
+ * {@link #get(int)}返回可复用的{@link CharSequence}视图,在访问时才解码,
+ * {@link #getLong(int)}、{@link #getDouble(int)}直接从字节解析,不创建对象.
+ * 视图在调用{@link #next()}后失效,需要保留时使用{@link #getString(int)}.
+ * 游标不是线程安全的
+ *
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public final class CsvCursor {
+
+    private static final int DEFAULT_ROW_CAPACITY = 10;
+
+    /**
+     * 字段包含非ASCII字符
+     */
+    private static final byte NON_ASCII = 1;
+    /**
+     * 字段被包装符包装,需去掉包装并还原转义的包装符
+     */
+    private static final byte WRAPPED = 2;
+
+    /**
+     * 可精确表示的10的幂
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final MappedCsv csv;
+    private final byte fieldSeparator;
+    private final byte textDelimiter;
+    private final boolean skipEmptyRows;
+    private final boolean errorOnDifferentFieldCount;
+    /**
+     * 游标范围的结束位置
+     */
+    private final long end;
+
+    /**
+     * 当前映射段
+     */
+    private int segmentIndex;
+    private ByteBuffer segment;
+    private long base;
+    /**
+     * 当前映射段内的读取位置及结束位置
+     */
+    private int position;
+    private int limit;
+
+    /**
+     * 当前记录在文件中的位置
+     */
+    private long offset = -1;
+    private int fieldCount;
+    private int[] starts = new int[DEFAULT_ROW_CAPACITY];
+    private int[] ends = new int[DEFAULT_ROW_CAPACITY];
+    private byte[] flags = new byte[DEFAULT_ROW_CAPACITY];
+    private Field[] views = new Field[DEFAULT_ROW_CAPACITY];
+    /**
+     * 第一行字段数,用于检查每行字段数是否一致
+     */
+    private int firstLineFieldCount;
+
+    /**
+     * @param csv   内存映射的CSV文件
+     * @param start 起始位置,必须为记录边界
+     * @param end   结束位置,必须为记录边界
+     */
+    CsvCursor(MappedCsv csv, long start, long end) {
+        this.csv = csv;
+        this.fieldSeparator = (byte) csv.config.fieldSeparator;
+        this.textDelimiter = (byte) csv.config.textDelimiter;
+        this.skipEmptyRows = csv.config.skipEmptyRows;
+        this.errorOnDifferentFieldCount = csv.config.errorOnDifferentFieldCount;
+        this.firstLineFieldCount = csv.headerFieldCount;
+        this.end = end;
+        if (start < end) {
+            this.segmentIndex = csv.segmentOf(start);
+            seek(start);
+        } else {
+            this.segmentIndex = csv.segments.length;
+        }
+    }
+
+    /**
+     * 定位到当前映射段内的指定位置
+     *
+     * @param start 文件中的位置
+     */
+    private void seek(long start) {
+        segment = csv.segments[segmentIndex];
+        base = csv.starts[segmentIndex];
+        position = (int) (start - base);
+        limit = (int) Math.min(segment.limit(), end - base);
+    }
+
+    /**
+     * 读取下一行数据
+     *
+     * @return 是否存在下一行
+     * @throws InstrumentException 字段数与第一行不一致
+     */
+    public boolean next() throws InstrumentException {
+        while (true) {
+            if (position >= limit) {
+                if (++segmentIndex >= csv.segments.length || csv.starts[segmentIndex] >= end) {
+                    segmentIndex = csv.segments.length;
+                    fieldCount = 0;
+                    return false;
+                }
+                seek(csv.starts[segmentIndex]);
+                continue;
+            }
+            readLine();
+
+            // 跳过空行
+            if (skipEmptyRows && fieldCount == 1 && ends[0] == starts[0]) {
+                continue;
+            }
+
+            // 检查每行的字段数是否一致
+            if (errorOnDifferentFieldCount) {
+                if (firstLineFieldCount == -1) {
+                    firstLineFieldCount = fieldCount;
+                } else if (fieldCount != firstLineFieldCount) {
+                    throw new InstrumentException("Line at offset %d has %d fields, but first line has %d fields", offset, fieldCount, firstLineFieldCount);
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 读取一行数据,只记录字段位置,引号的处理与{@link CsvParser}一致
+     */
+    private void readLine() {
+        final ByteBuffer localSegment = segment;
+        final int localLimit = limit;
+        int i = position;
+        int fieldStart = i;
+        byte fieldFlags = 0;
+        boolean inQuotes = false;
+
+        offset = base + i;
+        fieldCount = 0;
+        while (i < localLimit) {
+            final byte b = localSegment.get(i);
+            if (b == textDelimiter) {
+                inQuotes = !inQuotes;
+                fieldFlags |= WRAPPED;
+            } else if (b < 0) {
+                fieldFlags |= NON_ASCII;
+            } else if (false == inQuotes) {
+                if (b == fieldSeparator) {
+                    addField(fieldStart, i, fieldFlags);
+                    fieldStart = i + 1;
+                    fieldFlags = 0;
+                } else if (b == Symbol.C_CR || b == Symbol.C_LF) {
+                    addField(fieldStart, i, fieldFlags);
+                    i++;
+                    if (b == Symbol.C_CR && i < localLimit && localSegment.get(i) == Symbol.C_LF) {
+                        i++;
+                    }
+                    position = i;
+                    return;
+                }
+            }
+            i++;
+        }
+        addField(fieldStart, i, fieldFlags);
+        position = i;
+    }
+
+    private void addField(int start, int end, byte fieldFlags) {
+        if (fieldCount == starts.length) {
+            final int capacity = fieldCount << 1;
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            views = Arrays.copyOf(views, capacity);
+        }
+        if ((fieldFlags & WRAPPED) != 0) {
+            if (end - start >= 2 && segment.get(start) == textDelimiter && segment.get(end - 1) == textDelimiter) {
+                start++;
+                end--;
+            } else {
+                // 未被完整包装,与CsvParser一致按原样返回
+                fieldFlags &= ~WRAPPED;
+            }
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        flags[fieldCount] = fieldFlags;
+        fieldCount++;
+    }
+
+    /**
+     * 当前记录在文件中的位置
+     *
+     * @return 字节位置
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * 下一条记录在文件中的位置
+     *
+     * @return 字节位置
+     */
+    long getNextOffset() {
+        return base + position;
+    }
+
+    /**
+     * 当前记录的字段数
+     *
+     * @return 字段数
+     */
+    public int size() {
+        return fieldCount;
+    }
+
+    /**
+     * 标题对应的字段位置
+     *
+     * @param name 标题名
+     * @return 字段位置, 不存在时返回-1
+     */
+    public int indexOf(String name) {
+        return csv.indexOf(name);
+    }
+
+    /**
+     * 获取字段的视图,视图在调用{@link #next()}后失效
+     *
+     * @param index 字段位置
+     * @return 字段值, 超出字段数时返回null
+     */
+    public CharSequence get(int index) {
+        if (index >= fieldCount) {
+            return null;
+        }
+        Field view = views[index];
+        if (null == view) {
+            view = views[index] = new Field();
+        }
+        view.bind(starts[index], ends[index], flags[index]);
+        return view;
+    }
+
+    /**
+     * 获取字段值
+     *
+     * @param index 字段位置
+     * @return 字段值, 超出字段数时返回null
+     */
+    public String getString(int index) {
+        final CharSequence value = get(index);
+        return null == value ? null : value.toString();
+    }
+
+    /**
+     * 字段是否为空
+     *
+     * @param index 字段位置
+     * @return 超出字段数或长度为0时返回true
+     */
+    public boolean isEmpty(int index) {
+        return index >= fieldCount || ends[index] == starts[index];
+    }
+
+    public int getInt(int index) throws NumberFormatException {
+        final long value = getLong(index);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("For input string: \"" + getString(index) + "\"");
+        }
+        return (int) value;
+    }
+
+    /**
+     * 按十进制整数解析字段,规则与{@link Long#parseLong(String)}一致,
+     * 包装符包围的字段(如{@code "42"})去除包装符后交由{@link Long#parseLong(String)}处理
+     *
+     * @param index 字段位置
+     * @return 数值
+     * @throws NumberFormatException 字段不存在或不是整数
+     */
+    public long getLong(int index) throws NumberFormatException {
+        if (index >= fieldCount) {
+            throw new NumberFormatException("null");
+        }
+        if ((flags[index] & WRAPPED) != 0) {
+            return Long.parseLong(getString(index));
+        }
+        int i = starts[index];
+        final int end = ends[index];
+        boolean negative = false;
+        if (i < end) {
+            final byte first = segment.get(i);
+            if (first == '-' || first == '+') {
+                negative = first == '-';
+                i++;
+            }
+        }
+        if (i == end) {
+            throw new NumberFormatException("For input string: \"" + getString(index) + "\"");
+        }
+        // 与Long.parseLong相同,按负数累加以容纳Long.MIN_VALUE
+        final long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        final long multmin = limit / 10;
+        long result = 0;
+        for (; i < end; i++) {
+            final int digit = segment.get(i) - '0';
+            if (digit < 0 || digit > 9 || result < multmin) {
+                throw new NumberFormatException("For input string: \"" + getString(index) + "\"");
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw new NumberFormatException("For input string: \"" + getString(index) + "\"");
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * 解析浮点数字段,有效数字不超过15位且指数较小时直接从字节计算,
+     * 其它情况交由{@link Double#parseDouble(String)}处理
+     *
+     * @param index 字段位置
+     * @return 数值
+     * @throws NumberFormatException 字段不存在或不是数字
+     */
+    public double getDouble(int index) throws NumberFormatException {
+        if (index >= fieldCount) {
+            throw new NumberFormatException("null");
+        }
+        int i = starts[index];
+        final int end = ends[index];
+        if ((flags[index] & WRAPPED) != 0) {
+            return Double.parseDouble(getString(index));
+        }
+        boolean negative = false;
+        if (i < end) {
+            final byte first = segment.get(i);
+            if (first == '-' || first == '+') {
+                negative = first == '-';
+                i++;
+            }
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean dot = false;
+        boolean any = false;
+        for (; i < end; i++) {
+            final byte b = segment.get(i);
+            if (b >= '0' && b <= '9') {
+                any = true;
+                if (digits > 0 || b != '0') {
+                    digits++;
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (dot) {
+                    scale--;
+                }
+            } else if (b == '.' && false == dot) {
+                dot = true;
+            } else {
+                break;
+            }
+        }
+        if (i < end && any) {
+            final byte b = segment.get(i);
+            if (b == 'e' || b == 'E') {
+                i++;
+                boolean negativeExponent = false;
+                if (i < end && (segment.get(i) == '-' || segment.get(i) == '+')) {
+                    negativeExponent = segment.get(i) == '-';
+                    i++;
+                }
+                int exponent = 0;
+                final int exponentStart = i;
+                for (; i < end && i - exponentStart < 4; i++) {
+                    final byte e = segment.get(i);
+                    if (e < '0' || e > '9') {
+                        break;
+                    }
+                    exponent = exponent * 10 + (e - '0');
+                }
+                if (i == exponentStart) {
+                    return Double.parseDouble(getString(index));
+                }
+                scale += negativeExponent ? -exponent : exponent;
+            }
+        }
+        if (i != end || false == any || digits > 15 || scale < -22 || scale > 22) {
+            return Double.parseDouble(getString(index));
+        }
+        // 尾数与10的幂均可被double精确表示,一次乘除即为正确舍入的结果
+        final double value = scale < 0 ? mantissa / POWERS_OF_TEN[-scale] : mantissa * POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    /**
+     * 字段视图,ASCII字段直接读取映射的字节,其它字段在首次访问时解码到内部缓冲
+     */
+    private final class Field implements CharSequence {
+
+        private int start;
+        private int end;
+        private byte flag;
+        private char[] chars = new char[32];
+        private int length;
+        private boolean decoded;
+
+        void bind(int start, int end, byte flag) {
+            this.start = start;
+            this.end = end;
+            this.flag = flag;
+            this.decoded = false;
+        }
+
+        private boolean isPlain() {
+            return flag == 0;
+        }
+
+        @Override
+        public int length() {
+            if (isPlain()) {
+                return end - start;
+            }
+            decode();
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (isPlain()) {
+                if (index < 0 || index >= end - start) {
+                    throw new StringIndexOutOfBoundsException(index);
+                }
+                return (char) segment.get(start + index);
+            }
+            decode();
+            if (index < 0 || index >= length) {
+                throw new StringIndexOutOfBoundsException(index);
+            }
+            return chars[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            decode();
+            return new String(chars, 0, length);
+        }
+
+        /**
+         * 按UTF-8解码,被包装的字段同时还原转义的包装符,非法字节替换为U+FFFD
+         */
+        private void decode() {
+            if (decoded) {
+                return;
+            }
+            if (chars.length < end - start) {
+                chars = new char[Math.max(end - start, chars.length << 1)];
+            }
+            final boolean wrapped = (flag & WRAPPED) != 0;
+            int n = 0;
+            int i = start;
+            while (i < end) {
+                final int b = segment.get(i++);
+                if (b >= 0) {
+                    chars[n++] = (char) b;
+                    if (wrapped && b == textDelimiter && i < end && segment.get(i) == textDelimiter) {
+                        i++;
+                    }
+                } else if ((b & 0xE0) == 0xC0 && i < end && isContinuation(i)) {
+                    chars[n++] = (char) (((b & 0x1F) << 6) | (segment.get(i) & 0x3F));
+                    i++;
+                } else if ((b & 0xF0) == 0xE0 && i + 1 < end && isContinuation(i) && isContinuation(i + 1)) {
+                    chars[n++] = (char) (((b & 0x0F) << 12) | ((segment.get(i) & 0x3F) << 6) | (segment.get(i + 1) & 0x3F));
+                    i += 2;
+                } else if ((b & 0xF8) == 0xF0 && i + 2 < end && isContinuation(i) && isContinuation(i + 1) && isContinuation(i + 2)) {
+                    final int codePoint = ((b & 0x07) << 18) | ((segment.get(i) & 0x3F) << 12)
+                            | ((segment.get(i + 1) & 0x3F) << 6) | (segment.get(i + 2) & 0x3F);
+                    chars[n++] = Character.highSurrogate(codePoint);
+                    chars[n++] = Character.lowSurrogate(codePoint);
+                    i += 3;
+                } else {
+                    chars[n++] = '\uFFFD';
+                }
+            }
+            length = n;
+            decoded = true;
+        }
+
+        private boolean isContinuation(int i) {
+            return (segment.get(i) & 0xC0) == 0x80;
+        }
+
+    }
+
+}
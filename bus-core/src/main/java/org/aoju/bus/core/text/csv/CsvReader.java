@@ -163,6 +163,30 @@ public final class CsvReader {
         }
     }
 
+    /**
+     * 以内存映射方式打开UTF-8编码的CSV文件,由{@link CsvCursor}逐行解析,
+     * 适用于不宜全部读入内存的大文件,使用后需关闭
+     *
+     * @param file CSV文件
+     * @return {@link MappedCsv}
+     * @throws InstrumentException IO异常
+     */
+    public MappedCsv map(File file) throws InstrumentException {
+        return map(Objects.requireNonNull(file.toPath(), "file must not be null"));
+    }
+
+    /**
+     * 以内存映射方式打开UTF-8编码的CSV文件,由{@link CsvCursor}逐行解析,
+     * 适用于不宜全部读入内存的大文件,使用后需关闭
+     *
+     * @param path CSV文件路径
+     * @return {@link MappedCsv}
+     * @throws InstrumentException IO异常
+     */
+    public MappedCsv map(Path path) throws InstrumentException {
+        return new MappedCsv(path, config);
+    }
+
     /**
      * 从Reader中读取CSV数据,读取后关闭Reader
      *
@@ -0,0 +1,309 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.core.text.csv;
+
+import org.aoju.bus.core.lang.Assert;
+import org.aoju.bus.core.lang.Symbol;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.toolkit.IoKit;
+import org.aoju.bus.core.toolkit.ObjectKit;
+import org.aoju.bus.core.toolkit.StringKit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * 内存映射的CSV文件,只支持UTF-8编码
+ * <p>
+ * 文件按记录边界切分为不超过1 GiB的段分别映射,由{@link CsvCursor}直接在映射的字节上解析,
+ * 不经过Reader解码,也不为每个字段创建String;{@link #split(int)}在记录边界处将文件切分为多个游标,
+ * 供多线程并行解析.切分时需从头扫描引号以判断换行是否位于引号内,引号的处理与{@link CsvParser}一致
+ *
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public final class MappedCsv implements Closeable {
+
+    /**
+     * 单个映射段的最大字节数
+     */
+    private static final int SEGMENT_SIZE = 1 << 30;
+
+    final CsvReadConfig config;
+    private final FileChannel channel;
+    private final long size;
+    /**
+     * 各映射段在文件中的起始位置
+     */
+    final long[] starts;
+    /**
+     * 各映射段,limit为段长度,只使用绝对位置读取
+     */
+    final ByteBuffer[] segments;
+    /**
+     * 第一条数据记录的位置,跳过BOM和标题行
+     */
+    private long dataStart;
+    private List<String> header;
+    private Map<String, Integer> headerMap;
+    /**
+     * 标题行的字段数,用于检查每行字段数是否一致
+     */
+    int headerFieldCount = -1;
+
+    /**
+     * @param path   文件路径
+     * @param config 配置,null则为默认配置
+     * @throws InstrumentException IO异常
+     */
+    public MappedCsv(Path path, CsvReadConfig config) throws InstrumentException {
+        this(path, config, SEGMENT_SIZE);
+    }
+
+    MappedCsv(Path path, CsvReadConfig config, int segmentSize) throws InstrumentException {
+        Assert.notNull(path, "path must not be null");
+        this.config = ObjectKit.defaultIfNull(config, CsvReadConfig.defaultConfig());
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+        try {
+            this.size = channel.size();
+            final List<Long> startList = new ArrayList<>();
+            final List<ByteBuffer> segmentList = new ArrayList<>();
+            long position = 0;
+            while (position < size) {
+                int length = (int) Math.min(segmentSize, size - position);
+                final ByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                if (position + length < size) {
+                    length = lastBoundary(segment, length);
+                    if (length <= 0) {
+                        throw new InstrumentException("Record at offset %d is larger than %d bytes", position, segmentSize);
+                    }
+                    segment.limit(length);
+                }
+                startList.add(position);
+                segmentList.add(segment);
+                position += length;
+            }
+            this.starts = new long[startList.size()];
+            for (int i = 0; i < starts.length; i++) {
+                starts[i] = startList.get(i);
+            }
+            this.segments = segmentList.toArray(new ByteBuffer[0]);
+        } catch (IOException e) {
+            IoKit.close(channel);
+            throw new InstrumentException(e);
+        } catch (RuntimeException e) {
+            IoKit.close(channel);
+            throw e;
+        }
+
+        // 跳过UTF-8 BOM
+        if (size >= 3 && segments[0].get(0) == (byte) 0xEF && segments[0].get(1) == (byte) 0xBB && segments[0].get(2) == (byte) 0xBF) {
+            dataStart = 3;
+        }
+        if (this.config.containsHeader) {
+            initHeader();
+        }
+    }
+
+    /**
+     * 当前行做为标题行
+     */
+    private void initHeader() {
+        final CsvCursor cursor = new CsvCursor(this, dataStart, size);
+        final List<String> fields = new ArrayList<>();
+        final Map<String, Integer> localHeaderMap = new LinkedHashMap<>();
+        if (cursor.next()) {
+            for (int i = 0; i < cursor.size(); i++) {
+                final String field = cursor.getString(i);
+                fields.add(field);
+                if (StringKit.isNotEmpty(field) && false == localHeaderMap.containsKey(field)) {
+                    localHeaderMap.put(field, i);
+                }
+            }
+            headerFieldCount = fields.size();
+            dataStart = cursor.getNextOffset();
+        }
+        header = Collections.unmodifiableList(fields);
+        headerMap = Collections.unmodifiableMap(localHeaderMap);
+    }
+
+    /**
+     * 获取头部字段列表,如果containsHeader设置为false则抛出异常
+     *
+     * @return 头部列表
+     */
+    public List<String> getHeader() {
+        if (false == config.containsHeader) {
+            throw new IllegalStateException("No header available - header parsing is disabled");
+        }
+        return header;
+    }
+
+    /**
+     * 标题对应的字段位置
+     *
+     * @param name 标题名
+     * @return 字段位置, 不存在时返回-1
+     */
+    public int indexOf(String name) {
+        if (null == headerMap) {
+            throw new IllegalStateException("No header available");
+        }
+        final Integer index = headerMap.get(name);
+        return null == index ? -1 : index;
+    }
+
+    /**
+     * 文件大小
+     *
+     * @return 字节数
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * 遍历全部数据记录的游标
+     *
+     * @return 游标
+     */
+    public CsvCursor cursor() {
+        return new CsvCursor(this, dataStart, size);
+    }
+
+    /**
+     * 在记录边界处将数据记录切分为多个游标,每个游标只能由一个线程使用
+     *
+     * @param count 期望的游标数,记录较少时实际数量可能更少
+     * @return 按文件顺序排列的游标
+     */
+    public List<CsvCursor> split(int count) {
+        Assert.isTrue(count > 0, "count must be greater than 0");
+        final List<CsvCursor> cursors = new ArrayList<>(count);
+        long from = dataStart;
+        for (int i = 1; i < count; i++) {
+            final long target = dataStart + (size - dataStart) * i / count;
+            if (target <= from) {
+                continue;
+            }
+            final long boundary = nextBoundary(from, target);
+            if (boundary >= size) {
+                break;
+            }
+            cursors.add(new CsvCursor(this, from, boundary));
+            from = boundary;
+        }
+        cursors.add(new CsvCursor(this, from, size));
+        return cursors;
+    }
+
+    /**
+     * 位置所在的映射段
+     *
+     * @param offset 文件中的位置
+     * @return 段下标
+     */
+    int segmentOf(long offset) {
+        int index = Arrays.binarySearch(starts, offset);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * 从记录起始位置from开始扫描引号,找到target之后第一个引号外的换行,返回下一条记录的位置
+     *
+     * @param from   记录的起始位置
+     * @param target 期望的切分位置
+     * @return 下一条记录的位置
+     */
+    private long nextBoundary(long from, long target) {
+        final byte quote = (byte) config.textDelimiter;
+        boolean inQuotes = false;
+        for (int index = segmentOf(from); index < segments.length; index++) {
+            final ByteBuffer segment = segments[index];
+            final long base = starts[index];
+            if (base > from && base >= target) {
+                // 映射段的起始位置总是记录边界
+                return base;
+            }
+            final int limit = segment.limit();
+            for (int i = (int) (Math.max(from, base) - base); i < limit; i++) {
+                final byte b = segment.get(i);
+                if (b == quote) {
+                    inQuotes = !inQuotes;
+                } else if (false == inQuotes && base + i >= target) {
+                    if (b == Symbol.C_LF) {
+                        return base + i + 1;
+                    }
+                    if (b == Symbol.C_CR) {
+                        return i + 1 < limit && segment.get(i + 1) == Symbol.C_LF ? base + i + 2 : base + i + 1;
+                    }
+                }
+            }
+            inQuotes = false;
+        }
+        return size;
+    }
+
+    /**
+     * 映射段内最后一个引号外的换行之后的位置
+     *
+     * @param segment 映射段,起始位置为记录边界
+     * @param length  映射段长度
+     * @return 段内最后一条完整记录的结束位置, 不存在时返回-1
+     */
+    private int lastBoundary(ByteBuffer segment, int length) {
+        final byte quote = (byte) config.textDelimiter;
+        boolean inQuotes = false;
+        int boundary = -1;
+        for (int i = 0; i < length; i++) {
+            final byte b = segment.get(i);
+            if (b == quote) {
+                inQuotes = !inQuotes;
+            } else if (false == inQuotes) {
+                // 末尾的CR之后可能紧跟LF,不能在此切分
+                if (b == Symbol.C_LF || (b == Symbol.C_CR && i + 1 < length && segment.get(i + 1) != Symbol.C_LF)) {
+                    boundary = i + 1;
+                }
+            }
+        }
+        return boundary;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+}
@@ -1947,6 +1947,10 @@ public class MathKit {
      * @throws NumberFormatException 数字格式异常
      */
     public static int parseInt(String number) throws NumberFormatException {
+        final long decimal = parseDecimal(number, 9);
+        if (Long.MIN_VALUE != decimal) {
+            return (int) decimal;
+        }
         if (StringKit.isBlank(number)) {
             return 0;
         }
@@ -1979,6 +1983,10 @@ public class MathKit {
      * @return long
      */
     public static long parseLong(String number) {
+        final long decimal = parseDecimal(number, 18);
+        if (Long.MIN_VALUE != decimal) {
+            return decimal;
+        }
         if (StringKit.isBlank(number)) {
             return 0;
         }
@@ -1997,6 +2005,33 @@ public class MathKit {
         return Long.parseLong(removeNumberFlag(number));
     }
 
+    /**
+     * 解析不超过指定位数的纯十进制数字(可带负号),不做截取和替换
+     *
+     * @param number    数字字符串
+     * @param maxDigits 最大位数,保证结果不会溢出
+     * @return 数字,非纯十进制数字时返回{@link Long#MIN_VALUE}
+     */
+    private static long parseDecimal(String number, int maxDigits) {
+        if (null == number) {
+            return Long.MIN_VALUE;
+        }
+        final int length = number.length();
+        final int start = (length > 0 && Symbol.C_HYPHEN == number.charAt(0)) ? 1 : 0;
+        if (length == start || length - start > maxDigits) {
+            return Long.MIN_VALUE;
+        }
+        long result = 0;
+        for (int i = start; i < length; i++) {
+            final int digit = number.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return Long.MIN_VALUE;
+            }
+            result = result * 10 + digit;
+        }
+        return start > 0 ? -result : result;
+    }
+
     /**
      * 将指定字符串转换为{@link Number} 对象
      *
@@ -30,8 +30,7 @@ import org.aoju.bus.core.lang.tree.TreeNode;
 import org.aoju.bus.core.lang.tree.parser.DefaultNodeParser;
 import org.aoju.bus.core.lang.tree.parser.NodeParser;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -98,58 +97,95 @@ public class TreeKit {
      * @return List
      */
     public static <T, E> List<TreeMap<E>> build(List<T> list, E parentId, TreeEntity treeEntity, NodeParser<T, E> nodeParser) {
-        List<TreeMap<E>> treeMapNodes = CollKit.newArrayList();
-        TreeMap<E> treeMap;
-        for (T obj : list) {
-            treeMap = new TreeMap<>(treeEntity);
-            nodeParser.parse(obj, treeMap);
-            treeMapNodes.add(treeMap);
+        return build(list, parentId, treeEntity, nodeParser, false);
+    }
+
+    /**
+     * 树构建
+     * 先按父id一次分组并对每组兄弟节点排序,再从顶层逐层挂载子节点,不递归
+     *
+     * @param <T>        转换的实体 为数据源里的对象类型
+     * @param <E>        ID类型
+     * @param list       源数据集合
+     * @param parentId   最顶层父id值 一般为 0 之类
+     * @param treeEntity 配置
+     * @param nodeParser 转换器,并行时需线程安全
+     * @param parallel   是否并行转换、分组及排序,适用于数据量很大的场景
+     * @return List
+     */
+    public static <T, E> List<TreeMap<E>> build(List<T> list, E parentId, TreeEntity treeEntity, NodeParser<T, E> nodeParser, boolean parallel) {
+        final Map<E, List<TreeMap<E>>> group = parallel
+                ? parallelGroup(list, treeEntity, nodeParser)
+                : group(list, treeEntity, nodeParser);
+
+        final List<TreeMap<E>> finalTreeMapNodes = group.get(parentId);
+        if (null == finalTreeMapNodes) {
+            return CollKit.newArrayList();
         }
 
-        List<TreeMap<E>> finalTreeMapNodes = CollKit.newArrayList();
-        for (TreeMap<E> node : treeMapNodes) {
-            if (parentId.equals(node.getParentId())) {
-                finalTreeMapNodes.add(node);
-                innerBuild(treeMapNodes, node, 0, treeEntity.getDeep());
+        // 同一节点只展开一次,避免id重复或成环时死循环
+        final Set<TreeMap<E>> expanded = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Integer maxDeep = treeEntity.getDeep();
+        List<TreeMap<E>> level = finalTreeMapNodes;
+        for (int deep = 0; false == level.isEmpty() && (null == maxDeep || deep < maxDeep); deep++) {
+            final List<TreeMap<E>> nextLevel = new ArrayList<>();
+            for (TreeMap<E> parentNode : level) {
+                final List<TreeMap<E>> childNodes = null == parentNode.getId() ? null : group.get(parentNode.getId());
+                if (null == childNodes || false == expanded.add(parentNode)) {
+                    continue;
+                }
+                List<TreeMap<E>> children = parentNode.getChildren();
+                if (null == children) {
+                    children = new ArrayList<>(childNodes.size());
+                    parentNode.setChildren(children);
+                }
+                for (TreeMap<E> childNode : childNodes) {
+                    children.add(childNode);
+                    childNode.setParent(parentNode);
+                    nextLevel.add(childNode);
+                }
             }
+            level = nextLevel;
         }
-        // 内存每层已经排过了 这是最外层排序
-        finalTreeMapNodes = finalTreeMapNodes.stream().sorted().collect(Collectors.toList());
         return finalTreeMapNodes;
     }
 
     /**
-     * 递归处理
+     * 转换并按父id分组,每组按权重排序,父id为null的节点不会挂载到任何节点
      *
-     * @param treeMapNodes 数据集合
-     * @param parentNode   当前节点
-     * @param deep         已递归深度
-     * @param maxDeep      最大递归深度 可能为null即不限制
+     * @param list       源数据集合
+     * @param treeEntity 配置
+     * @param nodeParser 转换器
+     * @return 父id与子节点的对应关系
      */
-    private static <T> void innerBuild(List<TreeMap<T>> treeMapNodes, TreeMap<T> parentNode, int deep, Integer maxDeep) {
-
-        if (CollKit.isEmpty(treeMapNodes)) {
-            return;
+    private static <T, E> Map<E, List<TreeMap<E>>> group(List<T> list, TreeEntity treeEntity, NodeParser<T, E> nodeParser) {
+        final Map<E, List<TreeMap<E>>> group = new HashMap<>();
+        TreeMap<E> treeMap;
+        for (T obj : list) {
+            treeMap = new TreeMap<>(treeEntity);
+            nodeParser.parse(obj, treeMap);
+            if (null != treeMap.getParentId()) {
+                group.computeIfAbsent(treeMap.getParentId(), key -> new ArrayList<>()).add(treeMap);
+            }
         }
-        //maxDeep 可能为空
-        if (maxDeep != null && deep >= maxDeep) {
-            return;
+        // TreeNodeMap 实现了Comparable接口,排序是稳定的
+        for (List<TreeMap<E>> children : group.values()) {
+            children.sort(null);
         }
+        return group;
+    }
 
-        // 每层排序 TreeNodeMap 实现了Comparable接口
-        treeMapNodes = treeMapNodes.stream().sorted().collect(Collectors.toList());
-        for (TreeMap<T> childNode : treeMapNodes) {
-            if (parentNode.getId().equals(childNode.getParentId())) {
-                List<TreeMap<T>> children = parentNode.getChildren();
-                if (children == null) {
-                    children = CollKit.newArrayList();
-                    parentNode.setChildren(children);
-                }
-                children.add(childNode);
-                childNode.setParent(parentNode);
-                innerBuild(treeMapNodes, childNode, deep + 1, maxDeep);
-            }
-        }
+    private static <T, E> Map<E, List<TreeMap<E>>> parallelGroup(List<T> list, TreeEntity treeEntity, NodeParser<T, E> nodeParser) {
+        final Map<E, List<TreeMap<E>>> group = list.parallelStream()
+                .map(obj -> {
+                    TreeMap<E> treeMap = new TreeMap<>(treeEntity);
+                    nodeParser.parse(obj, treeMap);
+                    return treeMap;
+                })
+                .filter(treeMap -> null != treeMap.getParentId())
+                .collect(Collectors.groupingBy(TreeMap::getParentId, Collectors.toCollection(ArrayList::new)));
+        group.values().parallelStream().forEach(children -> children.sort(null));
+        return group;
     }
 
     /**
@@ -64,7 +64,7 @@ public class CronTimer extends Thread {
     /**
      * 检查是否为有效的sleep毫秒数，包括：
      * <pre>
-     *     1. 是否&gt;0，防止用户向未来调整时间
+     *     1. 是否&gt;0，线程停顿或用户向未来调整时间时已错过执行点
      *     1. 是否&lt;两倍的间隔单位，防止用户向历史调整时间
      * </pre>
      *
@@ -98,6 +98,16 @@ public class CronTimer extends Thread {
                 //执行点，时间记录为执行开始的时间，而非结束时间
                 thisTime = System.currentTimeMillis();
                 spawnLauncher(thisTime);
+            } else if (sleep <= 0) {
+                //长时间GC、进程挂起或时间向未来调整，已错过执行点，立即检查，错过的执行点由任务表按错过策略处理
+                thisTime = System.currentTimeMillis();
+                Logger.debug("Cron timer paused {} ms, check misfired tasks.", -sleep);
+                spawnLauncher(thisTime);
+            } else {
+                //时间向历史调整，以当前时间重新计算所有任务的下次执行时间
+                thisTime = System.currentTimeMillis();
+                Logger.debug("Cron timer detected clock moved backwards, reschedule all tasks.");
+                this.scheduler.taskTable.reschedule(thisTime);
             }
         }
         Logger.debug("Cron timer stoped.");
@@ -24,14 +24,19 @@
  ********************************************************************************/
 package org.aoju.bus.cron;
 
+import org.aoju.bus.cron.consts.ExecutorBlockStrategy;
 import org.aoju.bus.cron.factory.Task;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
 /**
  * 作业执行管理器
  * 负责管理作业的启动、停止等
+ * 任务触发时如果上一次执行尚未结束,按任务的{@link ExecutorBlockStrategy}决定排队、丢弃、覆盖或并行执行
  *
  * @author Kimi Liu
  * @version 5.9.6
@@ -39,6 +44,11 @@ import java.util.List;
  */
 public class ExecutorManager {
 
+    /**
+     * 串行模式下单个任务最多等待的执行次数
+     */
+    private static final int MAX_SERIAL_QUEUE = 1024;
+
     protected Scheduler scheduler;
     /**
      * 执行器列表
@@ -50,25 +60,107 @@ public class ExecutorManager {
     }
 
     /**
-     * 启动 TaskExecutor
+     * 启动 TaskExecutor,不做重叠检查
      *
      * @param task {@link Task}
      * @return {@link TaskExecutor}
      */
     public TaskExecutor spawnExecutor(Task task) {
         final TaskExecutor executor = new TaskExecutor(this.scheduler, task);
-        synchronized (this.executors) {
-            this.executors.add(executor);
+        execute(executor);
+        return executor;
+    }
+
+    /**
+     * 启动 TaskExecutor,上一次执行尚未结束时按任务的阻塞处理策略处理
+     *
+     * @param task    {@link Task}
+     * @param metrics 任务的执行统计
+     * @return {@link TaskExecutor}
+     */
+    public TaskExecutor spawnExecutor(Task task, TaskMetrics metrics) {
+        return spawnExecutor(task, metrics, null);
+    }
+
+    /**
+     * 启动 TaskExecutor,上一次执行尚未结束时按任务的阻塞处理策略处理
+     *
+     * @param task     {@link Task}
+     * @param metrics  任务的执行统计
+     * @param callback 执行结束(包括被丢弃、覆盖或拒绝)后的回调,参数为是否执行成功,可为null
+     * @return {@link TaskExecutor}
+     */
+    public TaskExecutor spawnExecutor(Task task, TaskMetrics metrics, Consumer<Boolean> callback) {
+        final TaskExecutor executor = new TaskExecutor(this.scheduler, task, metrics);
+        if (null != callback) {
+            executor.onCompleted(callback);
+        }
+        metrics.fired.increment();
+
+        boolean blocked = false;
+        boolean rejected = false;
+        boolean submit = true;
+        boolean waiting = false;
+        List<TaskExecutor> covered = null;
+        synchronized (metrics) {
+            if (false == metrics.executors.isEmpty() || false == metrics.waiting.isEmpty()) {
+                blocked = true;
+                metrics.overlapped.increment();
+                switch (metrics.getStrategy()) {
+                    case SERIAL_EXECUTION:
+                        if (metrics.waiting.size() < MAX_SERIAL_QUEUE) {
+                            metrics.waiting.offer(executor);
+                            metrics.queued.incrementAndGet();
+                            waiting = true;
+                        } else {
+                            metrics.rejected.increment();
+                            rejected = true;
+                        }
+                        submit = false;
+                        break;
+                    case DISCARD_LATER:
+                        metrics.discarded.increment();
+                        submit = false;
+                        break;
+                    case COVER_EARLY:
+                        covered = new ArrayList<>(metrics.executors);
+                        metrics.executors.clear();
+                        metrics.running.addAndGet(-covered.size());
+                        metrics.covered.add(covered.size());
+                        break;
+                    default:
+                        break;
+                }
+            }
+            if (submit) {
+                metrics.executors.add(executor);
+                metrics.running.incrementAndGet();
+            }
+        }
+
+        if (null != covered) {
+            for (TaskExecutor early : covered) {
+                cancel(early);
+            }
+        }
+        if (blocked) {
+            this.scheduler.listenerManager.notifyTaskBlocked(executor);
+        }
+        if (rejected) {
+            this.scheduler.listenerManager.notifyTaskRejected(executor);
+        }
+        if (false == submit && false == waiting) {
+            executor.complete();
+        }
+        if (submit) {
+            execute(executor);
         }
-        // 子线程是否为deamon线程取决于父线程,因此此处无需显示调用
-        // executor.setDaemon(this.scheduler.daemon);
-//		executor.start();
-        this.scheduler.threadExecutor.execute(executor);
         return executor;
     }
 
     /**
      * 执行器执行完毕调用此方法,将执行器从执行器列表移除
+     * 串行模式下同时启动下一个等待的执行器
      *
      * @param executor 执行器 {@link TaskExecutor}
      * @return this
@@ -77,7 +169,72 @@ public class ExecutorManager {
         synchronized (executors) {
             executors.remove(executor);
         }
+        executor.complete();
+
+        final TaskMetrics metrics = executor.getMetrics();
+        if (null != metrics) {
+            TaskExecutor next = null;
+            synchronized (metrics) {
+                if (metrics.executors.remove(executor)) {
+                    metrics.running.decrementAndGet();
+                }
+                if (metrics.executors.isEmpty()) {
+                    next = metrics.waiting.poll();
+                    if (null != next) {
+                        metrics.queued.decrementAndGet();
+                        metrics.executors.add(next);
+                        metrics.running.incrementAndGet();
+                    }
+                }
+            }
+            if (null != next) {
+                execute(next);
+            }
+        }
         return this;
     }
 
+    /**
+     * 提交执行器到线程池,线程池拒绝时记录并通知监听
+     *
+     * @param executor 执行器 {@link TaskExecutor}
+     */
+    private void execute(TaskExecutor executor) {
+        synchronized (this.executors) {
+            this.executors.add(executor);
+        }
+        // 先创建句柄再提交,保证覆盖模式下总能取消
+        final FutureTask<Void> future = new FutureTask<>(executor, null);
+        executor.future = future;
+        try {
+            this.scheduler.threadExecutor.execute(future);
+        } catch (RejectedExecutionException e) {
+            final TaskMetrics metrics = executor.getMetrics();
+            if (null != metrics) {
+                metrics.rejected.increment();
+            }
+            this.scheduler.listenerManager.notifyTaskRejected(executor);
+            notifyExecutorCompleted(executor);
+        }
+    }
+
+    /**
+     * 中断被覆盖的执行器,尚未开始执行的直接取消
+     * 已开始执行的在执行线程真正退出时才回调,保证回调时任务已不再运行
+     *
+     * @param executor 执行器 {@link TaskExecutor}
+     */
+    private void cancel(TaskExecutor executor) {
+        synchronized (this.executors) {
+            this.executors.remove(executor);
+        }
+        final boolean prevented = executor.preventStart();
+        if (null != executor.future) {
+            executor.future.cancel(true);
+        }
+        if (prevented) {
+            executor.complete();
+        }
+    }
+
 }
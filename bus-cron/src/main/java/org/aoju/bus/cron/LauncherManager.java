@@ -24,8 +24,13 @@
  ********************************************************************************/
 package org.aoju.bus.cron;
 
+import org.aoju.bus.logger.Logger;
+
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 作业启动管理器
@@ -41,6 +46,10 @@ public class LauncherManager {
      * 启动器列表
      */
     protected List<TaskLauncher> launchers = new ArrayList<>();
+    /**
+     * 是否有从存储查询到期任务的启动器正在执行
+     */
+    private final AtomicBoolean polling = new AtomicBoolean();
 
     public LauncherManager(Scheduler scheduler) {
         this.scheduler = scheduler;
@@ -54,16 +63,54 @@ public class LauncherManager {
      */
     protected TaskLauncher spawnLauncher(long millis) {
         final TaskLauncher launcher = new TaskLauncher(this.scheduler, millis);
+        if (null != this.scheduler.jobStore) {
+            spawnStoreLauncher(launcher, millis);
+            return launcher;
+        }
         synchronized (this.launchers) {
             this.launchers.add(launcher);
         }
-        //子线程是否为deamon线程取决于父线程,因此此处无需显示调用
-        //launcher.setDaemon(this.scheduler.daemon);
-//		launcher.start();
-        this.scheduler.threadExecutor.execute(launcher);
+        //启动器只取出到期任务并提交,直接在定时器线程中执行,不占用有界的任务线程池
+        launcher.run();
         return launcher;
     }
 
+    /**
+     * 使用存储时,查询、认领与释放涉及IO,启动器交由任务线程池执行,避免阻塞定时器
+     * 上一次查询尚未结束时跳过本次,到期的执行点由下一次查询取出
+     *
+     * @param launcher 启动器
+     * @param millis   触发事件的毫秒数
+     */
+    private void spawnStoreLauncher(TaskLauncher launcher, long millis) {
+        if (false == polling.compareAndSet(false, true)) {
+            Logger.debug("Previous job store poll is still running, skip [{}].", millis);
+            return;
+        }
+        final ExecutorService executor = this.scheduler.threadExecutor;
+        if (null == executor) {
+            // 调度器已停止
+            polling.set(false);
+            return;
+        }
+        synchronized (this.launchers) {
+            this.launchers.add(launcher);
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    launcher.run();
+                } finally {
+                    polling.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            polling.set(false);
+            notifyLauncherCompleted(launcher);
+            Logger.warn("Job store poll at [{}] rejected, retry at next tick.", millis);
+        }
+    }
+
     /**
      * 启动器启动完毕,启动完毕后从执行器列表中移除
      *
@@ -30,12 +30,16 @@ import org.aoju.bus.core.thread.ExecutorBuilder;
 import org.aoju.bus.core.thread.ThreadBuilder;
 import org.aoju.bus.core.toolkit.CollKit;
 import org.aoju.bus.core.toolkit.StringKit;
+import org.aoju.bus.cron.consts.ExecutorBlockStrategy;
+import org.aoju.bus.cron.consts.MisfirePolicy;
 import org.aoju.bus.cron.factory.InvokeTask;
 import org.aoju.bus.cron.factory.RunnableTask;
 import org.aoju.bus.cron.factory.Task;
 import org.aoju.bus.cron.listener.TaskListener;
 import org.aoju.bus.cron.listener.TaskListenerManager;
 import org.aoju.bus.cron.pattern.CronPattern;
+import org.aoju.bus.cron.store.JobStore;
+import org.aoju.bus.logger.Logger;
 import org.aoju.bus.setting.Setting;
 
 import java.util.LinkedHashMap;
@@ -43,6 +47,8 @@ import java.util.Map.Entry;
 import java.util.TimeZone;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * 任务调度器
@@ -104,6 +110,42 @@ public class Scheduler {
      * 线程池
      */
     protected ExecutorService threadExecutor;
+    /**
+     * 任务线程池大小
+     */
+    private int poolSize = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+    /**
+     * 任务线程池等待队列大小,线程和队列都满后新触发的任务被拒绝
+     */
+    private int queueCapacity = ExecutorBuilder.DEFAULT_QUEUE_CAPACITY;
+    /**
+     * 是否使用虚拟线程执行任务
+     */
+    private boolean virtualThread;
+    /**
+     * 默认的阻塞处理策略
+     */
+    private ExecutorBlockStrategy blockStrategy = ExecutorBlockStrategy.CONCURRENT_EXECUTION;
+    /**
+     * 默认的错过执行处理策略
+     */
+    private MisfirePolicy misfirePolicy = MisfirePolicy.FIRE_ONCE;
+    /**
+     * 任务存储,为null时任务状态只保存在内存中
+     */
+    protected JobStore jobStore;
+    /**
+     * 节点标识,用于持有任务存储中的租约
+     */
+    private String nodeId = UUID.randomUUID().toString();
+    /**
+     * 每次从任务存储认领的最大任务数
+     */
+    private int batchSize = 100;
+    /**
+     * 租约时长,节点宕机后租约到期前其它节点不会认领该任务
+     */
+    private long leaseMillis = 60000;
     private Object lock = new Object();
     /**
      * 时区
@@ -165,6 +207,158 @@ public class Scheduler {
         return this.daemon;
     }
 
+    /**
+     * 设置任务线程池的大小和等待队列大小
+     *
+     * @param poolSize      线程数
+     * @param queueCapacity 等待队列大小
+     * @return this
+     * @throws InstrumentException 定时任务已经启动抛出此异常
+     */
+    public Scheduler setPoolSize(int poolSize, int queueCapacity) throws InstrumentException {
+        if (poolSize < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Pool size and queue capacity must be positive");
+        }
+        synchronized (lock) {
+            if (started) {
+                throw new InstrumentException("Scheduler already started!");
+            }
+            this.poolSize = poolSize;
+            this.queueCapacity = queueCapacity;
+        }
+        return this;
+    }
+
+    /**
+     * 设置是否使用虚拟线程执行任务,需要JDK21及以上,否则仍使用有界线程池
+     *
+     * @param on <code>true</code>使用虚拟线程
+     * @return this
+     * @throws InstrumentException 定时任务已经启动抛出此异常
+     */
+    public Scheduler setVirtualThread(boolean on) throws InstrumentException {
+        synchronized (lock) {
+            if (started) {
+                throw new InstrumentException("Scheduler already started!");
+            }
+            this.virtualThread = on;
+        }
+        return this;
+    }
+
+    /**
+     * 获得默认的阻塞处理策略
+     *
+     * @return {@link ExecutorBlockStrategy}
+     */
+    public ExecutorBlockStrategy getBlockStrategy() {
+        return this.blockStrategy;
+    }
+
+    /**
+     * 设置默认的阻塞处理策略,对之后加入且未单独指定策略的任务生效,默认为并行执行
+     *
+     * @param strategy {@link ExecutorBlockStrategy}
+     * @return this
+     */
+    public Scheduler setBlockStrategy(ExecutorBlockStrategy strategy) {
+        this.blockStrategy = null == strategy ? ExecutorBlockStrategy.CONCURRENT_EXECUTION : strategy;
+        return this;
+    }
+
+    /**
+     * 设置任务存储,集群中的节点共享同一存储时,每个执行点只被其中一个节点执行
+     *
+     * @param jobStore {@link JobStore}
+     * @return this
+     * @throws InstrumentException 定时任务已经启动抛出此异常
+     */
+    public Scheduler setJobStore(JobStore jobStore) throws InstrumentException {
+        return setJobStore(jobStore, this.batchSize, this.leaseMillis);
+    }
+
+    /**
+     * 设置任务存储,集群中的节点共享同一存储时,每个执行点只被其中一个节点执行
+     *
+     * @param jobStore    {@link JobStore}
+     * @param batchSize   每次认领的最大任务数
+     * @param leaseMillis 租约时长,应大于任务的执行时长
+     * @return this
+     * @throws InstrumentException 定时任务已经启动抛出此异常
+     */
+    public Scheduler setJobStore(JobStore jobStore, int batchSize, long leaseMillis) throws InstrumentException {
+        if (batchSize < 1 || leaseMillis < 1) {
+            throw new IllegalArgumentException("Batch size and lease millis must be positive");
+        }
+        synchronized (lock) {
+            if (started) {
+                throw new InstrumentException("Scheduler already started!");
+            }
+            this.jobStore = jobStore;
+            this.batchSize = batchSize;
+            this.leaseMillis = leaseMillis;
+        }
+        return this;
+    }
+
+    /**
+     * 获得节点标识
+     *
+     * @return 节点标识
+     */
+    public String getNodeId() {
+        return this.nodeId;
+    }
+
+    /**
+     * 设置节点标识,默认为随机UUID
+     *
+     * @param nodeId 节点标识
+     * @return this
+     */
+    public Scheduler setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+        return this;
+    }
+
+    /**
+     * 每次从任务存储认领的最大任务数
+     *
+     * @return 最大任务数
+     */
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    /**
+     * 任务存储的租约时长
+     *
+     * @return 租约毫秒数
+     */
+    public long getLeaseMillis() {
+        return this.leaseMillis;
+    }
+
+    /**
+     * 获得默认的错过执行处理策略
+     *
+     * @return {@link MisfirePolicy}
+     */
+    public MisfirePolicy getMisfirePolicy() {
+        return this.misfirePolicy;
+    }
+
+    /**
+     * 设置默认的错过执行处理策略,对之后加入且未单独指定策略的任务生效,默认为立即补偿执行一次
+     *
+     * @param policy {@link MisfirePolicy}
+     * @return this
+     */
+    public Scheduler setMisfirePolicy(MisfirePolicy policy) {
+        this.misfirePolicy = null == policy ? MisfirePolicy.FIRE_ONCE : policy;
+        return this;
+    }
+
     /**
      * 是否支持秒匹配
      *
@@ -297,6 +491,58 @@ public class Scheduler {
         return this;
     }
 
+    /**
+     * 新增Task
+     *
+     * @param id       ID,为每一个Task定义一个ID
+     * @param pattern  {@link CronPattern}对应的String表达式
+     * @param task     {@link Task}
+     * @param strategy 上一次执行尚未结束时的处理策略
+     * @return this
+     */
+    public Scheduler schedule(String id, String pattern, Task task, ExecutorBlockStrategy strategy) {
+        return schedule(id, new CronPattern(pattern), task, strategy);
+    }
+
+    /**
+     * 新增Task
+     *
+     * @param id       ID,为每一个Task定义一个ID
+     * @param pattern  {@link CronPattern}
+     * @param task     {@link Task}
+     * @param strategy 上一次执行尚未结束时的处理策略
+     * @return this
+     */
+    public Scheduler schedule(String id, CronPattern pattern, Task task, ExecutorBlockStrategy strategy) {
+        taskTable.add(id, pattern, task, strategy);
+        return this;
+    }
+
+    /**
+     * 新增Task
+     *
+     * @param id            ID,为每一个Task定义一个ID
+     * @param pattern       {@link CronPattern}
+     * @param task          {@link Task}
+     * @param strategy      上一次执行尚未结束时的处理策略
+     * @param misfirePolicy 错过执行点时的处理策略
+     * @return this
+     */
+    public Scheduler schedule(String id, CronPattern pattern, Task task, ExecutorBlockStrategy strategy, MisfirePolicy misfirePolicy) {
+        taskTable.add(id, pattern, task, strategy, misfirePolicy);
+        return this;
+    }
+
+    /**
+     * 获得指定id的Task执行统计
+     *
+     * @param id ID
+     * @return {@link TaskMetrics}
+     */
+    public TaskMetrics getMetrics(String id) {
+        return this.taskTable.getMetrics(id);
+    }
+
     /**
      * 移除Task
      *
@@ -397,11 +643,21 @@ public class Scheduler {
                 throw new InstrumentException("Schedule is started!");
             }
 
-            this.threadExecutor = ExecutorBuilder.create().useSynchronousQueue().setThreadFactory(//
-                    ThreadBuilder.create().setNamePrefix("exec-cron-").setDaemon(this.daemon).build()//
-            ).build();
+            this.threadExecutor = this.virtualThread ? newVirtualThreadExecutor() : null;
+            if (null == this.threadExecutor) {
+                this.threadExecutor = ExecutorBuilder.create()
+                        .setCorePoolSize(this.poolSize)
+                        .setMaxPoolSize(this.poolSize)
+                        .setAllowCoreThreadTimeOut(true)
+                        .useArrayBlockingQueue(this.queueCapacity)
+                        .setHandler(new ThreadPoolExecutor.AbortPolicy())
+                        .setThreadFactory(//
+                                ThreadBuilder.create().setNamePrefix("exec-cron-").setDaemon(this.daemon).build()//
+                        ).build();
+            }
             this.launcherManager = new LauncherManager(this);
             this.executorManager = new ExecutorManager(this);
+            this.taskTable.reschedule(System.currentTimeMillis());
 
             // Start CronTimer
             timer = new CronTimer(this);
@@ -455,4 +711,18 @@ public class Scheduler {
         return this;
     }
 
+    /**
+     * 创建虚拟线程执行器,当前JDK不支持时返回null
+     *
+     * @return 虚拟线程执行器
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            Logger.warn("Virtual thread is not supported by current JVM, use bounded thread pool instead.");
+            return null;
+        }
+    }
+
 }
@@ -26,6 +26,11 @@ package org.aoju.bus.cron;
 
 import org.aoju.bus.cron.factory.Task;
 
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
 /**
  * 作业执行器
  * 执行具体的作业,执行完毕销毁
@@ -38,10 +43,29 @@ public class TaskExecutor implements Runnable {
 
     private Scheduler scheduler;
     private Task task;
+    private TaskMetrics metrics;
+    /**
+     * 提交到线程池后的句柄,用于覆盖模式下中断执行
+     */
+    volatile Future<?> future;
+    /**
+     * 执行结束(包括被丢弃、覆盖或拒绝)后的回调,参数为是否执行成功,只调用一次
+     */
+    private final AtomicReference<Consumer<Boolean>> callback = new AtomicReference<>();
+    private volatile boolean succeeded;
+    /**
+     * 是否已开始执行,或已在开始前被取消
+     */
+    private final AtomicBoolean started = new AtomicBoolean();
 
     public TaskExecutor(Scheduler scheduler, Task task) {
+        this(scheduler, task, null);
+    }
+
+    public TaskExecutor(Scheduler scheduler, Task task, TaskMetrics metrics) {
         this.scheduler = scheduler;
         this.task = task;
+        this.metrics = metrics;
     }
 
     /**
@@ -53,11 +77,53 @@ public class TaskExecutor implements Runnable {
         return task;
     }
 
+    /**
+     * 获得任务的执行统计,未通过任务表执行时为null
+     *
+     * @return {@link TaskMetrics}
+     */
+    public TaskMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 设置执行结束后的回调
+     *
+     * @param callback 回调,参数为是否执行成功
+     */
+    void onCompleted(Consumer<Boolean> callback) {
+        this.callback.set(callback);
+    }
+
+    /**
+     * 执行结束,调用回调
+     */
+    void complete() {
+        final Consumer<Boolean> consumer = this.callback.getAndSet(null);
+        if (null != consumer) {
+            consumer.accept(succeeded);
+        }
+    }
+
+    /**
+     * 阻止尚未开始的执行
+     *
+     * @return 是否在开始前阻止成功, 失败说明已在执行
+     */
+    boolean preventStart() {
+        return started.compareAndSet(false, true);
+    }
+
     @Override
     public void run() {
+        if (false == started.compareAndSet(false, true)) {
+            // 开始前已被取消,回调由取消方负责
+            return;
+        }
         try {
             scheduler.listenerManager.notifyTaskStart(this);
             task.execute();
+            succeeded = true;
             scheduler.listenerManager.notifyTaskSucceeded(this);
         } catch (Exception e) {
             scheduler.listenerManager.notifyTaskFailed(this, e);
@@ -24,9 +24,11 @@
  ********************************************************************************/
 package org.aoju.bus.cron;
 
+import org.aoju.bus.logger.Logger;
+
 /**
  * 作业启动器
- * 负责检查<strong>TaskTable</strong>是否有匹配到此时运行的Task
+ * 负责从<strong>TaskTable</strong>中取出已到期的Task并启动
  * 检查完毕后启动器结束
  *
  * @author Kimi Liu
@@ -45,11 +47,16 @@ public class TaskLauncher implements Runnable {
 
     @Override
     public void run() {
-        //匹配秒部分由用户定义决定,始终不匹配年
-        scheduler.taskTable.executeTaskIfMatchInternal(millis);
-
-        //结束通知
-        scheduler.launcherManager.notifyLauncherCompleted(this);
+        try {
+            //只执行已到期的任务,下次执行时间由任务表维护
+            scheduler.taskTable.executeTaskIfDue(millis);
+        } catch (Exception e) {
+            //启动器在定时器线程或任务线程池中执行,异常不能终止定时器
+            Logger.error(e, "Launch tasks at [{}] error!", millis);
+        } finally {
+            //结束通知
+            scheduler.launcherManager.notifyLauncherCompleted(this);
+        }
     }
 
 }
@@ -0,0 +1,210 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.cron;
+
+import org.aoju.bus.core.toolkit.StringKit;
+import org.aoju.bus.cron.consts.ExecutorBlockStrategy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个任务的执行统计
+ * 记录任务触发后按{@link ExecutorBlockStrategy}处理产生的重叠、排队、丢弃、覆盖以及线程池拒绝次数,
+ * 以及错过的执行点个数和实际触发时间相对执行点的延迟
+ *
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public class TaskMetrics {
+
+    private final String id;
+    private final ExecutorBlockStrategy strategy;
+
+    /**
+     * 正在执行的执行器以及串行模式下等待的执行器,由{@link ExecutorManager}在本对象上同步访问
+     */
+    final List<TaskExecutor> executors = new ArrayList<>();
+    final Deque<TaskExecutor> waiting = new ArrayDeque<>();
+
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger queued = new AtomicInteger();
+    final LongAdder fired = new LongAdder();
+    final LongAdder overlapped = new LongAdder();
+    final LongAdder discarded = new LongAdder();
+    final LongAdder covered = new LongAdder();
+    final LongAdder rejected = new LongAdder();
+    final LongAdder misfired = new LongAdder();
+    final LongAdder totalLateness = new LongAdder();
+    final LongAccumulator maxLateness = new LongAccumulator(Math::max, 0);
+    volatile long lastLateness;
+
+    public TaskMetrics(String id, ExecutorBlockStrategy strategy) {
+        this.id = id;
+        this.strategy = strategy;
+    }
+
+    /**
+     * 任务ID
+     *
+     * @return 任务ID
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * 任务的阻塞处理策略
+     *
+     * @return {@link ExecutorBlockStrategy}
+     */
+    public ExecutorBlockStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * 正在执行的次数
+     *
+     * @return 正在执行的次数
+     */
+    public int getRunning() {
+        return running.get();
+    }
+
+    /**
+     * 串行模式下等待上一次执行结束的次数
+     *
+     * @return 排队深度
+     */
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    /**
+     * 累计触发次数
+     *
+     * @return 触发次数
+     */
+    public long getFired() {
+        return fired.sum();
+    }
+
+    /**
+     * 触发时上一次执行尚未结束的次数
+     *
+     * @return 重叠次数
+     */
+    public long getOverlapped() {
+        return overlapped.sum();
+    }
+
+    /**
+     * {@link ExecutorBlockStrategy#DISCARD_LATER}模式下丢弃的次数
+     *
+     * @return 丢弃次数
+     */
+    public long getDiscarded() {
+        return discarded.sum();
+    }
+
+    /**
+     * {@link ExecutorBlockStrategy#COVER_EARLY}模式下中断的早先执行次数
+     *
+     * @return 覆盖次数
+     */
+    public long getCovered() {
+        return covered.sum();
+    }
+
+    /**
+     * 线程池已满被拒绝的次数
+     *
+     * @return 拒绝次数
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * 错过的执行点个数
+     *
+     * @return 错过次数
+     */
+    public long getMisfired() {
+        return misfired.sum();
+    }
+
+    /**
+     * 最近一次触发相对执行点的延迟
+     *
+     * @return 延迟毫秒数
+     */
+    public long getLastLateness() {
+        return lastLateness;
+    }
+
+    /**
+     * 触发相对执行点的最大延迟
+     *
+     * @return 延迟毫秒数
+     */
+    public long getMaxLateness() {
+        return maxLateness.get();
+    }
+
+    /**
+     * 触发相对执行点的平均延迟
+     *
+     * @return 延迟毫秒数
+     */
+    public long getAverageLateness() {
+        final long fired = getFired();
+        return fired == 0 ? 0 : totalLateness.sum() / fired;
+    }
+
+    /**
+     * 记录一次触发的延迟
+     *
+     * @param lateness 延迟毫秒数
+     */
+    void recordLateness(long lateness) {
+        this.lastLateness = lateness;
+        this.totalLateness.add(lateness);
+        this.maxLateness.accumulate(lateness);
+    }
+
+    @Override
+    public String toString() {
+        return StringKit.format("TaskMetrics[id={}, strategy={}, running={}, queued={}, fired={}, overlapped={}, discarded={}, covered={}, rejected={}, misfired={}, maxLateness={}]",
+                id, strategy, getRunning(), getQueueDepth(), getFired(), getOverlapped(), getDiscarded(), getCovered(), getRejected(), getMisfired(), getMaxLateness());
+    }
+
+}
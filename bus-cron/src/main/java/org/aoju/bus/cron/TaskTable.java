@@ -25,19 +25,27 @@
 package org.aoju.bus.cron;
 
 import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.cron.consts.ExecutorBlockStrategy;
+import org.aoju.bus.cron.consts.MisfirePolicy;
 import org.aoju.bus.cron.factory.Task;
 import org.aoju.bus.cron.pattern.CronPattern;
+import org.aoju.bus.cron.store.JobRecord;
+import org.aoju.bus.cron.store.JobStore;
+import org.aoju.bus.logger.Logger;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.TimeZone;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * 定时任务表
- * 任务表将ID、表达式、任务一一对应,定时任务执行过程中,会周期性检查定时任务表中的所有任务表达式匹配情况,从而执行其对应的任务
+ * 任务表将ID、表达式、任务一一对应,并按下次执行时间维护一个优先队列,
+ * 定时器每次触发时只取出已到期的任务执行并计算其下次执行时间,不再逐个匹配全部任务表达式
+ * 设置了{@link JobStore}时,下次执行时间以存储为准,定时器每次触发时从存储批量认领到期的执行点
  * 任务的添加、移除使用读写锁保证线程安全性
  *
  * @author Kimi Liu
@@ -46,6 +54,11 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  */
 public class TaskTable {
 
+    /**
+     * 单次检查中最多统计的错过执行点个数
+     */
+    private static final int MAX_MISFIRE_SCAN = 10000;
+
     private ReadWriteLock lock = new ReentrantReadWriteLock();
 
     private Scheduler scheduler;
@@ -56,6 +69,15 @@ public class TaskTable {
     private List<Task> tasks = new ArrayList<>();
     private int size;
 
+    /**
+     * ID与触发器的对应关系
+     */
+    private Map<String, Trigger> triggers = new HashMap<>();
+    /**
+     * 按下次执行时间排序的触发器队列,被移除或更新的触发器仅做标记,出队时丢弃
+     */
+    private PriorityQueue<Trigger> queue = new PriorityQueue<>();
+
     /**
      * 构造
      *
@@ -67,7 +89,7 @@ public class TaskTable {
     }
 
     /**
-     * 新增Task
+     * 新增Task,使用调度器默认的阻塞处理策略
      *
      * @param id      ID
      * @param pattern {@link CronPattern}
@@ -75,19 +97,56 @@ public class TaskTable {
      * @return this
      */
     public TaskTable add(String id, CronPattern pattern, Task task) {
+        return add(id, pattern, task, null);
+    }
+
+    /**
+     * 新增Task
+     *
+     * @param id       ID
+     * @param pattern  {@link CronPattern}
+     * @param task     {@link Task}
+     * @param strategy 上一次执行尚未结束时的处理策略,为null时使用调度器默认策略
+     * @return this
+     */
+    public TaskTable add(String id, CronPattern pattern, Task task, ExecutorBlockStrategy strategy) {
+        return add(id, pattern, task, strategy, null);
+    }
+
+    /**
+     * 新增Task
+     *
+     * @param id            ID
+     * @param pattern       {@link CronPattern}
+     * @param task          {@link Task}
+     * @param strategy      上一次执行尚未结束时的处理策略,为null时使用调度器默认策略
+     * @param misfirePolicy 错过执行点时的处理策略,为null时使用调度器默认策略
+     * @return this
+     */
+    public TaskTable add(String id, CronPattern pattern, Task task, ExecutorBlockStrategy strategy, MisfirePolicy misfirePolicy) {
+        if (null == strategy) {
+            strategy = scheduler.getBlockStrategy();
+        }
+        if (null == misfirePolicy) {
+            misfirePolicy = scheduler.getMisfirePolicy();
+        }
         final Lock writeLock = lock.writeLock();
         try {
             writeLock.lock();
-            if (ids.contains(id)) {
+            if (triggers.containsKey(id)) {
                 throw new InstrumentException("Id [{}] has been existed!", id);
             }
             ids.add(id);
             patterns.add(pattern);
             tasks.add(task);
             size++;
+            schedule(new Trigger(id, pattern, task, new TaskMetrics(id, strategy), misfirePolicy), System.currentTimeMillis());
         } finally {
             writeLock.unlock();
         }
+        if (null != scheduler.jobStore && scheduler.isStarted()) {
+            register(scheduler.jobStore, id);
+        }
         return this;
     }
 
@@ -106,10 +165,14 @@ public class TaskTable {
                 patterns.remove(index);
                 ids.remove(index);
                 size--;
+                triggers.remove(id).cancelled = true;
             }
         } finally {
             writeLock.unlock();
         }
+        if (null != scheduler.jobStore) {
+            scheduler.jobStore.remove(id);
+        }
     }
 
     /**
@@ -121,16 +184,25 @@ public class TaskTable {
      */
     public boolean updatePattern(String id, CronPattern pattern) {
         final Lock writeLock = lock.writeLock();
+        final int index;
         try {
             writeLock.lock();
-            final int index = ids.indexOf(id);
+            index = ids.indexOf(id);
             if (index > -1) {
                 patterns.set(index, pattern);
-                return true;
+                final Trigger trigger = triggers.remove(id);
+                trigger.cancelled = true;
+                schedule(new Trigger(id, pattern, trigger.task, trigger.metrics, trigger.misfirePolicy), System.currentTimeMillis());
             }
         } finally {
             writeLock.unlock();
         }
+        if (index > -1) {
+            if (null != scheduler.jobStore) {
+                register(scheduler.jobStore, id);
+            }
+            return true;
+        }
         return false;
     }
 
@@ -212,6 +284,107 @@ public class TaskTable {
         return null;
     }
 
+    /**
+     * 获得指定id的Task下次执行时间
+     *
+     * @param id ID
+     * @return 下次执行时间毫秒数, 任务不存在或表达式不会再被匹配时返回-1
+     */
+    public long getNextFireTime(String id) {
+        final Lock readLock = lock.readLock();
+        try {
+            readLock.lock();
+            final Trigger trigger = triggers.get(id);
+            return null == trigger ? -1 : trigger.nextFireTime;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * 获得指定id的Task执行统计
+     *
+     * @param id ID
+     * @return {@link TaskMetrics}, 任务不存在时返回null
+     */
+    public TaskMetrics getMetrics(String id) {
+        final Lock readLock = lock.readLock();
+        try {
+            readLock.lock();
+            final Trigger trigger = triggers.get(id);
+            return null == trigger ? null : trigger.metrics;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * 以给定时间为起点重新计算所有Task的下次执行时间
+     * 在定时器启动时调用,使启动前加入的任务按照启动时的时区和秒匹配模式计算
+     *
+     * @param millis 时间毫秒
+     */
+    public void reschedule(long millis) {
+        final List<String> registered;
+        final Lock writeLock = lock.writeLock();
+        try {
+            writeLock.lock();
+            this.timezone = scheduler.getTimeZone();
+            queue.clear();
+            for (Trigger trigger : triggers.values()) {
+                schedule(trigger, millis);
+            }
+            registered = new ArrayList<>(ids);
+        } finally {
+            writeLock.unlock();
+        }
+        final JobStore store = scheduler.jobStore;
+        if (null != store) {
+            for (String id : registered) {
+                register(store, id);
+            }
+        }
+    }
+
+    /**
+     * 执行所有到期(下次执行时间不晚于给定时间)的Task,并计算其下次执行时间
+     * 执行点距给定时间超过一个定时单位(秒或分)视为错过,按任务的{@link MisfirePolicy}补偿
+     *
+     * @param millis 时间毫秒
+     */
+    public void executeTaskIfDue(long millis) {
+        if (null != scheduler.jobStore) {
+            executeStoredTaskIfDue(scheduler.jobStore, millis);
+            return;
+        }
+        // 加锁时只取出到期的触发器并推进下次执行时间,释放锁后再提交执行
+        final List<Trigger> due = new ArrayList<>();
+        final List<Long> fireTimes = new ArrayList<>();
+        final Lock writeLock = lock.writeLock();
+        try {
+            writeLock.lock();
+            Trigger trigger;
+            while (null != (trigger = queue.peek())) {
+                if (trigger.cancelled) {
+                    queue.poll();
+                    continue;
+                }
+                if (trigger.nextFireTime > millis) {
+                    break;
+                }
+                queue.poll();
+                due.add(trigger);
+                fireTimes.add(trigger.nextFireTime);
+                schedule(trigger, millis);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        for (int i = 0; i < due.size(); i++) {
+            fire(due.get(i), fireTimes.get(i), millis, null);
+        }
+    }
+
     /**
      * 如果时间匹配则执行相应的Task,带读锁
      *
@@ -240,4 +413,217 @@ public class TaskTable {
         }
     }
 
+    /**
+     * 从存储中批量认领到期的执行点并执行,只查询本节点注册的任务,其余留给其它节点
+     *
+     * @param store  {@link JobStore}
+     * @param millis 时间毫秒
+     */
+    private void executeStoredTaskIfDue(JobStore store, long millis) {
+        final String owner = scheduler.getNodeId();
+        final int batchSize = scheduler.getBatchSize();
+        final Set<String> ids;
+        final Lock idsLock = lock.readLock();
+        try {
+            idsLock.lock();
+            ids = new HashSet<>(triggers.keySet());
+        } finally {
+            idsLock.unlock();
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<JobRecord> due;
+        List<JobRecord> claimed;
+        do {
+            // 只查询本节点注册的任务,避免其它节点的到期任务占满批次
+            due = store.findDue(millis, batchSize, ids);
+            if (due.isEmpty()) {
+                return;
+            }
+
+            final List<JobRecord> candidates = new ArrayList<>(due.size());
+            final Map<String, Trigger> local = new HashMap<>();
+            final Lock readLock = lock.readLock();
+            try {
+                readLock.lock();
+                for (JobRecord record : due) {
+                    final Trigger trigger = triggers.get(record.getId());
+                    if (null == trigger) {
+                        continue;
+                    }
+                    final long next = trigger.pattern.nextMatchAfter(timezone, millis, this.scheduler.matchSecond);
+                    record.setLastFireTime(record.getNextFireTime());
+                    record.setNextFireTime(next > 0 ? next : Long.MAX_VALUE);
+                    candidates.add(record);
+                    local.put(record.getId(), trigger);
+                }
+            } finally {
+                readLock.unlock();
+            }
+
+            claimed = store.claim(candidates, owner, millis + scheduler.getLeaseMillis());
+            for (JobRecord record : claimed) {
+                final String id = record.getId();
+                fire(local.get(id), record.getLastFireTime(), millis, success -> release(store, id, owner, success));
+            }
+            // 认领成功的记录不会再被查出,整批认领成功说明可能还有更多到期的执行点
+        } while (due.size() >= batchSize && false == claimed.isEmpty());
+    }
+
+    /**
+     * 释放租约,失败时等待租约过期
+     */
+    private static void release(JobStore store, String id, String owner, boolean success) {
+        try {
+            store.release(id, owner, System.currentTimeMillis(), success);
+        } catch (Exception e) {
+            Logger.error(e, "Release lease of task [{}] error!", id);
+        }
+    }
+
+    /**
+     * 将任务注册到存储
+     *
+     * @param store {@link JobStore}
+     * @param id    任务ID
+     */
+    private void register(JobStore store, String id) {
+        final Trigger trigger;
+        final Lock readLock = lock.readLock();
+        try {
+            readLock.lock();
+            trigger = triggers.get(id);
+        } finally {
+            readLock.unlock();
+        }
+        if (null != trigger) {
+            final long next = trigger.pattern.nextMatchAfter(timezone, System.currentTimeMillis(), this.scheduler.matchSecond);
+            store.register(id, trigger.pattern.toString(), next > 0 ? next : Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * 触发到期的Task
+     *
+     * @param trigger  触发器
+     * @param fireTime 到期的执行点
+     * @param millis   当前时间毫秒
+     * @param callback 执行结束后的回调,可为null
+     */
+    private void fire(Trigger trigger, long fireTime, long millis, Consumer<Boolean> callback) {
+        final TaskMetrics metrics = trigger.metrics;
+        final long threshold = this.scheduler.matchSecond ? 1000L : 60000L;
+        if (millis - fireTime < threshold) {
+            spawn(trigger, millis - fireTime, callback);
+            return;
+        }
+
+        // 统计错过的执行点,仅最后一个执行点可能未超时
+        final long lateness = millis - fireTime;
+        final List<Long> latenesses = new ArrayList<>();
+        int missed = 0;
+        boolean onTime = false;
+        while (fireTime > 0 && fireTime <= millis && missed < MAX_MISFIRE_SCAN) {
+            if (millis - fireTime < threshold) {
+                onTime = true;
+                break;
+            }
+            missed++;
+            if (MisfirePolicy.FIRE_ALL == trigger.misfirePolicy) {
+                latenesses.add(millis - fireTime);
+            }
+            fireTime = trigger.pattern.nextMatchAfter(timezone, fireTime, this.scheduler.matchSecond);
+        }
+        metrics.misfired.add(missed);
+        this.scheduler.listenerManager.notifyTaskMisfired(metrics, missed, lateness);
+
+        if (MisfirePolicy.FIRE_ONCE == trigger.misfirePolicy) {
+            latenesses.add(lateness);
+        } else if (onTime) {
+            latenesses.add(millis - fireTime);
+        }
+        if (latenesses.isEmpty()) {
+            if (null != callback) {
+                callback.accept(true);
+            }
+            return;
+        }
+        // 补跑多次时,全部执行结束后才回调一次
+        final Consumer<Boolean> countDown = countDown(callback, latenesses.size());
+        for (long late : latenesses) {
+            spawn(trigger, late, countDown);
+        }
+    }
+
+    /**
+     * 合并多次执行的回调,最后一次执行结束时回调,任一次失败即视为失败
+     *
+     * @param callback 回调,可为null
+     * @param count    执行次数
+     * @return 合并后的回调
+     */
+    private static Consumer<Boolean> countDown(Consumer<Boolean> callback, int count) {
+        if (null == callback || count == 1) {
+            return callback;
+        }
+        final AtomicInteger remaining = new AtomicInteger(count);
+        final AtomicBoolean succeeded = new AtomicBoolean(true);
+        return success -> {
+            if (false == success) {
+                succeeded.set(false);
+            }
+            if (remaining.decrementAndGet() == 0) {
+                callback.accept(succeeded.get());
+            }
+        };
+    }
+
+    private void spawn(Trigger trigger, long lateness, Consumer<Boolean> callback) {
+        trigger.metrics.recordLateness(lateness);
+        this.scheduler.executorManager.spawnExecutor(trigger.task, trigger.metrics, callback);
+    }
+
+    /**
+     * 计算下次执行时间并加入队列,表达式不会再被匹配时不入队
+     *
+     * @param trigger 触发器
+     * @param millis  起始时间毫秒(不含)
+     */
+    private void schedule(Trigger trigger, long millis) {
+        triggers.put(trigger.id, trigger);
+        trigger.nextFireTime = trigger.pattern.nextMatchAfter(timezone, millis, this.scheduler.matchSecond);
+        if (trigger.nextFireTime > 0) {
+            queue.offer(trigger);
+        }
+    }
+
+    /**
+     * 任务触发器,记录任务及其下次执行时间
+     */
+    private static class Trigger implements Comparable<Trigger> {
+
+        private final String id;
+        private final CronPattern pattern;
+        private final Task task;
+        private final TaskMetrics metrics;
+        private final MisfirePolicy misfirePolicy;
+        private long nextFireTime;
+        private boolean cancelled;
+
+        Trigger(String id, CronPattern pattern, Task task, TaskMetrics metrics, MisfirePolicy misfirePolicy) {
+            this.id = id;
+            this.pattern = pattern;
+            this.task = task;
+            this.metrics = metrics;
+            this.misfirePolicy = misfirePolicy;
+        }
+
+        @Override
+        public int compareTo(Trigger other) {
+            return Long.compare(this.nextFireTime, other.nextFireTime);
+        }
+
+    }
+
 }
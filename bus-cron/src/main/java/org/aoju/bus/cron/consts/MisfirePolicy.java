@@ -0,0 +1,71 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.cron.consts;
+
+/**
+ * 错过执行的处理策略
+ * 定时器因长时间GC、进程挂起或系统时间向前调整而错过执行点时,决定如何补偿
+ *
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public enum MisfirePolicy {
+
+    /**
+     * 立即补偿执行一次
+     */
+    FIRE_ONCE("Fire once now"),
+    /**
+     * 补偿执行每一个错过的执行点
+     */
+    FIRE_ALL("Fire all missed"),
+    /**
+     * 忽略错过的执行点,等待下一个执行点
+     */
+    SKIP("Skip missed");
+
+    private String title;
+
+    MisfirePolicy(String title) {
+        this.title = title;
+    }
+
+    public static MisfirePolicy match(String name, MisfirePolicy defaultItem) {
+        if (name != null) {
+            for (MisfirePolicy item : MisfirePolicy.values()) {
+                if (item.name().equals(name)) {
+                    return item;
+                }
+            }
+        }
+        return defaultItem;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+}
@@ -25,6 +25,7 @@
 package org.aoju.bus.cron.listener;
 
 import org.aoju.bus.cron.TaskExecutor;
+import org.aoju.bus.cron.TaskMetrics;
 
 /**
  * 定时任务监听接口
@@ -58,4 +59,31 @@ public interface TaskListener {
      */
     void onFailed(TaskExecutor executor, Throwable exception);
 
+    /**
+     * 任务触发时上一次执行尚未结束,按任务的阻塞处理策略排队、丢弃、覆盖或并行执行后触发
+     * 重叠、排队及丢弃次数见{@link TaskExecutor#getMetrics()}
+     *
+     * @param executor {@link TaskExecutor}
+     */
+    default void onBlocked(TaskExecutor executor) {
+    }
+
+    /**
+     * 线程池已满或串行等待队列已满,任务被拒绝执行时触发
+     *
+     * @param executor {@link TaskExecutor}
+     */
+    default void onRejected(TaskExecutor executor) {
+    }
+
+    /**
+     * 任务错过执行点时触发,在按错过策略补偿执行之前调用
+     *
+     * @param metrics  任务的执行统计
+     * @param missed   本次发现的错过执行点个数
+     * @param lateness 最早错过的执行点到当前的延迟毫秒数
+     */
+    default void onMisfired(TaskMetrics metrics, int missed, long lateness) {
+    }
+
 }
@@ -25,6 +25,7 @@
 package org.aoju.bus.cron.listener;
 
 import org.aoju.bus.cron.TaskExecutor;
+import org.aoju.bus.cron.TaskMetrics;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -115,4 +116,51 @@ public class TaskListenerManager {
         }
     }
 
+    /**
+     * 通知所有监听任务触发时发生重叠
+     *
+     * @param executor {@link TaskExecutor}
+     */
+    public void notifyTaskBlocked(TaskExecutor executor) {
+        synchronized (listeners) {
+            int size = listeners.size();
+            for (int i = 0; i < size; i++) {
+                TaskListener listenerl = listeners.get(i);
+                listenerl.onBlocked(executor);
+            }
+        }
+    }
+
+    /**
+     * 通知所有监听任务被拒绝执行
+     *
+     * @param executor {@link TaskExecutor}
+     */
+    public void notifyTaskRejected(TaskExecutor executor) {
+        synchronized (listeners) {
+            int size = listeners.size();
+            for (int i = 0; i < size; i++) {
+                TaskListener listenerl = listeners.get(i);
+                listenerl.onRejected(executor);
+            }
+        }
+    }
+
+    /**
+     * 通知所有监听任务错过执行点
+     *
+     * @param metrics  任务的执行统计
+     * @param missed   错过的执行点个数
+     * @param lateness 最早错过的执行点到当前的延迟毫秒数
+     */
+    public void notifyTaskMisfired(TaskMetrics metrics, int missed, long lateness) {
+        synchronized (listeners) {
+            int size = listeners.size();
+            for (int i = 0; i < size; i++) {
+                TaskListener listenerl = listeners.get(i);
+                listenerl.onMisfired(metrics, missed, lateness);
+            }
+        }
+    }
+
 }
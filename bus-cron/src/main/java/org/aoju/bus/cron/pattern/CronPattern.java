@@ -29,7 +29,7 @@ import org.aoju.bus.core.lang.exception.InstrumentException;
 import org.aoju.bus.core.toolkit.DateKit;
 import org.aoju.bus.core.toolkit.StringKit;
 import org.aoju.bus.cron.pattern.matcher.AlwaysTrueValueMatcher;
-import org.aoju.bus.cron.pattern.matcher.DayOfMonthValueMatcher;
+import org.aoju.bus.cron.pattern.matcher.BoolArrayValueMatcher;
 import org.aoju.bus.cron.pattern.matcher.ValueMatcher;
 import org.aoju.bus.cron.pattern.matcher.ValueMatcherBuilder;
 import org.aoju.bus.cron.pattern.parser.*;
@@ -105,6 +105,25 @@ public class CronPattern {
     private static final ValueParser DAY_OF_WEEK_VALUE_PARSER = new DayOfWeekValueParser();
     private static final ValueParser YEAR_VALUE_PARSER = new YearValueParser();
 
+    /**
+     * 计算下次执行时间时最多向后查找的年数,超出则认为表达式不会再被匹配
+     */
+    private static final int MAX_SEARCH_YEARS = 100;
+
+    private static final long MILLIS_PER_DAY = 86400000L;
+    private static final int[] LAST_DAYS = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+    /**
+     * 日字段中表示每月最后一天的位
+     */
+    private static final int LAST_DAY_OF_MONTH = 32;
+
+    private static final long SECOND_RANGE = (1L << 60) - 1;
+    private static final long MINUTE_RANGE = (1L << 60) - 1;
+    private static final long HOUR_RANGE = (1L << 24) - 1;
+    private static final long DAY_OF_MONTH_RANGE = ((1L << 33) - 1) & ~1L;
+    private static final long MONTH_RANGE = ((1L << 13) - 1) & ~1L;
+    private static final long DAY_OF_WEEK_RANGE = (1L << 7) - 1;
+
     private String pattern;
 
     /**
@@ -140,6 +159,20 @@ public class CronPattern {
      */
     private int matcherSize;
 
+    /**
+     * 以下为各单一表达式编译后的位图,第n位为1表示字段值n匹配,日字段的第32位表示每月最后一天
+     */
+    private long[] secondBits;
+    private long[] minuteBits;
+    private long[] hourBits;
+    private long[] dayOfMonthBits;
+    private long[] monthBits;
+    private long[] dayOfWeekBits;
+    /**
+     * 年字段匹配器,全部匹配时为null
+     */
+    private ValueMatcher[] years;
+
     /**
      * 构造
      *
@@ -149,33 +182,7 @@ public class CronPattern {
     public CronPattern(String pattern) {
         this.pattern = pattern;
         parseGroupPattern(pattern);
-    }
-
-    /**
-     * 是否匹配日(指定月份的第几天)
-     *
-     * @param matcher    {@link ValueMatcher}
-     * @param dayOfMonth 日
-     * @param month      月
-     * @param isLeapYear 是否闰年
-     * @return 是否匹配
-     */
-    private static boolean isMatchDayOfMonth(ValueMatcher matcher, int dayOfMonth, int month, boolean isLeapYear) {
-        return ((matcher instanceof DayOfMonthValueMatcher)
-                ? ((DayOfMonthValueMatcher) matcher).match(dayOfMonth, month, isLeapYear)
-                : matcher.match(dayOfMonth));
-    }
-
-    /**
-     * 是否匹配指定的日期时间位置
-     *
-     * @param matchers 匹配器列表
-     * @param index    位置
-     * @param value    被匹配的值
-     * @return 是否匹配
-     */
-    private static boolean isMatch(List<ValueMatcher> matchers, int index, int value) {
-        return (matchers.size() > index) ? matchers.get(index).match(value) : true;
+        compile();
     }
 
     /**
@@ -191,6 +198,7 @@ public class CronPattern {
 
     /**
      * 给定时间是否匹配定时任务表达式
+     * 日期字段由epoch day直接换算,不创建{@link Calendar}
      *
      * @param timezone      时区 {@link TimeZone}
      * @param millis        时间毫秒数
@@ -198,9 +206,12 @@ public class CronPattern {
      * @return 如果匹配返回 <code>true</code>, 否则返回 <code>false</code>
      */
     public boolean match(TimeZone timezone, long millis, boolean isMatchSecond) {
-        final GregorianCalendar calendar = new GregorianCalendar(timezone);
-        calendar.setTimeInMillis(millis);
-        return match(calendar, isMatchSecond);
+        final long local = millis + timezone.getOffset(millis);
+        final long epochDay = Math.floorDiv(local, MILLIS_PER_DAY);
+        final int secondOfDay = (int) (Math.floorMod(local, MILLIS_PER_DAY) / 1000);
+        final long date = toDate(epochDay);
+        return match(secondOfDay % 60, secondOfDay / 60 % 60, secondOfDay / 3600,
+                dayOf(date), monthOf(date), dayOfWeek(epochDay), yearOf(date), isMatchSecond);
     }
 
     /**
@@ -211,30 +222,324 @@ public class CronPattern {
      * @return 如果匹配返回 <code>true</code>, 否则返回 <code>false</code>
      */
     public boolean match(GregorianCalendar calendar, boolean isMatchSecond) {
-        final int second = calendar.get(Calendar.SECOND);
-        final int minute = calendar.get(Calendar.MINUTE);
-        final int hour = calendar.get(Calendar.HOUR_OF_DAY);
-        final int dayOfMonth = calendar.get(Calendar.DAY_OF_MONTH);
-        final int month = calendar.get(Calendar.MONTH) + 1;// 月份从1开始
-        final int dayOfWeek = calendar.get(Calendar.DAY_OF_WEEK) - 1; // 星期从0开始,0和7都表示周日
-        final int year = calendar.get(Calendar.YEAR);
-
-        boolean eval;
+        return match(calendar.get(Calendar.SECOND),
+                calendar.get(Calendar.MINUTE),
+                calendar.get(Calendar.HOUR_OF_DAY),
+                calendar.get(Calendar.DAY_OF_MONTH),
+                calendar.get(Calendar.MONTH) + 1,// 月份从1开始
+                calendar.get(Calendar.DAY_OF_WEEK) - 1,// 星期从0开始,0和7都表示周日
+                calendar.get(Calendar.YEAR),
+                isMatchSecond);
+    }
+
+    /**
+     * 计算给定时间之后(不含)下一个匹配表达式的时间
+     *
+     * @param timezone      时区 {@link TimeZone}
+     * @param millis        时间毫秒数
+     * @param isMatchSecond 是否匹配秒,不匹配秒时结果总是整分
+     * @return 下一个匹配的时间毫秒数, 表达式不会再被匹配时返回-1
+     */
+    public long nextMatchAfter(TimeZone timezone, long millis, boolean isMatchSecond) {
+        final long unit = isMatchSecond ? 1000L : 60000L;
+        final long start = (Math.floorDiv(millis, unit) + 1) * unit;
+
+        long result = -1;
+        long next;
         for (int i = 0; i < matcherSize; i++) {
-            eval = (isMatchSecond ? secondMatchers.get(i).match(second) : true) // 匹配秒(非秒匹配模式下始终返回true)
-                    && minuteMatchers.get(i).match(minute)// 匹配分
-                    && hourMatchers.get(i).match(hour)// 匹配时
-                    && isMatchDayOfMonth(dayOfMonthMatchers.get(i), dayOfMonth, month, calendar.isLeapYear(year))// 匹配日
-                    && monthMatchers.get(i).match(month) // 匹配月
-                    && dayOfWeekMatchers.get(i).match(dayOfWeek)// 匹配周
-                    && isMatch(yearMatchers, i, year);// 匹配年
-            if (eval) {
+            next = nextMatchFrom(i, timezone, start, isMatchSecond);
+            if (next > 0 && (result < 0 || next < result)) {
+                result = next;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 按字段值匹配所有单一表达式
+     */
+    private boolean match(int second, int minute, int hour, int dayOfMonth, int month, int dayOfWeek, int year, boolean isMatchSecond) {
+        final int lengthOfMonth = lengthOfMonth(year, month);
+        for (int i = 0; i < matcherSize; i++) {
+            if ((false == isMatchSecond || isSet(secondBits[i], second)) // 匹配秒(非秒匹配模式下始终返回true)
+                    && isSet(minuteBits[i], minute) // 匹配分
+                    && isSet(hourBits[i], hour) // 匹配时
+                    && isMatchDayOfMonth(dayOfMonthBits[i], dayOfMonth, lengthOfMonth) // 匹配日
+                    && isSet(monthBits[i], month) // 匹配月
+                    && isSet(dayOfWeekBits[i], dayOfWeek) // 匹配周
+                    && (null == years[i] || years[i].match(year))) { // 匹配年
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * 从指定时间(含)开始, 按年、月、日、时、分、秒逐级跳到下一个匹配值, 查找单一表达式的下一个匹配时间
+     *
+     * @param index         单一表达式位置
+     * @param timezone      时区
+     * @param start         开始时间毫秒数
+     * @param isMatchSecond 是否匹配秒
+     * @return 匹配的时间毫秒数, 未找到返回-1
+     */
+    private long nextMatchFrom(int index, TimeZone timezone, long start, boolean isMatchSecond) {
+        final int startOffset = timezone.getOffset(start);
+        final long local = start + startOffset;
+        final long date = toDate(Math.floorDiv(local, MILLIS_PER_DAY));
+        final int secondOfDay = (int) (Math.floorMod(local, MILLIS_PER_DAY) / 1000);
+
+        int year = yearOf(date);
+        int month = monthOf(date);
+        int day = dayOf(date);
+        int hour = secondOfDay / 3600;
+        int minute = secondOfDay / 60 % 60;
+        int second = isMatchSecond ? secondOfDay % 60 : 0;
+        final int maxYear = year + MAX_SEARCH_YEARS;
+
+        int next;
+        long candidate;
+        while (year <= maxYear) {
+            // 某一级没有可匹配的值时向上一级进位,进位后低位字段从最小值开始
+            if (null != years[index] && false == years[index].match(year)) {
+                year++;
+                month = day = 1;
+                hour = minute = second = 0;
+                continue;
+            }
+            next = nextSetBit(monthBits[index], month);
+            if (next < 0) {
+                year++;
+                month = day = 1;
+                hour = minute = second = 0;
+                continue;
+            }
+            if (next != month) {
+                month = next;
+                day = 1;
+                hour = minute = second = 0;
+            }
+            next = nextDayOfMonth(index, year, month, day);
+            if (next < 0) {
+                month++;
+                day = 1;
+                hour = minute = second = 0;
+                continue;
+            }
+            if (next != day) {
+                day = next;
+                hour = minute = second = 0;
+            }
+            next = nextSetBit(hourBits[index], hour);
+            if (next < 0) {
+                day++;
+                hour = minute = second = 0;
+                continue;
+            }
+            if (next != hour) {
+                hour = next;
+                minute = second = 0;
+            }
+            next = nextSetBit(minuteBits[index], minute);
+            if (next < 0) {
+                hour++;
+                minute = second = 0;
+                continue;
+            }
+            if (next != minute) {
+                minute = next;
+                second = 0;
+            }
+            if (isMatchSecond) {
+                next = nextSetBit(secondBits[index], second);
+                if (next < 0) {
+                    minute++;
+                    second = 0;
+                    continue;
+                }
+                second = next;
+            }
+
+            candidate = toUtc(timezone, (toEpochDay(year, month, day) * 86400L + hour * 3600 + minute * 60 + second) * 1000L, startOffset);
+            if (candidate >= start) {
+                return candidate;
+            }
+            if (isMatchSecond) {
+                second++;
+            } else {
+                minute++;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 查找指定月份中不早于给定日、且同时匹配日和星期的下一天
+     *
+     * @return 日, 未找到返回-1
+     */
+    private int nextDayOfMonth(int index, int year, int month, int from) {
+        final int lengthOfMonth = lengthOfMonth(year, month);
+        long days = dayOfMonthBits[index];
+        if (isSet(days, LAST_DAY_OF_MONTH)) {
+            days |= 1L << lengthOfMonth;
+        }
+        days &= (1L << (lengthOfMonth + 1)) - 1;
+
+        final int firstDayOfWeek = dayOfWeek(toEpochDay(year, month, 1));
+        for (int day = nextSetBit(days, from); day > 0; day = nextSetBit(days, day + 1)) {
+            if (isSet(dayOfWeekBits[index], (firstDayOfWeek + day - 1) % 7)) {
+                return day;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 将本地时间换算为UTC时间
+     * 夏令时跳过的本地时间不存在, 与逐个时间点匹配的行为一致不触发; 重叠的本地时间优先使用给定的时区偏移
+     *
+     * @param timezone        时区
+     * @param local           本地时间毫秒数
+     * @param preferredOffset 优先使用的时区偏移
+     * @return UTC时间毫秒数, 本地时间不存在时返回{@link Long#MIN_VALUE}
+     */
+    private static long toUtc(TimeZone timezone, long local, int preferredOffset) {
+        long utc = local - preferredOffset;
+        final int offset = timezone.getOffset(utc);
+        if (offset != preferredOffset) {
+            utc = local - offset;
+            if (timezone.getOffset(utc) != offset) {
+                return Long.MIN_VALUE;
+            }
+        }
+        return utc;
+    }
+
+    private static boolean isSet(long bits, int value) {
+        return (bits & (1L << value)) != 0;
+    }
+
+    /**
+     * 位图中不小于给定值的最小匹配值
+     *
+     * @return 匹配值, 不存在返回-1
+     */
+    private static int nextSetBit(long bits, int from) {
+        if (from > 63) {
+            return -1;
+        }
+        final long remain = bits & (-1L << from);
+        return remain == 0 ? -1 : Long.numberOfTrailingZeros(remain);
+    }
+
+    private static boolean isMatchDayOfMonth(long bits, int dayOfMonth, int lengthOfMonth) {
+        return isSet(bits, dayOfMonth) || (dayOfMonth == lengthOfMonth && isSet(bits, LAST_DAY_OF_MONTH));
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return month == 2 && isLeapYear(year) ? 29 : LAST_DAYS[month - 1];
+    }
+
+    /**
+     * 星期,0表示周日,1970-01-01为周四
+     */
+    private static int dayOfWeek(long epochDay) {
+        return (int) Math.floorMod(epochDay + 4, 7);
+    }
+
+    /**
+     * epoch day换算为年月日,结果以(年 &lt;&lt; 9 | 月 &lt;&lt; 5 | 日)的形式保存在一个long中
+     */
+    private static long toDate(long epochDay) {
+        final long z = epochDay + 719468;
+        final long era = Math.floorDiv(z, 146097);
+        final long dayOfEra = z - era * 146097;
+        final long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        final long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final long mp = (5 * dayOfYear + 2) / 153;
+        final long day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        final long month = mp < 10 ? mp + 3 : mp - 9;
+        final long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year << 9 | month << 5 | day;
+    }
+
+    private static int yearOf(long date) {
+        return (int) (date >> 9);
+    }
+
+    private static int monthOf(long date) {
+        return (int) (date >> 5) & 0xF;
+    }
+
+    private static int dayOf(long date) {
+        return (int) date & 0x1F;
+    }
+
+    /**
+     * 年月日换算为epoch day
+     */
+    private static long toEpochDay(int year, int month, int day) {
+        final long y = month <= 2 ? year - 1 : year;
+        final long era = Math.floorDiv(y, 400);
+        final long yearOfEra = y - era * 400;
+        final long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        final long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * 字段匹配器转换为位图
+     *
+     * @param matcher 匹配器
+     * @param range   字段取值范围的位图
+     * @return 位图
+     */
+    private static long toBits(ValueMatcher matcher, long range) {
+        if (matcher instanceof AlwaysTrueValueMatcher) {
+            return range;
+        }
+        if (matcher instanceof BoolArrayValueMatcher) {
+            return ((BoolArrayValueMatcher) matcher).getBits() & range;
+        }
+        long bits = 0;
+        for (int value = 0; value < 64; value++) {
+            if (isSet(range, value) && matcher.match(value)) {
+                bits |= 1L << value;
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * 将解析得到的匹配器编译为位图,匹配时不再装箱
+     */
+    private void compile() {
+        secondBits = new long[matcherSize];
+        minuteBits = new long[matcherSize];
+        hourBits = new long[matcherSize];
+        dayOfMonthBits = new long[matcherSize];
+        monthBits = new long[matcherSize];
+        dayOfWeekBits = new long[matcherSize];
+        years = new ValueMatcher[matcherSize];
+        long dayOfWeek;
+        for (int i = 0; i < matcherSize; i++) {
+            secondBits[i] = toBits(secondMatchers.get(i), SECOND_RANGE);
+            minuteBits[i] = toBits(minuteMatchers.get(i), MINUTE_RANGE);
+            hourBits[i] = toBits(hourMatchers.get(i), HOUR_RANGE);
+            dayOfMonthBits[i] = toBits(dayOfMonthMatchers.get(i), DAY_OF_MONTH_RANGE);
+            monthBits[i] = toBits(monthMatchers.get(i), MONTH_RANGE);
+            // 范围表达式中的7同样表示周日
+            dayOfWeek = toBits(dayOfWeekMatchers.get(i), DAY_OF_WEEK_RANGE | 1L << 7);
+            dayOfWeekBits[i] = (dayOfWeek | dayOfWeek >>> 7) & DAY_OF_WEEK_RANGE;
+            years[i] = yearMatchers.get(i) instanceof AlwaysTrueValueMatcher ? null : yearMatchers.get(i);
+        }
+    }
+
     @Override
     public String toString() {
         return this.pattern;
@@ -315,7 +620,7 @@ public class CronPattern {
                 throw new InstrumentException("Invalid pattern [{}], parsing 'year' field error!", pattern);
             }
         } else {// 不支持年的表达式,全部匹配
-            this.secondMatchers.add(new AlwaysTrueValueMatcher());
+            this.yearMatchers.add(new AlwaysTrueValueMatcher());
         }
         matcherSize++;
     }
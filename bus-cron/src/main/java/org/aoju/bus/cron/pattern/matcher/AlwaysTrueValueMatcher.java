@@ -40,6 +40,11 @@ public class AlwaysTrueValueMatcher implements ValueMatcher {
         return true;
     }
 
+    @Override
+    public boolean match(int value) {
+        return true;
+    }
+
     @Override
     public String toString() {
         return StringKit.format("[Matcher]: always true.");
@@ -24,13 +24,13 @@
  ********************************************************************************/
 package org.aoju.bus.cron.pattern.matcher;
 
+import org.aoju.bus.core.lang.exception.InstrumentException;
 import org.aoju.bus.core.toolkit.StringKit;
 
-import java.util.Collections;
 import java.util.List;
 
 /**
- * 将表达式中的数字值列表转换为Boolean数组,匹配时匹配相应数组位
+ * 将表达式中的数字值列表转换为long位图,匹配时检查相应的位,值的范围为0~63
  *
  * @author Kimi Liu
  * @version 5.9.6
@@ -38,25 +38,38 @@ import java.util.List;
  */
 public class BoolArrayValueMatcher implements ValueMatcher {
 
-    boolean[] bValues;
+    long bits;
 
     public BoolArrayValueMatcher(List<Integer> intValueList) {
-        bValues = new boolean[Collections.max(intValueList) + 1];
         for (Integer value : intValueList) {
-            bValues[value] = true;
+            if (value < 0 || value > 63) {
+                throw new InstrumentException("Value %d out of range [0, 63]", value);
+            }
+            bits |= 1L << value;
         }
     }
 
     @Override
     public boolean match(Integer value) {
-        if (null == value || value >= bValues.length) {
-            return false;
-        }
-        return bValues[value];
+        return null != value && match(value.intValue());
+    }
+
+    @Override
+    public boolean match(int value) {
+        return value >= 0 && value < 64 && (bits & (1L << value)) != 0;
+    }
+
+    /**
+     * 获得匹配值的位图,第n位为1表示匹配值n
+     *
+     * @return 位图
+     */
+    public long getBits() {
+        return bits;
     }
 
     @Override
     public String toString() {
-        return StringKit.format("Matcher:{}", this.bValues);
+        return StringKit.format("Matcher:{}", Long.toBinaryString(this.bits));
     }
 }
@@ -36,4 +36,14 @@ import org.aoju.bus.core.lang.Matcher;
  */
 public interface ValueMatcher extends Matcher<Integer> {
 
+    /**
+     * 匹配基本类型的值,避免装箱
+     *
+     * @param value 被匹配的值
+     * @return 是否匹配
+     */
+    default boolean match(int value) {
+        return match(Integer.valueOf(value));
+    }
+
 }
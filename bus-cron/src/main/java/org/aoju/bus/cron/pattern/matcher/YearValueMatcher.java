@@ -24,11 +24,13 @@
  ********************************************************************************/
 package org.aoju.bus.cron.pattern.matcher;
 
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * 年匹配
- * 考虑年数字太大,不适合boolean数组,单独使用列表遍历匹配
+ * 考虑年数字太大,以最小年份为偏移量存储为位图
  *
  * @author Kimi Liu
  * @version 5.9.6
@@ -36,15 +38,24 @@ import java.util.List;
  */
 public class YearValueMatcher implements ValueMatcher {
 
-    private List<Integer> valueList;
+    private final int min;
+    private final BitSet values = new BitSet();
 
     public YearValueMatcher(List<Integer> intValueList) {
-        this.valueList = intValueList;
+        this.min = Collections.min(intValueList);
+        for (Integer value : intValueList) {
+            values.set(value - min);
+        }
     }
 
     @Override
     public boolean match(Integer t) {
-        return valueList.contains(t);
+        return null != t && match(t.intValue());
+    }
+
+    @Override
+    public boolean match(int value) {
+        return value >= min && values.get(value - min);
     }
 
 }
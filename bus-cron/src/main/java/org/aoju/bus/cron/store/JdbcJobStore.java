@@ -0,0 +1,295 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.cron.store;
+
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.toolkit.StringKit;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.*;
+
+/**
+ * 基于JDBC的任务存储
+ * 表结构见{@link #DDL},可通过{@link #init()}在表不存在时自动创建
+ * 认领执行点时以版本号做乐观锁,认领成功的节点同时获得带过期时间的租约,
+ * 节点在执行期间宕机时租约到期后其它节点可继续认领之后的执行点,已认领的执行点不会补跑
+ *
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public class JdbcJobStore implements JobStore {
+
+    /**
+     * 默认表名
+     */
+    public static final String DEFAULT_TABLE = "cron_job";
+
+    /**
+     * 建表语句,{}为表名
+     */
+    public static final String DDL = "CREATE TABLE {} ("
+            + "id VARCHAR(128) NOT NULL PRIMARY KEY, "
+            + "pattern VARCHAR(512) NOT NULL, "
+            + "next_fire_time BIGINT NOT NULL, "
+            + "last_fire_time BIGINT NOT NULL, "
+            + "last_finish_time BIGINT NOT NULL, "
+            + "last_succeeded INT NOT NULL, "
+            + "lease_owner VARCHAR(128), "
+            + "lease_until BIGINT NOT NULL, "
+            + "version BIGINT NOT NULL)";
+
+    /**
+     * 单条查询语句中IN条件的最大参数个数
+     */
+    private static final int MAX_IN_PARAMS = 500;
+
+    private static final String COLUMNS = "id, pattern, next_fire_time, last_fire_time, last_finish_time, last_succeeded, lease_owner, lease_until, version";
+
+    private final DataSource dataSource;
+    private final String table;
+
+    private final String selectPatternSql;
+    private final String insertSql;
+    private final String updatePatternSql;
+    private final String deleteSql;
+    private final String findDueSql;
+    private final String selectLeaseSql;
+    private final String claimSql;
+    private final String releaseSql;
+
+    public JdbcJobStore(DataSource dataSource) {
+        this(dataSource, DEFAULT_TABLE);
+    }
+
+    public JdbcJobStore(DataSource dataSource, String table) {
+        if (null == table || false == table.matches("[A-Za-z_][A-Za-z0-9_.]*")) {
+            throw new IllegalArgumentException("Invalid table name: " + table);
+        }
+        this.dataSource = dataSource;
+        this.table = table;
+
+        this.selectPatternSql = "SELECT pattern FROM " + table + " WHERE id = ?";
+        this.insertSql = "INSERT INTO " + table + " (" + COLUMNS + ") VALUES (?, ?, ?, 0, 0, 0, NULL, 0, 0)";
+        this.updatePatternSql = "UPDATE " + table + " SET pattern = ?, next_fire_time = ?, version = version + 1 WHERE id = ?";
+        this.deleteSql = "DELETE FROM " + table + " WHERE id = ?";
+        this.findDueSql = "SELECT " + COLUMNS + " FROM " + table
+                + " WHERE next_fire_time <= ? AND (lease_owner IS NULL OR lease_until < ?) AND id IN ({}) ORDER BY next_fire_time";
+        this.selectLeaseSql = "SELECT lease_owner, version FROM " + table + " WHERE id = ?";
+        this.claimSql = "UPDATE " + table + " SET next_fire_time = ?, last_fire_time = ?, lease_owner = ?, lease_until = ?, version = version + 1"
+                + " WHERE id = ? AND version = ?";
+        this.releaseSql = "UPDATE " + table + " SET lease_owner = NULL, lease_until = 0, last_finish_time = ?, last_succeeded = ?"
+                + " WHERE id = ? AND lease_owner = ?";
+    }
+
+    /**
+     * 表不存在时创建
+     *
+     * @return this
+     */
+    public JdbcJobStore init() {
+        try (Connection conn = dataSource.getConnection()) {
+            final DatabaseMetaData meta = conn.getMetaData();
+            for (String name : new String[]{table, table.toUpperCase(), table.toLowerCase()}) {
+                try (ResultSet rs = meta.getTables(null, null, name, new String[]{"TABLE"})) {
+                    if (rs.next()) {
+                        return this;
+                    }
+                }
+            }
+            try (Statement statement = conn.createStatement()) {
+                statement.execute(StringKit.format(DDL, table));
+            }
+        } catch (SQLException e) {
+            throw new InstrumentException(e);
+        }
+        return this;
+    }
+
+    @Override
+    public void register(String id, String pattern, long nextFireTime) {
+        try (Connection conn = dataSource.getConnection()) {
+            final String existed = selectPattern(conn, id);
+            if (null == existed) {
+                try (PreparedStatement ps = conn.prepareStatement(insertSql)) {
+                    ps.setString(1, id);
+                    ps.setString(2, pattern);
+                    ps.setLong(3, nextFireTime);
+                    ps.executeUpdate();
+                    return;
+                } catch (SQLException e) {
+                    // 其它节点并发注册了同一任务
+                    if (null == selectPattern(conn, id)) {
+                        throw e;
+                    }
+                }
+            } else if (false == existed.equals(pattern)) {
+                try (PreparedStatement ps = conn.prepareStatement(updatePatternSql)) {
+                    ps.setString(1, pattern);
+                    ps.setLong(2, nextFireTime);
+                    ps.setString(3, id);
+                    ps.executeUpdate();
+                }
+            }
+        } catch (SQLException e) {
+            throw new InstrumentException(e);
+        }
+    }
+
+    @Override
+    public void remove(String id) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(deleteSql)) {
+            ps.setString(1, id);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new InstrumentException(e);
+        }
+    }
+
+    @Override
+    public List<JobRecord> findDue(long millis, int limit, Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<String> idList = new ArrayList<>(ids);
+        final List<JobRecord> records = new ArrayList<>();
+        try (Connection conn = dataSource.getConnection()) {
+            for (int from = 0; from < idList.size(); from += MAX_IN_PARAMS) {
+                final List<String> chunk = idList.subList(from, Math.min(from + MAX_IN_PARAMS, idList.size()));
+                final String sql = StringKit.format(findDueSql, String.join(", ", Collections.nCopies(chunk.size(), "?")));
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setMaxRows(limit);
+                    ps.setLong(1, millis);
+                    ps.setLong(2, millis);
+                    for (int i = 0; i < chunk.size(); i++) {
+                        ps.setString(i + 3, chunk.get(i));
+                    }
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            records.add(toRecord(rs));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new InstrumentException(e);
+        }
+        if (idList.size() > MAX_IN_PARAMS) {
+            records.sort(Comparator.comparingLong(JobRecord::getNextFireTime));
+            if (records.size() > limit) {
+                return new ArrayList<>(records.subList(0, limit));
+            }
+        }
+        return records;
+    }
+
+    @Override
+    public List<JobRecord> claim(List<JobRecord> records, String owner, long leaseUntil) {
+        if (records.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(claimSql)) {
+            for (JobRecord record : records) {
+                ps.setLong(1, record.getNextFireTime());
+                ps.setLong(2, record.getLastFireTime());
+                ps.setString(3, owner);
+                ps.setLong(4, leaseUntil);
+                ps.setString(5, record.getId());
+                ps.setLong(6, record.getVersion());
+                ps.addBatch();
+            }
+            final int[] counts = ps.executeBatch();
+
+            // 更新了一行的记录视为认领成功,驱动未返回行数时按租约和版本号确认
+            final List<JobRecord> claimed = new ArrayList<>(records.size());
+            JobRecord record;
+            for (int i = 0; i < counts.length; i++) {
+                record = records.get(i);
+                if (counts[i] == 1 || (counts[i] == Statement.SUCCESS_NO_INFO && isClaimed(conn, record, owner))) {
+                    record.setLeaseOwner(owner);
+                    record.setLeaseUntil(leaseUntil);
+                    record.setVersion(record.getVersion() + 1);
+                    claimed.add(record);
+                }
+            }
+            return claimed;
+        } catch (SQLException e) {
+            throw new InstrumentException(e);
+        }
+    }
+
+    @Override
+    public void release(String id, String owner, long finishTime, boolean success) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(releaseSql)) {
+            ps.setLong(1, finishTime);
+            ps.setInt(2, success ? 1 : 0);
+            ps.setString(3, id);
+            ps.setString(4, owner);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new InstrumentException(e);
+        }
+    }
+
+    /**
+     * 认领后租约属于本节点且版本号恰好加一,说明是本次认领更新的
+     */
+    private boolean isClaimed(Connection conn, JobRecord record, String owner) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(selectLeaseSql)) {
+            ps.setString(1, record.getId());
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && owner.equals(rs.getString(1)) && rs.getLong(2) == record.getVersion() + 1;
+            }
+        }
+    }
+
+    private String selectPattern(Connection conn, String id) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(selectPatternSql)) {
+            ps.setString(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private static JobRecord toRecord(ResultSet rs) throws SQLException {
+        final JobRecord record = new JobRecord();
+        record.setId(rs.getString("id"));
+        record.setPattern(rs.getString("pattern"));
+        record.setNextFireTime(rs.getLong("next_fire_time"));
+        record.setLastFireTime(rs.getLong("last_fire_time"));
+        record.setLastFinishTime(rs.getLong("last_finish_time"));
+        record.setLastSucceeded(rs.getInt("last_succeeded") == 1);
+        record.setLeaseOwner(rs.getString("lease_owner"));
+        record.setLeaseUntil(rs.getLong("lease_until"));
+        record.setVersion(rs.getLong("version"));
+        return record;
+    }
+
+}
@@ -0,0 +1,151 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.cron.store;
+
+/**
+ * 任务存储记录
+ *
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public class JobRecord {
+
+    /**
+     * 任务ID
+     */
+    private String id;
+    /**
+     * 表达式
+     */
+    private String pattern;
+    /**
+     * 下次执行时间
+     */
+    private long nextFireTime;
+    /**
+     * 上次执行时间,即上次认领的执行点
+     */
+    private long lastFireTime;
+    /**
+     * 上次执行结束时间
+     */
+    private long lastFinishTime;
+    /**
+     * 上次执行是否成功
+     */
+    private boolean lastSucceeded;
+    /**
+     * 持有租约的节点
+     */
+    private String leaseOwner;
+    /**
+     * 租约到期时间
+     */
+    private long leaseUntil;
+    /**
+     * 版本号,每次认领加一
+     */
+    private long version;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public void setPattern(String pattern) {
+        this.pattern = pattern;
+    }
+
+    public long getNextFireTime() {
+        return nextFireTime;
+    }
+
+    public void setNextFireTime(long nextFireTime) {
+        this.nextFireTime = nextFireTime;
+    }
+
+    public long getLastFireTime() {
+        return lastFireTime;
+    }
+
+    public void setLastFireTime(long lastFireTime) {
+        this.lastFireTime = lastFireTime;
+    }
+
+    public long getLastFinishTime() {
+        return lastFinishTime;
+    }
+
+    public void setLastFinishTime(long lastFinishTime) {
+        this.lastFinishTime = lastFinishTime;
+    }
+
+    public boolean isLastSucceeded() {
+        return lastSucceeded;
+    }
+
+    public void setLastSucceeded(boolean lastSucceeded) {
+        this.lastSucceeded = lastSucceeded;
+    }
+
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    public void setLeaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+
+    public long getLeaseUntil() {
+        return leaseUntil;
+    }
+
+    public void setLeaseUntil(long leaseUntil) {
+        this.leaseUntil = leaseUntil;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    @Override
+    public String toString() {
+        return "JobRecord{id='" + id + "', pattern='" + pattern + "', nextFireTime=" + nextFireTime
+                + ", leaseOwner='" + leaseOwner + "', leaseUntil=" + leaseUntil + ", version=" + version + '}';
+    }
+
+}
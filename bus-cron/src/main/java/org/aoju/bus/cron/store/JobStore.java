@@ -0,0 +1,92 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.cron.store;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 任务存储
+ * 保存任务定义、下次执行时间以及上次执行状态,集群中的多个节点共享同一存储,
+ * 通过乐观锁租约认领到期的执行点,保证每个执行点在集群中至多被执行一次;
+ * 认领时即推进下次执行时间,节点在认领后、执行前宕机时该执行点丢失,不会被补跑
+ * <p>
+ * 任务本身({@link org.aoju.bus.cron.factory.Task})不做持久化,各节点需以相同的ID注册相同的任务
+ *
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public interface JobStore {
+
+    /**
+     * 注册任务,任务已存在且表达式相同时保留已有的执行状态,表达式不同时以新表达式为准
+     *
+     * @param id           任务ID
+     * @param pattern      表达式
+     * @param nextFireTime 按新表达式计算的下次执行时间
+     */
+    void register(String id, String pattern, long nextFireTime);
+
+    /**
+     * 移除任务
+     *
+     * @param id 任务ID
+     */
+    void remove(String id);
+
+    /**
+     * 查询已到期且未被其它节点持有租约的任务,按下次执行时间排序
+     *
+     * @param millis 当前时间毫秒
+     * @param limit  最大条数
+     * @param ids    本节点注册的任务ID,其它任务不返回
+     * @return 到期的任务
+     */
+    List<JobRecord> findDue(long millis, int limit, Collection<String> ids);
+
+    /**
+     * 批量认领执行点
+     * 调用方先将{@link JobRecord#getNextFireTime()}更新为认领后的下次执行时间,
+     * 只有版本号未被其它节点修改的记录才能认领成功
+     *
+     * @param records    待认领的任务
+     * @param owner      节点标识
+     * @param leaseUntil 租约到期时间
+     * @return 认领成功的任务
+     */
+    List<JobRecord> claim(List<JobRecord> records, String owner, long leaseUntil);
+
+    /**
+     * 执行结束,释放租约并记录执行状态
+     *
+     * @param id         任务ID
+     * @param owner      节点标识
+     * @param finishTime 结束时间
+     * @param success    是否执行成功
+     */
+    void release(String id, String owner, long finishTime, boolean success);
+
+}
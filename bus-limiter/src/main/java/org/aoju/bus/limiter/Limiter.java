@@ -62,4 +62,17 @@ public interface Limiter<T extends Annotation> {
      */
     void release(Object key, Map<String, Object> args);
 
+    /**
+     * 释放限制并反馈本次调用的耗时与结果, 供自适应的限制器调整阈值
+     * 默认忽略反馈, 直接调用{@link #release(Object, Map)}
+     *
+     * @param key     键
+     * @param args    参数
+     * @param elapsed 从获取到释放的耗时(纳秒)
+     * @param success 被限制的调用是否成功
+     */
+    default void release(Object key, Map<String, Object> args, long elapsed, boolean success) {
+        release(key, args);
+    }
+
 }
@@ -66,4 +66,12 @@ public @interface RateLimiter {
      */
     long capacity() default 10;
 
+    /**
+     * 获取不到许可时的最长等待时间(毫秒)
+     * 默认为 0 即不等待, 仅部分限流器支持
+     *
+     * @return the long
+     */
+    long timeout() default 0;
+
 }
@@ -0,0 +1,89 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.limiter.annotation;
+
+import org.aoju.bus.core.lang.Normal;
+
+import java.lang.annotation.*;
+
+/**
+ * 滑动窗口限流, 限制任意一个窗口时长内的请求数
+ *
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Documented
+public @interface Window {
+
+    String limiter() default Normal.EMPTY;
+
+    String key() default Normal.EMPTY;
+
+    String fallback() default "defaultFallbackResolver";
+
+    String errorHandler() default "defaultErrorHandler";
+
+    String[] argumentInjectors() default {};
+
+    /**
+     * 窗口内允许的最大请求数
+     *
+     * @return the long
+     */
+    long limit() default 10;
+
+    /**
+     * 窗口时长(毫秒) 默认为 1分钟
+     *
+     * @return the long
+     */
+    long window() default 60000;
+
+    /**
+     * 计数方式
+     *
+     * @return the algorithm
+     */
+    Algorithm algorithm() default Algorithm.COUNTER;
+
+    enum Algorithm {
+
+        /**
+         * 滑动日志: 记录窗口内每个请求的时间, 精确但每个key占用与limit成正比的内存
+         */
+        LOG,
+
+        /**
+         * 滑动窗口计数: 窗口切分为若干段分别计数, 最早一段按时间比例折算, 内存固定
+         */
+        COUNTER
+
+    }
+
+}
@@ -70,6 +70,8 @@ public class LimiterExecutionContext {
 
     private Throwable throwable;
 
+    private long limitedAt;
+
     public LimiterExecutionContext(LimitedResourceMetadata metadata, Object[] args, Object target, BeanFactory beanFactory) {
         this.metadata = metadata;
         this.args = extractArgs(metadata.getTargetMethod(), args);
@@ -97,7 +99,9 @@ public class LimiterExecutionContext {
             ret = this.metadata.getErrorHandler().resolve(throwable, this);
         }
 
-        if (!ret) {
+        if (ret) {
+            this.limitedAt = System.nanoTime();
+        } else {
             this.fallbackResult = this.metadata.getFallback().resolve(this.metadata.getTargetMethod(), this.metadata.getTargetClass(), this.args, this.metadata.getLimitedResource(), this.target);
         }
         return ret;
@@ -107,6 +111,16 @@ public class LimiterExecutionContext {
         this.metadata.getLimiter().release(this.key, this.metadata.getLimiterParameters());
     }
 
+    /**
+     * 被限制的调用结束后释放, 并反馈调用耗时与结果
+     *
+     * @param success 调用是否成功
+     */
+    public void release(boolean success) {
+        this.metadata.getLimiter().release(this.key, this.metadata.getLimiterParameters(),
+                System.nanoTime() - this.limitedAt, success);
+    }
+
     public Object getFallbackResult() {
         return fallbackResult;
     }
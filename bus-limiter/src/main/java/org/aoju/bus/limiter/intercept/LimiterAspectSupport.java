@@ -82,12 +82,13 @@ public abstract class LimiterAspectSupport implements BeanFactoryAware, Initiali
                     Collection<LimiterExecutionContext> contexts = getLimiterOperationContexts(limitedResources, method, args, target, targetClass);
                     LimitContextsValueWrapper limitContextsValueWrapper = limitContexts(contexts);
                     if (limitContextsValueWrapper.value()) {
+                        boolean success = false;
                         try {
-                            return invocation.proceed();
-                        } catch (Throwable e) {
-                            throw e;
+                            Object result = invocation.proceed();
+                            success = true;
+                            return result;
                         } finally {
-                            releaseContexts(contexts);
+                            releaseContexts(contexts, success);
                         }
                     } else {
                         return limitContextsValueWrapper.getLimiterFailResolveResult();
@@ -134,6 +135,14 @@ public abstract class LimiterAspectSupport implements BeanFactoryAware, Initiali
     }
 
 
+    protected void releaseContexts(Collection<LimiterExecutionContext> contexts, boolean success) {
+        if (contexts != null && !contexts.isEmpty()) {
+            for (LimiterExecutionContext context : contexts) {
+                context.release(success);
+            }
+        }
+    }
+
     protected Collection<LimiterExecutionContext> getLimiterOperationContexts(Collection<LimitedResource> limitedResources, Method method, Object[] args, Object target, Class<?> targetClass) {
         Collection<LimiterExecutionContext> retVal = new ArrayList<>();
         for (LimitedResource limitedResource : limitedResources) {
@@ -144,6 +153,10 @@ public abstract class LimiterAspectSupport implements BeanFactoryAware, Initiali
     }
 
 
+    protected BeanFactory getBeanFactory() {
+        return beanFactory;
+    }
+
     public LimitedResourceSource getLimitedResourceSource() {
         return limitedResourceSource;
     }
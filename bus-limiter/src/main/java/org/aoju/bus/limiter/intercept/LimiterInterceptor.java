@@ -24,11 +24,16 @@
  ********************************************************************************/
 package org.aoju.bus.limiter.intercept;
 
+import org.aoju.bus.limiter.support.peak.PeakLimiter;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ListableBeanFactory;
 
 import java.io.Serializable;
 import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * @author Kimi Liu
@@ -43,4 +48,19 @@ public class LimiterInterceptor extends LimiterAspectSupport implements MethodIn
         return execute(methodInvocation, methodInvocation.getThis(), method, methodInvocation.getArguments());
     }
 
+    /**
+     * 各并发限制器当前的并发上限与在途请求数
+     *
+     * @return 限制器名称 -> 各key的统计
+     */
+    public Map<String, Collection<PeakLimiter.Gauge>> getPeakGauges() {
+        Map<String, Collection<PeakLimiter.Gauge>> gauges = new LinkedHashMap<>();
+        if (getBeanFactory() instanceof ListableBeanFactory) {
+            for (PeakLimiter limiter : ((ListableBeanFactory) getBeanFactory()).getBeansOfType(PeakLimiter.class).values()) {
+                gauges.put(limiter.getLimiterName(), limiter.getGauges());
+            }
+        }
+        return gauges;
+    }
+
 }
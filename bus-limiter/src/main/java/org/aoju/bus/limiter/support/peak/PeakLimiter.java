@@ -27,6 +27,8 @@ package org.aoju.bus.limiter.support.peak;
 import org.aoju.bus.limiter.Limiter;
 import org.aoju.bus.limiter.annotation.Peak;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 
 /**
@@ -40,6 +42,27 @@ public abstract class PeakLimiter implements Limiter<Peak> {
 
     public abstract void release(Object key, int max);
 
+    /**
+     * 释放并反馈调用的耗时与结果, 默认忽略反馈
+     *
+     * @param key     键
+     * @param max     最大并发数
+     * @param elapsed 调用耗时(纳秒)
+     * @param success 调用是否成功
+     */
+    public void release(Object key, int max, long elapsed, boolean success) {
+        release(key, max);
+    }
+
+    /**
+     * 各key当前的并发上限与在途请求数
+     *
+     * @return 统计快照, 默认不统计
+     */
+    public Collection<Gauge> getGauges() {
+        return Collections.emptyList();
+    }
+
     @Override
     public boolean limit(Object key, Map<String, Object> args) {
         return acquire(key, (int) args.get("max"));
@@ -50,4 +73,45 @@ public abstract class PeakLimiter implements Limiter<Peak> {
         release(key, (int) args.get("max"));
     }
 
+    @Override
+    public void release(Object key, Map<String, Object> args, long elapsed, boolean success) {
+        release(key, (int) args.get("max"), elapsed, success);
+    }
+
+    /**
+     * 单个key的并发统计
+     */
+    public static class Gauge {
+
+        private final Object key;
+
+        private final int limit;
+
+        private final int inFlight;
+
+        public Gauge(Object key, int limit, int inFlight) {
+            this.key = key;
+            this.limit = limit;
+            this.inFlight = inFlight;
+        }
+
+        public Object getKey() {
+            return key;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        @Override
+        public String toString() {
+            return key + "[limit=" + limit + ", inFlight=" + inFlight + "]";
+        }
+
+    }
+
 }
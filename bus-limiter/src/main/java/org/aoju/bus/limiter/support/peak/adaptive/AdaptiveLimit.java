@@ -0,0 +1,178 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.limiter.support.peak.adaptive;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单个key的自适应并发上限
+ * <p>
+ * 获取许可只做一次CAS; 每次释放以调用耗时为样本调整上限, 调整过程加锁但不分配对象.
+ * 最小耗时每{@link #PROBE_INTERVAL}个样本允许上浮至多{@link #RTT_DRIFT}倍, 以适应下游基线的变化,
+ * 同时避免排队期间测得的耗时被当作基线
+ *
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public class AdaptiveLimit {
+
+    private static final int MIN_LIMIT = 1;
+
+    private static final int PROBE_INTERVAL = 1000;
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private static final double LATENCY_TOLERANCE = 2.0;
+
+    private static final double RTT_DRIFT = 1.1;
+
+    private final AdaptivePeakLimiter.Algorithm algorithm;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+
+    // 以下字段由this保护
+    private double estimate;
+
+    private long minRtt = Long.MAX_VALUE;
+
+    private long windowMinRtt = Long.MAX_VALUE;
+
+    private int samples;
+
+    private long lastBackoff;
+
+    public AdaptiveLimit(AdaptivePeakLimiter.Algorithm algorithm, int initialLimit) {
+        this.algorithm = algorithm;
+        this.estimate = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * 获取许可
+     *
+     * @param max 并发上限的最大值
+     * @return 是否获取成功
+     */
+    public boolean tryAcquire(int max) {
+        int bound = Math.min(limit, max);
+        int current;
+        while ((current = inFlight.get()) < bound) {
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 释放许可, 不调整上限
+     */
+    public void release() {
+        decrement();
+    }
+
+    /**
+     * 释放许可并以本次调用为样本调整上限
+     *
+     * @param max     并发上限的最大值
+     * @param rtt     调用耗时(纳秒)
+     * @param success 调用是否成功
+     */
+    public void release(int max, long rtt, boolean success) {
+        int current = decrement();
+        sample(max, Math.max(1, rtt), current, success);
+    }
+
+    /**
+     * 不减到0以下: 所属key被淘汰后重建时, 旧许可的释放可能落在新实例上
+     *
+     * @return 释放前的并发数
+     */
+    private int decrement() {
+        return inFlight.getAndUpdate(current -> current > 0 ? current - 1 : 0);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void sample(int max, long rtt, int inFlight, boolean success) {
+        minRtt = Math.min(minRtt, rtt);
+        windowMinRtt = Math.min(windowMinRtt, rtt);
+        if (++samples >= PROBE_INTERVAL) {
+            samples = 0;
+            minRtt = Math.min(windowMinRtt, (long) (minRtt * RTT_DRIFT));
+            windowMinRtt = Long.MAX_VALUE;
+        }
+
+        double next = algorithm == AdaptivePeakLimiter.Algorithm.AIMD
+                ? aimd(rtt, inFlight, success)
+                : vegas(rtt, inFlight, success);
+        estimate = Math.max(MIN_LIMIT, Math.min(max, next));
+        limit = (int) estimate;
+    }
+
+    private double aimd(long rtt, int inFlight, boolean success) {
+        if (false == success || rtt > minRtt * LATENCY_TOLERANCE) {
+            // 同一批在途调用只减一次, 避免上限被连续的样本压到最低
+            long now = System.nanoTime();
+            if (now - lastBackoff < rtt) {
+                return estimate;
+            }
+            lastBackoff = now;
+            return estimate * BACKOFF_RATIO;
+        }
+        // 上限没有用满时, 耗时正常不能说明可以承受更高的并发; 用满时每轮约加1
+        if (inFlight * 2 >= estimate) {
+            return estimate + 1 / estimate;
+        }
+        return estimate;
+    }
+
+    private double vegas(long rtt, int inFlight, boolean success) {
+        double log = Math.max(1, Math.log10(estimate));
+        if (false == success) {
+            return estimate - log;
+        }
+        // 按 上限 * (1 - 最小耗时 / 本次耗时) 估算排队中的请求数
+        double queue = estimate * (1 - (double) minRtt / rtt);
+        if (queue <= 3 * log) {
+            // 上限没有用满时不增大
+            return inFlight * 2 < estimate ? estimate : estimate + log;
+        }
+        if (queue >= 6 * log) {
+            return estimate - log;
+        }
+        return estimate;
+    }
+
+}
@@ -0,0 +1,154 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.limiter.support.peak.adaptive;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import org.aoju.bus.limiter.support.peak.PeakLimiter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 自适应并发限制器
+ * <p>
+ * 并发上限不再固定, 而是根据每次调用的耗时与结果动态调整, {@code @Peak}的max作为上限的最大值;
+ * 每个key的状态在首次访问时创建, 之后获取与释放都不再分配对象;
+ * 状态保存在容量有限的缓存中, key较多时按最近最少使用淘汰, 长时间未访问的key过期
+ *
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public class AdaptivePeakLimiter extends PeakLimiter {
+
+    private final String limiterName;
+
+    private final Algorithm algorithm;
+
+    private final int initialLimit;
+
+    private final LoadingCache<Object, AdaptiveLimit> limits;
+
+    public AdaptivePeakLimiter(String limiterName) {
+        this(limiterName, Algorithm.VEGAS, 20);
+    }
+
+    /**
+     * @param limiterName  名称
+     * @param algorithm    调整算法
+     * @param initialLimit 初始并发上限
+     */
+    public AdaptivePeakLimiter(String limiterName, Algorithm algorithm, int initialLimit) {
+        this(limiterName, algorithm, initialLimit, 10000, 10, TimeUnit.MINUTES);
+    }
+
+    /**
+     * @param limiterName           名称
+     * @param algorithm             调整算法
+     * @param initialLimit          初始并发上限
+     * @param maximumSize           最多保存的key数量
+     * @param expireAfterAccess     过期时间
+     * @param expireAfterAccessUnit 过期时间单位
+     */
+    public AdaptivePeakLimiter(String limiterName, Algorithm algorithm, int initialLimit,
+                               long maximumSize, long expireAfterAccess, TimeUnit expireAfterAccessUnit) {
+        this.limiterName = limiterName;
+        this.algorithm = algorithm;
+        this.initialLimit = Math.max(1, initialLimit);
+        this.limits = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess, expireAfterAccessUnit)
+                .concurrencyLevel(16)
+                .build(new CacheLoader<Object, AdaptiveLimit>() {
+                    @Override
+                    public AdaptiveLimit load(Object key) {
+                        return new AdaptiveLimit(AdaptivePeakLimiter.this.algorithm, AdaptivePeakLimiter.this.initialLimit);
+                    }
+                });
+    }
+
+    @Override
+    public boolean acquire(Object key, int max) {
+        return limit(key).tryAcquire(max);
+    }
+
+    @Override
+    public void release(Object key, int max) {
+        AdaptiveLimit limit = limits.getIfPresent(key);
+        if (null != limit) {
+            limit.release();
+        }
+    }
+
+    @Override
+    public void release(Object key, int max, long elapsed, boolean success) {
+        AdaptiveLimit limit = limits.getIfPresent(key);
+        if (null != limit) {
+            limit.release(max, elapsed, success);
+        }
+    }
+
+    @Override
+    public Collection<Gauge> getGauges() {
+        List<Gauge> gauges = new ArrayList<>((int) limits.size());
+        limits.asMap().forEach((key, limit) -> gauges.add(new Gauge(key, limit.getLimit(), limit.getInFlight())));
+        return gauges;
+    }
+
+    @Override
+    public String getLimiterName() {
+        return limiterName;
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    private AdaptiveLimit limit(Object key) {
+        return limits.getUnchecked(key);
+    }
+
+    /**
+     * 并发上限的调整算法
+     */
+    public enum Algorithm {
+
+        /**
+         * 加性增、乘性减: 调用失败或耗时超过最小耗时的两倍时上限乘以0.9, 否则在上限被用满时加1
+         */
+        AIMD,
+
+        /**
+         * 按耗时估算排队数量: 排队较少时增大上限, 排队较多或调用失败时减小上限
+         */
+        VEGAS
+
+    }
+
+}
@@ -29,6 +29,9 @@ import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import org.aoju.bus.limiter.support.peak.PeakLimiter;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.Semaphore;
 
@@ -59,7 +62,7 @@ public class JdkPeakLimiter extends PeakLimiter {
     @Override
     public boolean acquire(Object key, int max) {
         CacheKey cacheKey = new CacheKey(key, max);
-        return cache.getIfPresent(cacheKey).tryAcquire();
+        return cache.getUnchecked(cacheKey).tryAcquire();
     }
 
     @Override
@@ -71,6 +74,14 @@ public class JdkPeakLimiter extends PeakLimiter {
         }
     }
 
+    @Override
+    public Collection<Gauge> getGauges() {
+        List<Gauge> gauges = new ArrayList<>();
+        cache.asMap().forEach((cacheKey, semaphore) ->
+                gauges.add(new Gauge(cacheKey.key, cacheKey.max, cacheKey.max - semaphore.availablePermits())));
+        return gauges;
+    }
+
     @Override
     public String getLimiterName() {
         return limiterName;
@@ -78,9 +89,9 @@ public class JdkPeakLimiter extends PeakLimiter {
 
     public static class CacheKey {
 
-        private Object key;
+        private final Object key;
 
-        private int max;
+        private final int max;
 
         public CacheKey(Object key, int max) {
             this.key = key;
@@ -98,7 +109,7 @@ public class JdkPeakLimiter extends PeakLimiter {
 
         @Override
         public int hashCode() {
-            return Objects.hash(key, max);
+            return 31 * Objects.hashCode(key) + max;
         }
     }
 
@@ -27,6 +27,7 @@ package org.aoju.bus.limiter.support.rate;
 import org.aoju.bus.limiter.Limiter;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Kimi Liu
@@ -37,10 +38,28 @@ public abstract class RateLimiter implements Limiter<org.aoju.bus.limiter.annota
 
     public abstract boolean acquire(Object key, double rate, long capacity);
 
+    /**
+     * 获取许可, 在超时时间内等待; 默认不支持等待, 直接调用{@link #acquire(Object, double, long)}
+     *
+     * @param key      限流key
+     * @param rate     速率(个/秒)
+     * @param capacity 容量
+     * @param timeout  最长等待时间
+     * @param unit     时间单位
+     * @return 是否获取成功
+     */
+    public boolean acquire(Object key, double rate, long capacity, long timeout, TimeUnit unit) {
+        return acquire(key, rate, capacity);
+    }
+
     @Override
     public boolean limit(Object key, Map<String, Object> args) {
         double pps = (double) args.get("rate");
         long capacity = (long) args.get("capacity");
+        Object timeout = args.get("timeout");
+        if (null != timeout && (long) timeout > 0) {
+            return acquire(key, pps, capacity, (long) timeout, TimeUnit.MILLISECONDS);
+        }
         return acquire(key, pps, capacity);
     }
 
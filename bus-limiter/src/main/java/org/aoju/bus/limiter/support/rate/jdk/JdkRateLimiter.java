@@ -29,7 +29,6 @@ import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import org.aoju.bus.limiter.support.rate.RateLimiter;
 
-import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -43,8 +42,10 @@ public class JdkRateLimiter extends RateLimiter {
 
     private String rateLimiterName;
 
-    private LoadingCache<CacheKey, RateLimiterObject>
-            cache;
+    /**
+     * 按资源key缓存令牌桶, 速率与容量随每次调用传入, 配置变化时沿用已有的桶
+     */
+    private LoadingCache<Object, RateLimiterObject> cache;
 
     /**
      * @param rateLimiterName       名称
@@ -56,9 +57,9 @@ public class JdkRateLimiter extends RateLimiter {
         this.cache = CacheBuilder.newBuilder()
                 .expireAfterAccess(expireAfterAccess, expireAfterAccessUnit)
                 .concurrencyLevel(16)
-                .build(new CacheLoader<CacheKey, RateLimiterObject>() {
+                .build(new CacheLoader<Object, RateLimiterObject>() {
                     @Override
-                    public RateLimiterObject load(CacheKey key) {
+                    public RateLimiterObject load(Object key) {
                         return new RateLimiterObject();
                     }
                 });
@@ -66,42 +67,19 @@ public class JdkRateLimiter extends RateLimiter {
 
     @Override
     public boolean acquire(Object key, double rate, long capacity) {
-        CacheKey cacheKey = new CacheKey(key, rate, capacity);
-        RateLimiterObject rateLimiterObject = cache.getUnchecked(cacheKey);
+        RateLimiterObject rateLimiterObject = cache.getUnchecked(key);
         return rateLimiterObject.tryAcquire(1, rate, capacity);
     }
 
     @Override
-    public String getLimiterName() {
-        return rateLimiterName;
+    public boolean acquire(Object key, double rate, long capacity, long timeout, TimeUnit unit) {
+        RateLimiterObject rateLimiterObject = cache.getUnchecked(key);
+        return rateLimiterObject.tryAcquire(1, rate, capacity, timeout, unit);
     }
 
-    private static class CacheKey {
-
-        private Object key;
-        private double rate;
-        private long capacity;
-
-        public CacheKey(Object key, double rate, long capacity) {
-            this.key = key;
-            this.rate = rate;
-            this.capacity = capacity;
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            CacheKey cacheKey = (CacheKey) o;
-            return Double.compare(cacheKey.rate, rate) == 0 &&
-                    capacity == cacheKey.capacity &&
-                    Objects.equals(key, cacheKey.key);
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(key, rate, capacity);
-        }
+    @Override
+    public String getLimiterName() {
+        return rateLimiterName;
     }
 
 }
@@ -24,8 +24,16 @@
  ********************************************************************************/
 package org.aoju.bus.limiter.support.rate.jdk;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
 /**
- * 基于令牌桶实现的速率限制器
+ * 基于GCRA(通用信元速率算法)实现的速率限制器
+ * <p>
+ * 与令牌桶等价: 全部状态是一个理论到达时间(TAT), 每个许可把TAT推后{@code 1/rate}秒,
+ * TAT超前当前时间不超过{@code capacity/rate}秒时放行; 通过CAS更新, 无锁且不分配对象.
+ * 速率或容量变化时TAT仍以时间为单位, 直接按新参数继续计算
  *
  * @author Kimi Liu
  * @version 5.9.6
@@ -33,36 +41,91 @@ package org.aoju.bus.limiter.support.rate.jdk;
  */
 public class RateLimiterObject {
 
-    private double rate;
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * 时间跨度的上限, 防止极小的速率导致溢出
+     */
+    private static final long MAX_SPAN = Long.MAX_VALUE >> 2;
 
-    private long capacity;
+    private static final long ORIGIN = System.nanoTime();
 
-    private long lastSyncTime;
+    /**
+     * 理论到达时间, 相对于{@link #ORIGIN}的纳秒数
+     */
+    private final AtomicLong theoreticalArrivalTime = new AtomicLong();
 
-    private double storedPermits;
+    /**
+     * 尝试获取许可, 不等待
+     *
+     * @param permits  许可数量
+     * @param rate     速率(个/秒)
+     * @param capacity 容量
+     * @return 是否获取成功
+     */
+    public boolean tryAcquire(long permits, double rate, long capacity) {
+        return reserve(permits, rate, capacity, 0) == 0;
+    }
 
-    public synchronized boolean tryAcquire(long permits, double rate, long capacity) {
-        if (permits > capacity) return false;
-        long now = System.currentTimeMillis();
-        if (rate != this.rate || capacity != this.capacity) {
-            this.rate = rate;
-            this.capacity = capacity;
-            this.storedPermits = capacity - permits;
-            this.lastSyncTime = now;
-            return true;
+    /**
+     * 尝试获取许可, 需要等待的时长不超过超时时间时预占许可并等待
+     *
+     * @param permits  许可数量
+     * @param rate     速率(个/秒)
+     * @param capacity 容量
+     * @param timeout  最长等待时间
+     * @param unit     时间单位
+     * @return 是否获取成功
+     */
+    public boolean tryAcquire(long permits, double rate, long capacity, long timeout, TimeUnit unit) {
+        long wait = reserve(permits, rate, capacity, unit.toNanos(timeout));
+        if (wait < 0) {
+            return false;
         }
-        resync(now);
-        if (storedPermits >= permits) {
-            storedPermits = storedPermits - permits;
-            return true;
+        if (wait > 0) {
+            sleepUninterruptibly(wait);
         }
-        return false;
+        return true;
     }
 
-    private void resync(long nowMicros) {
-        double newPermits = (nowMicros - lastSyncTime) * rate / 1000 + storedPermits;
-        storedPermits = Math.max(newPermits, capacity);
-        this.lastSyncTime = nowMicros;
+    /**
+     * 预占许可
+     *
+     * @return 需要等待的纳秒数, 无法在最长等待时间内获取时返回-1
+     */
+    private long reserve(long permits, double rate, long capacity, long maxWait) {
+        if (permits > capacity || rate <= 0) {
+            return -1;
+        }
+        double interval = NANOS_PER_SECOND / rate;
+        long increment = (long) Math.min(permits * interval, MAX_SPAN);
+        long burst = (long) Math.min(capacity * interval, MAX_SPAN);
+        while (true) {
+            long now = System.nanoTime() - ORIGIN;
+            long tat = theoreticalArrivalTime.get();
+            long next = Math.max(tat, now) + increment;
+            long wait = next - now - burst;
+            if (wait > maxWait) {
+                return -1;
+            }
+            if (theoreticalArrivalTime.compareAndSet(tat, next)) {
+                return Math.max(0, wait);
+            }
+        }
+    }
+
+    private static void sleepUninterruptibly(long nanos) {
+        boolean interrupted = false;
+        long deadline = System.nanoTime() + nanos;
+        for (long remaining = nanos; remaining > 0; remaining = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
     }
 
 }
@@ -24,37 +24,92 @@
  ********************************************************************************/
 package org.aoju.bus.limiter.support.rate.redis;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import org.aoju.bus.limiter.support.rate.RateLimiter;
 import org.aoju.bus.logger.Logger;
 import org.redisson.Redisson;
 import org.redisson.config.Config;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
+ * 基于Redis的分布式限流
+ * <p>
+ * 默认每次请求调用一次Redis; 指定超发容忍度后进入预取模式: 各节点按观测到的消耗速率
+ * 从Redis批量租借许可到本地, 本地许可低于水位时异步续租, 请求只在本地做一次CAS.
+ * 每个节点本地最多持有{@code capacity * tolerance}个许可, 超过{@link #MAX_HOLD_MILLIS}
+ * 未用完的许可直接丢弃, 以此限制全局误差
+ *
  * @author Kimi Liu
  * @version 5.9.6
  * @since JDK 1.8+
  */
 public class RedisRatelimiter extends RateLimiter {
 
+    /**
+     * 一次租借覆盖的消耗时长(毫秒)
+     */
+    private static final long LEASE_WINDOW_MILLIS = 100;
+
+    /**
+     * 本地许可的最长持有时间(毫秒)
+     */
+    private static final long MAX_HOLD_MILLIS = 1000;
+
     private String limiterName;
 
     private RateLimiterRedission ratelimiterRedission;
 
+    private double tolerance;
+
+    private LoadingCache<String, PermitBucket> buckets;
+
     /**
      * @param limiterName 名称
      * @param config      配置
      */
     public RedisRatelimiter(String limiterName, Config config) {
+        this(limiterName, config, 0);
+    }
+
+    /**
+     * @param limiterName 名称
+     * @param config      配置
+     * @param tolerance   超发容忍度, 为容量的比例, 大于0时启用本地预取
+     */
+    public RedisRatelimiter(String limiterName, Config config, double tolerance) {
         this.limiterName = limiterName;
         this.ratelimiterRedission = new RateLimiterRedission(config);
+        this.tolerance = tolerance;
+        if (tolerance > 0) {
+            this.buckets = CacheBuilder.newBuilder()
+                    .expireAfterAccess(MAX_HOLD_MILLIS * 60, TimeUnit.MILLISECONDS)
+                    .concurrencyLevel(16)
+                    .build(new CacheLoader<String, PermitBucket>() {
+                        @Override
+                        public PermitBucket load(String name) {
+                            return new PermitBucket(ratelimiterRedission.getRedisRatelimiterObject(name));
+                        }
+                    });
+        }
         Logger.info("RedisRateLimiter named {} start success!", limiterName);
 
     }
 
     @Override
     public boolean acquire(Object key, double rate, long capacity) {
-        RedisRatelimiterObject rateLimiterObject = ratelimiterRedission.getRedisRatelimiterObject(key.toString());
-        return rateLimiterObject.tryAcquire(1, rate, capacity);
+        if (null == buckets) {
+            RedisRatelimiterObject rateLimiterObject = ratelimiterRedission.getRedisRatelimiterObject(key.toString());
+            return rateLimiterObject.tryAcquire(1, rate, capacity);
+        }
+        return buckets.getUnchecked(key.toString()).tryAcquire(rate, capacity);
     }
 
     @Override
@@ -62,6 +117,9 @@ public class RedisRatelimiter extends RateLimiter {
         return limiterName;
     }
 
+    public double getTolerance() {
+        return tolerance;
+    }
 
     /**
      * 继承自Redisson 实现自定义api
@@ -77,4 +135,112 @@ public class RedisRatelimiter extends RateLimiter {
         }
     }
 
+    /**
+     * 单个key在本节点的许可
+     */
+    private class PermitBucket {
+
+        private final RedisRatelimiterObject object;
+
+        private final AtomicLong available = new AtomicLong();
+
+        private final AtomicReference<CompletableFuture<Long>> lease = new AtomicReference<>();
+
+        // 自上次租借以来消耗的许可数
+        private final LongAdder consumed = new LongAdder();
+
+        private volatile long leasedAt = System.nanoTime();
+
+        private volatile long batch = 1;
+
+        // 消耗速率的指数加权平均(个/毫秒), 仅在租借时更新
+        private double consumeRate;
+
+        PermitBucket(RedisRatelimiterObject object) {
+            this.object = object;
+        }
+
+        boolean tryAcquire(double rate, long capacity) {
+            if (System.nanoTime() - leasedAt > TimeUnit.MILLISECONDS.toNanos(MAX_HOLD_MILLIS)) {
+                available.set(0);
+            }
+            // 本地为空时等待续租结果, 续租一个也没拿到才拒绝
+            for (int i = 0; i < 2; ++i) {
+                if (take(rate, capacity)) {
+                    return true;
+                }
+                if (await(refill(rate, capacity)) <= 0) {
+                    return false;
+                }
+            }
+            return take(rate, capacity);
+        }
+
+        private boolean take(double rate, long capacity) {
+            long current;
+            while ((current = available.get()) > 0) {
+                if (available.compareAndSet(current, current - 1)) {
+                    consumed.increment();
+                    if (current - 1 <= batch / 2) {
+                        refill(rate, capacity);
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private CompletableFuture<Long> refill(double rate, long capacity) {
+            CompletableFuture<Long> running = lease.get();
+            if (null != running) {
+                return running;
+            }
+            CompletableFuture<Long> future = new CompletableFuture<>();
+            if (false == lease.compareAndSet(null, future)) {
+                running = lease.get();
+                return null == running ? CompletableFuture.completedFuture(1L) : running;
+            }
+
+            long max = Math.max(1, (long) (capacity * tolerance));
+            long size = Math.min(nextBatch(max), Math.max(1, max - available.get()));
+            object.leaseAsync(size, rate, capacity).whenComplete((granted, e) -> {
+                if (null == e && granted > 0) {
+                    available.addAndGet(granted);
+                    leasedAt = System.nanoTime();
+                }
+                lease.set(null);
+                if (null == e) {
+                    future.complete(granted);
+                } else {
+                    Logger.warn("RedisRateLimiter named {} lease permits failed", limiterName, e);
+                    future.completeExceptionally(e);
+                }
+            });
+            return future;
+        }
+
+        /**
+         * 按消耗速率估算下一批的数量, 覆盖约{@link #LEASE_WINDOW_MILLIS}的消耗
+         */
+        private synchronized long nextBatch(long max) {
+            long now = System.nanoTime();
+            double elapsed = Math.max(1, TimeUnit.NANOSECONDS.toMillis(now - leasedAt));
+            consumeRate = 0.5 * consumeRate + 0.5 * consumed.sumThenReset() / elapsed;
+            batch = Math.max(1, Math.min(max, (long) Math.ceil(consumeRate * LEASE_WINDOW_MILLIS)));
+            return batch;
+        }
+
+        private long await(CompletableFuture<Long> future) {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+    }
+
 }
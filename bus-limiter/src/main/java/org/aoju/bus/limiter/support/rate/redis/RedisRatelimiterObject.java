@@ -24,74 +24,142 @@
  ********************************************************************************/
 package org.aoju.bus.limiter.support.rate.redis;
 
-import org.aoju.bus.core.lang.Normal;
+import org.aoju.bus.core.io.ByteString;
 import org.redisson.RedissonObject;
+import org.redisson.RedissonScript;
 import org.redisson.api.RFuture;
+import org.redisson.api.RScript;
+import org.redisson.client.RedisException;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.codec.LongCodec;
-import org.redisson.client.protocol.RedisCommand;
-import org.redisson.client.protocol.RedisCommands;
 import org.redisson.command.CommandAsyncExecutor;
 
-import java.util.Arrays;
-import java.util.Objects;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
+ * 基于Redis的令牌桶
+ * <p>
+ * 令牌桶脚本按SHA调用({@code EVALSHA}), 节点上没有该脚本时加载一次后重试;
+ * 时间取自Redis服务端, 不依赖各节点的时钟
+ *
  * @author Kimi Liu
  * @version 5.9.6
  * @since JDK 1.8+
  */
 public class RedisRatelimiterObject extends RedissonObject {
 
+    /**
+     * 参数: 速率(个/秒), 容量, 申请数量, 是否允许部分发放(1/0)
+     * 返回: 实际发放的数量
+     */
+    static final String SCRIPT =
+            "pcall(redis.replicate_commands)\n" +
+                    "local rate = tonumber(ARGV[1])\n" +
+                    "local capacity = tonumber(ARGV[2])\n" +
+                    "local requested = tonumber(ARGV[3])\n" +
+                    "local time = redis.call('time')\n" +
+                    "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n" +
+                    "local state = redis.call('hmget', KEYS[1], 'permits', 'ts')\n" +
+                    "local permits = tonumber(state[1])\n" +
+                    "local ts = tonumber(state[2])\n" +
+                    "if permits == nil or ts == nil then\n" +
+                    "    permits = capacity\n" +
+                    "else\n" +
+                    "    permits = math.min(capacity, permits + math.max(0, now - ts) * rate / 1000)\n" +
+                    "end\n" +
+                    "local granted = math.min(requested, math.floor(permits))\n" +
+                    "if ARGV[4] == '0' and granted < requested then\n" +
+                    "    granted = 0\n" +
+                    "end\n" +
+                    "redis.call('hmset', KEYS[1], 'permits', permits - granted, 'ts', now)\n" +
+                    "if rate > 0 then\n" +
+                    "    redis.call('pexpire', KEYS[1], math.ceil(capacity / rate * 1000) + 1000)\n" +
+                    "end\n" +
+                    "return granted";
+
+    static final String SHA1 = ByteString.encodeUtf8(SCRIPT).sha1().hex();
+
+    private final RScript script;
+
+    private final List<Object> keys;
 
     public RedisRatelimiterObject(Codec codec, CommandAsyncExecutor commandExecutor, String name) {
         super(codec, commandExecutor, name);
+        this.script = new RedissonScript(commandExecutor, LongCodec.INSTANCE);
+        this.keys = Collections.singletonList(name);
     }
 
     public RedisRatelimiterObject(CommandAsyncExecutor commandExecutor, String name) {
         super(commandExecutor, name);
+        this.script = new RedissonScript(commandExecutor, LongCodec.INSTANCE);
+        this.keys = Collections.singletonList(name);
     }
 
+    /**
+     * 同步申请许可, 不足时一个也不发放
+     *
+     * @param permits  申请数量
+     * @param rate     速率(个/秒)
+     * @param capacity 容量
+     * @return 是否申请成功
+     */
     public boolean tryAcquire(long permits, double rate, long capacity) {
         if (permits > capacity) return false;
-        return get(tryAcquireAsync(RedisCommands.EVAL_LONG, permits, rate, capacity)) != -1;
+        try {
+            return get(evalAsync(permits, rate, capacity, false)) == permits;
+        } catch (RedisException e) {
+            if (false == isNoScript(e)) {
+                throw e;
+            }
+        }
+        get(script.scriptLoadAsync(getName(), SCRIPT));
+        return get(evalAsync(permits, rate, capacity, false)) == permits;
     }
 
-    private <T> RFuture<T> tryAcquireAsync(RedisCommand<T> command, long permits, double rate, long capacity) {
-        String hash = Objects.hash(rate, capacity) + Normal.EMPTY;
-        return commandExecutor.evalWriteAsync(getName(), LongCodec.INSTANCE, command,
-                "local capacity = tonumber(ARGV[1])\n" +
-                        "local rate = tonumber(ARGV[2])\n" +
-                        "local acq = tonumber(ARGV[3])\n" +
-                        "if (redis.call('exists',KEYS[1]) == 0 or redis.call('hget',KEYS[1],'hash') ~= ARGV[4]) then\n" +
-                        "    -- create\n" +
-                        "    redis.call('hset', KEYS[1], 'capacity ', capacity)\n" +
-                        "    redis.call('hset', KEYS[1], 'rate', rate)\n" +
-                        "    redis.call('hset', KEYS[1], 'permit', capacity-acq)\n" +
-                        "    redis.call('hset', KEYS[1], 'hash', ARGV[4])\n" +
-                        "    redis.call('expire', KEYS[1],3153600000000)\n" +
-                        "    redis.call('hset', KEYS[1], 'pttl',3153600000000000)\n" +
-                        "    return capacity-acq\n" +
-                        "end\n" +
-                        "local rate = tonumber(redis.call('hget', KEYS[1],'rate'))\n" +
-                        "local now = redis.call('pttl', KEYS[1])\n" +
-                        "local pttl = tonumber(redis.call('hget', KEYS[1], 'pttl'))\n" +
-                        "local permit = tonumber(redis.call('hget', KEYS[1], 'permit'))\n" +
-                        "local newPermit = permit + ((pttl-now)/1000*rate)\n" +
-                        "if(newPermit >= capacity) then\n" +
-                        "     redis.call('hset', KEYS[1], 'permit', capacity-acq)\n" +
-                        "     redis.call('hset', KEYS[1], 'pttl', now)\n" +
-                        "     return capacity-acq\n" +
-                        "end\n" +
-                        "if(newPermit >= acq) then\n" +
-                        "    redis.call('hset', KEYS[1], 'permit', newPermit-acq)\n" +
-                        "    redis.call('hset', KEYS[1], 'pttl', now)\n" +
-                        "    return newPermit-acq\n" +
-                        "end\n" +
-                        "return -1 ",
-                Arrays.asList(getName()),
-                permits, rate, capacity, hash);
+    /**
+     * 异步租借一批许可, 不足时发放剩余的部分
+     *
+     * @param permits  申请数量
+     * @param rate     速率(个/秒)
+     * @param capacity 容量
+     * @return 实际发放的数量
+     */
+    public CompletableFuture<Long> leaseAsync(long permits, double rate, long capacity) {
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        evalAsync(permits, rate, capacity, true).whenComplete((granted, e) -> {
+            if (null == e) {
+                result.complete(granted);
+            } else if (false == isNoScript(e)) {
+                result.completeExceptionally(e);
+            } else {
+                script.scriptLoadAsync(getName(), SCRIPT)
+                        .thenCompose(sha -> evalAsync(permits, rate, capacity, true))
+                        .whenComplete((retried, ex) -> {
+                            if (null == ex) {
+                                result.complete(retried);
+                            } else {
+                                result.completeExceptionally(ex);
+                            }
+                        });
+            }
+        });
+        return result;
     }
 
+    private RFuture<Long> evalAsync(long permits, double rate, long capacity, boolean partial) {
+        return script.evalShaAsync(getName(), RScript.Mode.READ_WRITE, SHA1, RScript.ReturnType.INTEGER,
+                keys, rate, capacity, permits, partial ? 1 : 0);
+    }
+
+    private static boolean isNoScript(Throwable e) {
+        for (Throwable cause = e; null != cause; cause = cause.getCause()) {
+            if (null != cause.getMessage() && cause.getMessage().startsWith("NOSCRIPT")) {
+                return true;
+            }
+        }
+        return false;
+    }
 
 }
@@ -0,0 +1,59 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.limiter.support.window;
+
+import org.aoju.bus.limiter.Limiter;
+import org.aoju.bus.limiter.annotation.Window;
+
+import java.util.Map;
+
+/**
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public abstract class WindowLimiter implements Limiter<Window> {
+
+    /**
+     * 尝试在窗口内记录一次请求
+     *
+     * @param key       键
+     * @param limit     窗口内允许的最大请求数
+     * @param window    窗口时长(毫秒)
+     * @param algorithm 计数方式
+     * @return 是否允许
+     */
+    public abstract boolean acquire(Object key, long limit, long window, Window.Algorithm algorithm);
+
+    @Override
+    public boolean limit(Object key, Map<String, Object> args) {
+        return acquire(key, (long) args.get("limit"), (long) args.get("window"), (Window.Algorithm) args.get("algorithm"));
+    }
+
+    @Override
+    public void release(Object key, Map<String, Object> args) {
+    }
+
+}
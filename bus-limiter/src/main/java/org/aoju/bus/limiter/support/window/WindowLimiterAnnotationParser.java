@@ -0,0 +1,53 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.limiter.support.window;
+
+import org.aoju.bus.limiter.annotation.Window;
+import org.aoju.bus.limiter.resource.LimitedResource;
+import org.aoju.bus.limiter.support.rate.AbstractParser;
+import org.springframework.core.annotation.AnnotationAttributes;
+
+/**
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public class WindowLimiterAnnotationParser extends AbstractParser<WindowLimiter, Window> {
+
+    @Override
+    public LimitedResource<WindowLimiter> parseLimiterAnnotation(AnnotationAttributes attributes) {
+        return new WindowLimiterResource(
+                getKey(attributes),
+                getArgumentInjectors(attributes),
+                getFallback(attributes),
+                getErrorHandler(attributes),
+                getLimiter(attributes),
+                attributes.getNumber("limit"),
+                attributes.getNumber("window"),
+                attributes.getEnum("algorithm")
+        );
+    }
+
+}
@@ -0,0 +1,64 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.limiter.support.window;
+
+import org.aoju.bus.limiter.annotation.LimiterParameter;
+import org.aoju.bus.limiter.annotation.Window;
+import org.aoju.bus.limiter.metadata.LimitedResourceMetadata;
+import org.aoju.bus.limiter.resource.AbstractLimitedResource;
+import org.springframework.beans.factory.BeanFactory;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+
+/**
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public class WindowLimiterResource extends AbstractLimitedResource {
+
+    @LimiterParameter
+    private long limit;
+
+    @LimiterParameter
+    private long window;
+
+    @LimiterParameter
+    private Window.Algorithm algorithm;
+
+    public WindowLimiterResource(String key, Collection<String> argumentInjectors, String fallback, String errorHandler, String limiter, long limit, long window, Window.Algorithm algorithm) {
+        super(key, argumentInjectors, fallback, errorHandler, limiter);
+        this.limit = limit;
+        this.window = window;
+        this.algorithm = algorithm;
+    }
+
+    @Override
+    public LimitedResourceMetadata createMetadata(BeanFactory beanFactory, Class targetClass, Method targetMethod) {
+        return new WindowLimiterResourceMetadata(this, targetClass, targetMethod, beanFactory);
+    }
+
+}
@@ -0,0 +1,148 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.limiter.support.window.jdk;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.cache.Weigher;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.limiter.annotation.Window;
+import org.aoju.bus.limiter.support.window.WindowLimiter;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 进程内的滑动窗口限流
+ * <p>
+ * 每个key的计数保存在按权重限制的缓存中, 权重为key占用的long个数: COUNTER算法每个key固定11个,
+ * LOG算法每个key为{@code limit}个; 总权重超限时按最近最少使用淘汰, 长时间未访问的key过期;
+ * 过期时长应不小于窗口时长, 否则窗口内的请求记录可能随key一起被淘汰
+ * <p>
+ * LOG算法单个key的{@code limit}不能超过总权重的1/16, 否则会被立即淘汰, 此时直接报错, 应改用COUNTER算法
+ *
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public class JdkWindowLimiter extends WindowLimiter {
+
+    private static final long ORIGIN = System.nanoTime();
+
+    private static final int CONCURRENCY_LEVEL = 16;
+
+    private String limiterName;
+
+    private LoadingCache<CacheKey, Object> cache;
+
+    private long maxLogLimit;
+
+    /**
+     * @param limiterName 名称
+     */
+    public JdkWindowLimiter(String limiterName) {
+        this(limiterName, 100000L * SlidingWindowCounter.SLOTS, 10, TimeUnit.MINUTES);
+    }
+
+    /**
+     * @param limiterName           名称
+     * @param maximumWeight         最大总权重, 即所有key最多占用的long个数
+     * @param expireAfterAccess     过期时间
+     * @param expireAfterAccessUnit 过期时间单位
+     */
+    public JdkWindowLimiter(String limiterName, long maximumWeight, long expireAfterAccess, TimeUnit expireAfterAccessUnit) {
+        this.limiterName = limiterName;
+        this.maxLogLimit = Math.min(Integer.MAX_VALUE, maximumWeight / CONCURRENCY_LEVEL);
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((Weigher<CacheKey, Object>) (key, value) -> key.algorithm == Window.Algorithm.LOG
+                        ? (int) Math.max(1, key.limit) : SlidingWindowCounter.SLOTS)
+                .expireAfterAccess(expireAfterAccess, expireAfterAccessUnit)
+                .concurrencyLevel(CONCURRENCY_LEVEL)
+                .build(new CacheLoader<CacheKey, Object>() {
+                    @Override
+                    public Object load(CacheKey key) {
+                        if (key.algorithm == Window.Algorithm.LOG) {
+                            return new SlidingWindowLog((int) key.limit, key.window);
+                        }
+                        return new SlidingWindowCounter(key.window);
+                    }
+                });
+    }
+
+    @Override
+    public boolean acquire(Object key, long limit, long window, Window.Algorithm algorithm) {
+        if (algorithm == Window.Algorithm.LOG && limit > maxLogLimit) {
+            throw new InstrumentException("window log limit %d exceeds %d, use COUNTER algorithm instead", limit, maxLogLimit);
+        }
+        Object state = cache.getUnchecked(new CacheKey(key, limit, window, algorithm));
+        long now = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - ORIGIN);
+        if (state instanceof SlidingWindowLog) {
+            return ((SlidingWindowLog) state).tryAcquire(now);
+        }
+        return ((SlidingWindowCounter) state).tryAcquire(limit, now);
+    }
+
+    @Override
+    public String getLimiterName() {
+        return limiterName;
+    }
+
+    private static class CacheKey {
+
+        private final Object key;
+        private final long limit;
+        private final long window;
+        private final Window.Algorithm algorithm;
+
+        public CacheKey(Object key, long limit, long window, Window.Algorithm algorithm) {
+            this.key = key;
+            this.limit = limit;
+            this.window = window;
+            this.algorithm = algorithm;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            CacheKey cacheKey = (CacheKey) o;
+            return limit == cacheKey.limit &&
+                    window == cacheKey.window &&
+                    algorithm == cacheKey.algorithm &&
+                    Objects.equals(key, cacheKey.key);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Objects.hashCode(key);
+            result = 31 * result + Long.hashCode(limit);
+            result = 31 * result + Long.hashCode(window);
+            return 31 * result + algorithm.hashCode();
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.limiter.support.window.jdk;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 滑动窗口计数器
+ * <p>
+ * 窗口切分为{@link #SEGMENTS}段, 每段的计数保存在环形数组的一个槽位中, 槽位的高32位为段序号、
+ * 低32位为计数; 只有当前段的槽位会被修改, 因此对其CAS即可保证判断与计数的原子性.
+ * 环形数组比段数多一个槽位, 用于保留已部分滑出窗口的最早一段, 并按其仍在窗口内的时间比例折算
+ *
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public class SlidingWindowCounter {
+
+    private static final int SEGMENTS = 10;
+
+    private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+    private final long segmentMillis;
+
+    /**
+     * 每个key占用的槽位数
+     */
+    static final int SLOTS = SEGMENTS + 1;
+
+    private final AtomicLongArray slots = new AtomicLongArray(SLOTS);
+
+    /**
+     * @param window 窗口时长(毫秒)
+     */
+    public SlidingWindowCounter(long window) {
+        this.segmentMillis = Math.max(1, window / SEGMENTS);
+        // 段序号从0开始, 预置为不可能出现的值, 避免初始槽位被当作第0段的计数
+        for (int i = 0; i < slots.length(); ++i) {
+            slots.set(i, COUNT_MASK << 32);
+        }
+    }
+
+    /**
+     * 尝试记录一次请求
+     *
+     * @param limit 窗口内允许的最大请求数
+     * @param now   当前时间(毫秒), 单调递增
+     * @return 是否允许
+     */
+    public boolean tryAcquire(long limit, long now) {
+        long segment = now / segmentMillis;
+        int length = slots.length();
+
+        // 之前的段不会再被修改, 在循环外求和
+        double previous = 0;
+        for (int i = 1; i < length; ++i) {
+            long value = slots.get((int) Math.floorMod(segment - i, length));
+            if (epoch(value) == (int) (segment - i)) {
+                previous += value & COUNT_MASK;
+            }
+        }
+        long oldest = slots.get((int) Math.floorMod(segment - SEGMENTS, length));
+        if (epoch(oldest) == (int) (segment - SEGMENTS)) {
+            double elapsed = (double) (now % segmentMillis) / segmentMillis;
+            previous -= (oldest & COUNT_MASK) * elapsed;
+        }
+
+        int index = (int) (segment % length);
+        while (true) {
+            long value = slots.get(index);
+            long count = epoch(value) == (int) segment ? value & COUNT_MASK : 0;
+            if (previous + count + 1 > limit || count == COUNT_MASK) {
+                return false;
+            }
+            if (slots.compareAndSet(index, value, ((segment & COUNT_MASK) << 32) | (count + 1))) {
+                return true;
+            }
+        }
+    }
+
+    private static int epoch(long value) {
+        return (int) (value >>> 32);
+    }
+
+}
@@ -0,0 +1,72 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.limiter.support.window.jdk;
+
+import java.util.Arrays;
+
+/**
+ * 滑动日志
+ * <p>
+ * 以长度为limit的环形数组记录最近limit个请求的时间, 最早的一个仍在窗口内时拒绝;
+ * 结果精确, 每个key占用 8 * limit 字节
+ *
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public class SlidingWindowLog {
+
+    private final long window;
+
+    private final long[] log;
+
+    private int head;
+
+    /**
+     * @param limit  窗口内允许的最大请求数
+     * @param window 窗口时长(毫秒)
+     */
+    public SlidingWindowLog(int limit, long window) {
+        this.window = window;
+        this.log = new long[Math.max(0, limit)];
+        Arrays.fill(this.log, Long.MIN_VALUE / 2);
+    }
+
+    /**
+     * 尝试记录一次请求
+     *
+     * @param now 当前时间(毫秒), 单调递增
+     * @return 是否允许
+     */
+    public synchronized boolean tryAcquire(long now) {
+        if (log.length == 0 || now - log[head] < window) {
+            return false;
+        }
+        log[head] = now;
+        head = (head + 1) % log.length;
+        return true;
+    }
+
+}
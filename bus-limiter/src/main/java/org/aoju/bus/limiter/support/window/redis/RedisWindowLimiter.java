@@ -0,0 +1,152 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ ********************************************************************************/
+package org.aoju.bus.limiter.support.window.redis;
+
+import org.aoju.bus.core.io.ByteString;
+import org.aoju.bus.limiter.annotation.Window;
+import org.aoju.bus.limiter.support.window.WindowLimiter;
+import org.redisson.Redisson;
+import org.redisson.api.RScript;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.LongCodec;
+
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于Redis的滑动窗口限流
+ * <p>
+ * 每次判断只调用一次脚本({@code EVALSHA}), 时间取自Redis服务端;
+ * 每个key都设置了与窗口时长相当的过期时间, 不再访问的key会自动清理
+ *
+ * @author Kimi Liu
+ * @version 5.9.6
+ * @since JDK 1.8+
+ */
+public class RedisWindowLimiter extends WindowLimiter {
+
+    /**
+     * 滑动日志: 有序集合保存窗口内每个请求的时间
+     * 参数: 最大请求数, 窗口时长(毫秒), 请求唯一标识
+     */
+    static final String LOG_SCRIPT =
+            "pcall(redis.replicate_commands)\n" +
+                    "local limit = tonumber(ARGV[1])\n" +
+                    "local window = tonumber(ARGV[2])\n" +
+                    "local time = redis.call('time')\n" +
+                    "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n" +
+                    "redis.call('zremrangebyscore', KEYS[1], '-inf', now - window)\n" +
+                    "if redis.call('zcard', KEYS[1]) >= limit then\n" +
+                    "    return 0\n" +
+                    "end\n" +
+                    "redis.call('zadd', KEYS[1], now, ARGV[3])\n" +
+                    "redis.call('pexpire', KEYS[1], window)\n" +
+                    "return 1";
+
+    /**
+     * 滑动窗口计数: 哈希保存当前窗口序号(w)、当前窗口计数(c)与上一窗口计数(p),
+     * 上一窗口按仍在滑动窗口内的时间比例折算
+     * 参数: 最大请求数, 窗口时长(毫秒)
+     */
+    static final String COUNTER_SCRIPT =
+            "pcall(redis.replicate_commands)\n" +
+                    "local limit = tonumber(ARGV[1])\n" +
+                    "local window = tonumber(ARGV[2])\n" +
+                    "local time = redis.call('time')\n" +
+                    "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n" +
+                    "local index = math.floor(now / window)\n" +
+                    "local state = redis.call('hmget', KEYS[1], 'w', 'c', 'p')\n" +
+                    "local w = tonumber(state[1])\n" +
+                    "local c = tonumber(state[2]) or 0\n" +
+                    "local p = tonumber(state[3]) or 0\n" +
+                    "if w ~= index then\n" +
+                    "    if w == index - 1 then\n" +
+                    "        p = c\n" +
+                    "    else\n" +
+                    "        p = 0\n" +
+                    "    end\n" +
+                    "    c = 0\n" +
+                    "end\n" +
+                    "local allowed = 0\n" +
+                    "if p * (1 - (now - index * window) / window) + c + 1 <= limit then\n" +
+                    "    c = c + 1\n" +
+                    "    allowed = 1\n" +
+                    "end\n" +
+                    "redis.call('hmset', KEYS[1], 'w', index, 'c', c, 'p', p)\n" +
+                    "redis.call('pexpire', KEYS[1], window * 2)\n" +
+                    "return allowed";
+
+    private static final String LOG_SHA1 = ByteString.encodeUtf8(LOG_SCRIPT).sha1().hex();
+
+    private static final String COUNTER_SHA1 = ByteString.encodeUtf8(COUNTER_SCRIPT).sha1().hex();
+
+    private final String node = UUID.randomUUID().toString();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private Redisson redisson;
+
+    private String limiterName;
+
+    private RScript script;
+
+    public RedisWindowLimiter(Redisson redisson, String limiterName) {
+        this.redisson = redisson;
+        this.limiterName = limiterName;
+        this.script = redisson.getScript(LongCodec.INSTANCE);
+    }
+
+    @Override
+    public boolean acquire(Object key, long limit, long window, Window.Algorithm algorithm) {
+        String name = key.toString();
+        if (algorithm == Window.Algorithm.LOG) {
+            // 同一毫秒内的请求需要不同的成员, 否则会被有序集合合并
+            String member = node + ':' + sequence.incrementAndGet();
+            return eval(name, LOG_SCRIPT, LOG_SHA1, limit, window, member) == 1;
+        }
+        return eval(name, COUNTER_SCRIPT, COUNTER_SHA1, limit, window) == 1;
+    }
+
+    @Override
+    public String getLimiterName() {
+        return limiterName;
+    }
+
+    private long eval(String name, String lua, String sha, Object... args) {
+        try {
+            return script.<Long>evalSha(name, RScript.Mode.READ_WRITE, sha, RScript.ReturnType.INTEGER,
+                    Collections.singletonList(name), args);
+        } catch (RedisException e) {
+            if (null == e.getMessage() || false == e.getMessage().startsWith("NOSCRIPT")) {
+                throw e;
+            }
+        }
+        script.scriptLoadAsync(name, lua).syncUninterruptibly();
+        return script.<Long>evalSha(name, RScript.Mode.READ_WRITE, sha, RScript.ReturnType.INTEGER,
+                Collections.singletonList(name), args);
+    }
+
+}
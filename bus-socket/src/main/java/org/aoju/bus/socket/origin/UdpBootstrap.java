@@ -190,7 +190,7 @@ public class UdpBootstrap<Request> implements Runnable {
 
             readRingBuffers = new RingBuffer[config.getThreadNum()];
             for (int i = 0; i < config.getThreadNum(); i++) {
-                final RingBuffer<UdpReadEvent<Request>> ringBuffer = readRingBuffers[i] = new RingBuffer<>(1024, factory);
+                final RingBuffer<UdpReadEvent<Request>> ringBuffer = readRingBuffers[i] = new RingBuffer<>(1024, factory, RingBuffer.ProducerType.SINGLE, new WaitStrategy.Parking());
                 new Thread(() -> {
                     while (STATUS_RUNNING == status) {
                         try {
@@ -240,11 +240,10 @@ public class UdpBootstrap<Request> implements Runnable {
         }
         for (int i = 0; i < config.getThreadNum(); i++) {
             RingBuffer<UdpReadEvent<Request>> ringBuffer = readRingBuffers[i];
-            try {
-                int index = ringBuffer.tryNextWriteIndex();
+            // 发布一个空事件,唤醒等待中的工作线程
+            int index = ringBuffer.tryNextWriteIndex();
+            if (index >= 0) {
                 ringBuffer.publishWriteIndex(index);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
             }
         }
         updateServiceStatus(STATUS_STOPPED);
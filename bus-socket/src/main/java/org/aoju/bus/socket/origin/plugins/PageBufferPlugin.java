@@ -25,9 +25,7 @@
 package org.aoju.bus.socket.origin.plugins;
 
 import org.aoju.bus.core.io.BufferPool;
-import org.aoju.bus.core.io.PageBuffer;
 import org.aoju.bus.core.lang.Normal;
-import org.aoju.bus.core.lang.Symbol;
 import org.aoju.bus.logger.Logger;
 import org.aoju.bus.socket.origin.AioQuickServer;
 import org.aoju.bus.socket.origin.QuickTimer;
@@ -76,14 +74,7 @@ public class PageBufferPlugin<T> extends AbstractPlugin {
                             Logger.error("server maybe has not started!");
                             return;
                         }
-                        Field field = BufferPool.class.getDeclaredField("bufferPageList");
-                        field.setAccessible(true);
-                        PageBuffer[] pages = (PageBuffer[]) field.get(pagePool);
-                        String logger = Normal.EMPTY;
-                        for (PageBuffer page : pages) {
-                            logger += Symbol.CRLF + page.toString();
-                        }
-                        Logger.info(logger);
+                        Logger.info(pagePool.toString());
                     } catch (Exception e) {
                         Logger.error(Normal.EMPTY, e);
                     }
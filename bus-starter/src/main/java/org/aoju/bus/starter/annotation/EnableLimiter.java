@@ -50,14 +50,15 @@ public @interface EnableLimiter {
     int order() default Ordered.LOWEST_PRECEDENCE;
 
     /**
-     * 默认有三种组件
+     * 默认有四种组件, 需填写解析器的完整类名
      *
      * @return the array
      */
     String[] annotationParser()
-            default {"LockAnnotationParser",
-            "RateLimiterAnnotationParser",
-            "PeakLimiterAnnotationParser"
+            default {"org.aoju.bus.limiter.support.lock.LockAnnotationParser",
+            "org.aoju.bus.limiter.support.rate.RateLimiterAnnotationParser",
+            "org.aoju.bus.limiter.support.peak.PeakLimiterAnnotationParser",
+            "org.aoju.bus.limiter.support.window.WindowLimiterAnnotationParser"
     };
 
     /**
@@ -40,9 +40,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Role;
 import org.springframework.core.io.ResourceLoader;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
 
 /**
  * 限流配置
@@ -76,22 +74,20 @@ public class LimiterAwareHandler extends AbstractLimiterAware implements Resourc
     @Bean
     @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
     public LimitedResourceSource limitedResourceSource() {
-        String[] parsersClassNames = this.enableLimiter.getStringArray("annotationParser");
+        // 注解中指定的解析器与默认解析器去重合并
+        Set<String> parsersClassNames = new LinkedHashSet<>(Arrays.asList(this.enableLimiter.getStringArray("annotationParser")));
         List<String> defaultParsers = findDefaultParsers();
         if (!CollKit.isEmpty(defaultParsers)) {
-            int len = parsersClassNames.length;
-            parsersClassNames = Arrays.copyOf(parsersClassNames, parsersClassNames.length + defaultParsers.size());
-            for (int i = 0; i < defaultParsers.size(); i++) {
-                parsersClassNames[i + len] = defaultParsers.get(i);
-            }
+            parsersClassNames.addAll(defaultParsers);
         }
-        Parser[] parsers = new Parser[parsersClassNames.length];
-        for (int i = 0; i < parsersClassNames.length; i++) {
+        Parser[] parsers = new Parser[parsersClassNames.size()];
+        int i = 0;
+        for (String parsersClassName : parsersClassNames) {
             try {
-                Class<Parser> parserClass = (Class<Parser>) Class.forName(parsersClassNames[i]);
-                parsers[i] = parserClass.newInstance();
+                Class<Parser> parserClass = (Class<Parser>) Class.forName(parsersClassName);
+                parsers[i++] = parserClass.newInstance();
             } catch (ClassNotFoundException | InstantiationException | IllegalAccessException e) {
-                throw new InstrumentException("Class Not Found!");
+                throw new InstrumentException("Class Not Found: %s", parsersClassName);
             }
         }
         return new DefaultLimitedResourceSource(parsers);
@@ -125,9 +121,10 @@ public class LimiterAwareHandler extends AbstractLimiterAware implements Resourc
 
     private List<String> findDefaultParsers() {
         String[] parsers = new String[]{
-                "LockAnnotationParser",
-                "RateLimiterAnnotationParser",
-                "PeakLimiterAnnotationParser"
+                "org.aoju.bus.limiter.support.lock.LockAnnotationParser",
+                "org.aoju.bus.limiter.support.rate.RateLimiterAnnotationParser",
+                "org.aoju.bus.limiter.support.peak.PeakLimiterAnnotationParser",
+                "org.aoju.bus.limiter.support.window.WindowLimiterAnnotationParser"
         };
         List<String> ret = new ArrayList<>();
         for (int i = 0; i < parsers.length; i++) {